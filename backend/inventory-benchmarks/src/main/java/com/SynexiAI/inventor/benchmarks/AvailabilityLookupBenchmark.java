@@ -0,0 +1,88 @@
+package com.SynexiAI.inventor.benchmarks;
+
+import com.SynexiAI.inventor.cache.SkuAvailabilityMap;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One availability check, as GET /api/inventory/available/{sku} answers it from
+ * {@link SkuAvailabilityMap}, against the entity-to-DTO path GET /sku/{sku}
+ * takes (the query left out). {@code gc.alloc.rate.norm} of the map lookups
+ * should be 0.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityLookupBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    private final InventoryMappingService mapper = new InventoryMappingService();
+    private SkuAvailabilityMap map;
+    private Map<String, InventoryItem> entities;
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<InventoryItem> items = InventoryFixtures.items(size);
+        map = new SkuAvailabilityMap(size);
+        entities = new HashMap<>();
+        hits = new String[Math.min(size, 4096)];
+        misses = new String[hits.length];
+        for (InventoryItem item : items) {
+            map.put(item.getSkuCode(), item.getQuantityAvailable());
+            entities.put(item.getSkuCode(), item);
+        }
+        for (int i = 0; i < hits.length; i++) {
+            // Copies, not the stored strings, as a request's path variable would be
+            hits[i] = new String(items.get(i * (size / hits.length)).getSkuCode());
+            misses[i] = "UNKNOWN-" + i;
+        }
+    }
+
+    @Benchmark
+    public int mapHit() {
+        return map.get(hits[advance()]);
+    }
+
+    @Benchmark
+    public int mapMiss() {
+        return map.get(misses[advance()]);
+    }
+
+    // Returns the DTO, as the endpoint does, so escape analysis cannot drop it
+    @Benchmark
+    public InventoryItemDto entityToDto() {
+        return mapper.toDto(entities.get(hits[advance()]));
+    }
+
+    // Walks the lookup keys in turn so the benchmark is not one cached probe
+    private int advance() {
+        int i = next;
+        next = i + 1 == hits.length ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,34 @@
+package com.SynexiAI.inventor.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Same options as the stock JMH launcher,
+ * but the GC profiler is on unless another profiler is chosen, so every run
+ * reports {@code gc.alloc.rate.norm} (bytes allocated per operation) next to the
+ * timings.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                      # everything
+ * java -jar target/benchmarks.jar Mapping -p size=100  # one class, one size
+ * java -jar target/benchmarks.jar -prof stack          # pick a different profiler
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-prof")) {
+            jmhArgs.add("-prof");
+            jmhArgs.add("gc");
+        }
+        Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,43 @@
+package com.SynexiAI.inventor.benchmarks;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Deterministic catalogue rows shaped like production data, so every run measures the same bytes. */
+final class InventoryFixtures {
+
+    private static final LocalDate BASE_EXPIRY = LocalDate.of(2026, 1, 1);
+
+    private InventoryFixtures() {
+    }
+
+    static List<InventoryItem> items(int count) {
+        List<InventoryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            InventoryItem item = new InventoryItem();
+            item.setId((long) i + 1);
+            item.setSkuCode(String.format("SKU-%06d", i));
+            item.setName("Stainless steel widget, pack of " + (i % 50 + 1));
+            item.setQuantityAvailable(i % 1000);
+            item.setQuantityReserved(i % 17);
+            item.setReorderLevel(25);
+            item.setLocation(String.format("A-%02d-%02d", i % 40, i % 12));
+            // Roughly a third of the catalogue is perishable
+            item.setExpiryDate(i % 3 == 0 ? BASE_EXPIRY.plusDays(i % 365) : null);
+            item.setChangeSeq(100_000L + i);
+            item.setVersion((long) (i % 7));
+            items.add(item);
+        }
+        return items;
+    }
+
+    static List<InventoryItemDto> dtos(int count) {
+        InventoryMappingService mapper = new InventoryMappingService();
+        return items(count).stream().map(mapper::toDto).toList();
+    }
+}
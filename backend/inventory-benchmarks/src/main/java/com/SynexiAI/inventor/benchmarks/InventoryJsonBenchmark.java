@@ -0,0 +1,61 @@
+package com.SynexiAI.inventor.benchmarks;
+
+import com.SynexiAI.inventor.config.RedisConfig;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of DTO lists, the bulk of every list response. Uses the
+ * application's ObjectMapper from {@link RedisConfig} (field visibility ANY);
+ * {@code serializeDefaultVisibility} is the same mapper with Jackson's default
+ * getter-based visibility, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryJsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int size;
+
+    private final ObjectMapper appMapper = new RedisConfig().objectMapper();
+    private final ObjectMapper defaultVisibilityMapper = new ObjectMapper()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .registerModule(new JavaTimeModule());
+    private List<InventoryItemDto> dtos;
+
+    @Setup
+    public void setup() {
+        dtos = InventoryFixtures.dtos(size);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return appMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeDefaultVisibility() throws JsonProcessingException {
+        return defaultVisibilityMapper.writeValueAsBytes(dtos);
+    }
+}
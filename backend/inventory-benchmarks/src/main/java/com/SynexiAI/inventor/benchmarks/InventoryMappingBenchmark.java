@@ -0,0 +1,61 @@
+package com.SynexiAI.inventor.benchmarks;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity to DTO and back, as every read and write through InventoryService does it. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int size;
+
+    private final InventoryMappingService mapper = new InventoryMappingService();
+    private List<InventoryItem> items;
+    private List<InventoryItemDto> dtos;
+
+    @Setup
+    public void setup() {
+        items = InventoryFixtures.items(size);
+        dtos = InventoryFixtures.dtos(size);
+    }
+
+    @Benchmark
+    public List<InventoryItemDto> toDto() {
+        List<InventoryItemDto> out = new ArrayList<>(items.size());
+        for (InventoryItem item : items) {
+            out.add(mapper.toDto(item));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<InventoryItem> toEntity() {
+        List<InventoryItem> out = new ArrayList<>(dtos.size());
+        for (InventoryItemDto dto : dtos) {
+            out.add(mapper.toEntity(dto));
+        }
+        return out;
+    }
+}
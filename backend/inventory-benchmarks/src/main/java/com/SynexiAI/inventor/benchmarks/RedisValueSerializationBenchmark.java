@@ -0,0 +1,108 @@
+package com.SynexiAI.inventor.benchmarks;
+
+import com.SynexiAI.inventor.cache.CacheCodecs;
+import com.SynexiAI.inventor.cache.JacksonCacheCodec;
+import com.SynexiAI.inventor.config.RedisConfig;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache values as they go to and come back from Redis, through the value
+ * serializer the application's {@link RedisConfig} configures, for each codec
+ * with compression off and at the default threshold. Item-cache entries are
+ * single DTOs; page-cache entries are {@link InventoryPage}s of {@code size} items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisValueSerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Codec {
+        @Param({"json", "smile"})
+        String codec;
+
+        @Param({"0", "1024"})
+        int compressionThreshold;
+
+        RedisSerializationContext.SerializationPair<Object> values;
+
+        @Setup
+        public void setup() {
+            ObjectMapper mapper = new RedisConfig().objectMapper();
+            CacheCodecs codecs = new CacheCodecs(List.of(JacksonCacheCodec.json(mapper), JacksonCacheCodec.smile(mapper)),
+                    codec, compressionThreshold, 0, new SimpleMeterRegistry());
+            values = RedisCacheConfiguration.defaultCacheConfig()
+                    .serializeValuesWith(codecs.serializationPair("benchmark"))
+                    .getValueSerializationPair();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Item {
+        InventoryItemDto value;
+        ByteBuffer encoded;
+
+        @Setup
+        public void setup(Codec codec) {
+            value = InventoryFixtures.dtos(1).get(0);
+            encoded = codec.values.write(value);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        @Param({"1", "100", "10000"})
+        int size;
+
+        InventoryPage value;
+        ByteBuffer encoded;
+
+        @Setup
+        public void setup(Codec codec) {
+            value = new InventoryPage(InventoryFixtures.dtos(size), "c2t1OlNLVS0wMDAwOTk", true);
+            encoded = codec.values.write(value);
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer writeItem(Codec codec, Item item) {
+        return codec.values.write(item.value);
+    }
+
+    @Benchmark
+    public Object readItem(Codec codec, Item item) {
+        return codec.values.read(item.encoded.duplicate());
+    }
+
+    @Benchmark
+    public ByteBuffer writePage(Codec codec, Page page) {
+        return codec.values.write(page.value);
+    }
+
+    @Benchmark
+    public Object readPage(Codec codec, Page page) {
+        return codec.values.read(page.encoded.duplicate());
+    }
+}
@@ -0,0 +1,22 @@
+package com.SynexiAI.inventor.cache;
+
+/**
+ * Turns cache values into bytes for Redis and back. Implementations must be
+ * thread-safe and may throw {@link org.springframework.data.redis.serializer.SerializationException}.
+ *
+ * <p>The id is stored in front of every value, so entries written with one codec
+ * stay readable after switching {@code inventory.cache.codec} to another. Extra
+ * codecs are picked up as beans.
+ */
+public interface CacheCodec {
+
+    /** 1 to {@value CacheCodecs#MAX_CODEC_ID}, never reused for a different format. */
+    int id();
+
+    /** What {@code inventory.cache.codec} selects it by, and its metric tag. */
+    String name();
+
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes);
+}
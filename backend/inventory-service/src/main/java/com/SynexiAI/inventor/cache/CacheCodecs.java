@@ -0,0 +1,65 @@
+package com.SynexiAI.inventor.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The codecs the application can read, the one it writes with, and the value
+ * serializer built from them for each cache.
+ *
+ * <p>{@code compareEvery} makes every n-th write of a cache also go through each of
+ * the other codecs, for metrics only, so their sizes and timings can be compared
+ * on production values before switching. {@code 0} turns that off.
+ */
+public class CacheCodecs {
+
+    public static final int MAX_CODEC_ID = 7;
+
+    private final Map<Integer, CacheCodec> codecs = new LinkedHashMap<>();
+    private final CacheCodec active;
+    private final int compressionThreshold;
+    private final int compareEvery;
+    private final MeterRegistry meterRegistry;
+
+    public CacheCodecs(List<? extends CacheCodec> codecs, String active, int compressionThreshold, int compareEvery,
+                       MeterRegistry meterRegistry) {
+        for (CacheCodec codec : codecs) {
+            if (codec.id() < 1 || codec.id() > MAX_CODEC_ID) {
+                throw new IllegalArgumentException("Cache codec " + codec.name() + " has id " + codec.id()
+                        + ", expected 1 to " + MAX_CODEC_ID);
+            }
+            CacheCodec clash = this.codecs.putIfAbsent(codec.id(), codec);
+            if (clash != null) {
+                throw new IllegalArgumentException("Cache codecs " + clash.name() + " and " + codec.name()
+                        + " share id " + codec.id());
+            }
+        }
+        this.active = this.codecs.values().stream()
+                .filter(codec -> codec.name().equals(active))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown cache codec '" + active + "', expected one of "
+                        + this.codecs.values().stream().map(CacheCodec::name).toList()));
+        if (!this.codecs.containsKey(JacksonCacheCodec.JSON_ID)) {
+            throw new IllegalArgumentException("The json codec is required to read entries written before codecs");
+        }
+        this.compressionThreshold = compressionThreshold;
+        this.compareEvery = compareEvery;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CacheValueSerializer serializer(String cacheName) {
+        return new CacheValueSerializer(cacheName, active, codecs, compressionThreshold, compareEvery, meterRegistry);
+    }
+
+    public RedisSerializationContext.SerializationPair<Object> serializationPair(String cacheName) {
+        return RedisSerializationContext.SerializationPair.fromSerializer(serializer(cacheName));
+    }
+
+    public CacheCodec getActive() {
+        return active;
+    }
+}
@@ -0,0 +1,194 @@
+package com.SynexiAI.inventor.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cache values as stored in Redis: one header byte, then the codec's output,
+ * deflated once it reaches {@code compressionThreshold} bytes (0 turns
+ * compression off). Header bits 1-3 hold the codec id, bit 0 is set when the
+ * body is deflated.
+ *
+ * <p>Uncompressed JSON is written without a header, exactly as before codecs
+ * existed, so with {@code inventory.cache.codec=json} older nodes can still read
+ * the cache. Any value whose first byte is not a header (JSON always starts with a
+ * printable character) is read as JSON.
+ *
+ * <p>Metrics, tagged {@code cache}, {@code codec} and {@code mode=active|compare}:
+ * {@code inventory.cache.codec.bytes} (with {@code stage=encoded} before and
+ * {@code stage=stored} after compression), {@code inventory.cache.codec.encode}
+ * and {@code inventory.cache.codec.decode}.
+ */
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final int DEFLATED = 0x01;
+    private static final int HEADER_LIMIT = (CacheCodecs.MAX_CODEC_ID << 1 | DEFLATED) + 1;
+
+    private final CacheCodec active;
+    private final Map<Integer, CacheCodec> codecs;
+    private final int compressionThreshold;
+    private final int compareEvery;
+    private final AtomicLong writes = new AtomicLong();
+    private final Map<Integer, Meters> activeMeters = new HashMap<>();
+    private final Map<Integer, Meters> compareMeters = new HashMap<>();
+
+    CacheValueSerializer(String cacheName, CacheCodec active, Map<Integer, CacheCodec> codecs,
+                         int compressionThreshold, int compareEvery, MeterRegistry meterRegistry) {
+        this.active = active;
+        this.codecs = Map.copyOf(codecs);
+        this.compressionThreshold = compressionThreshold;
+        this.compareEvery = compareEvery;
+        for (CacheCodec codec : codecs.values()) {
+            activeMeters.put(codec.id(), new Meters(meterRegistry, cacheName, codec, "active"));
+            compareMeters.put(codec.id(), new Meters(meterRegistry, cacheName, codec, "compare"));
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] stored = encode(active, value, activeMeters.get(active.id()));
+        if (compareEvery > 0 && writes.incrementAndGet() % compareEvery == 0) {
+            compare(value);
+        }
+        return stored;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        return read(bytes, activeMeters);
+    }
+
+    private Object read(byte[] stored, Map<Integer, Meters> meters) {
+        int header = stored[0] & 0xFF;
+        if (header >= HEADER_LIMIT) {
+            return decode(codecs.get(JacksonCacheCodec.JSON_ID), stored, meters);
+        }
+        CacheCodec codec = codecs.get(header >>> 1);
+        if (codec == null) {
+            throw new SerializationException("Cache value written with unknown codec id " + (header >>> 1));
+        }
+        byte[] body = (header & DEFLATED) != 0 ? inflate(stored) : Arrays.copyOfRange(stored, 1, stored.length);
+        return decode(codec, body, meters);
+    }
+
+    private byte[] encode(CacheCodec codec, Object value, Meters meters) {
+        long start = System.nanoTime();
+        byte[] encoded = codec.encode(value);
+        byte[] stored = frame(codec, encoded);
+        meters.encode.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meters.encodedBytes.record(encoded.length);
+        meters.storedBytes.record(stored.length);
+        return stored;
+    }
+
+    private Object decode(CacheCodec codec, byte[] body, Map<Integer, Meters> meters) {
+        long start = System.nanoTime();
+        Object value = codec.decode(body);
+        meters.get(codec.id()).decode.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return value;
+    }
+
+    // Encodes (and decodes back) with every codec but the active one; the result is thrown away
+    private void compare(Object value) {
+        for (CacheCodec codec : codecs.values()) {
+            if (codec == active) {
+                continue;
+            }
+            try {
+                read(encode(codec, value, compareMeters.get(codec.id())), compareMeters);
+            } catch (RuntimeException e) {
+                // A codec that cannot handle the value has nothing to report; the real write already succeeded
+            }
+        }
+    }
+
+    private byte[] frame(CacheCodec codec, byte[] encoded) {
+        if (compressionThreshold > 0 && encoded.length >= compressionThreshold) {
+            byte[] deflated = deflate(codec, encoded);
+            if (deflated.length < encoded.length) {
+                return deflated;
+            }
+        }
+        if (codec.id() == JacksonCacheCodec.JSON_ID) {
+            return encoded;
+        }
+        byte[] framed = new byte[encoded.length + 1];
+        framed[0] = (byte) (codec.id() << 1);
+        System.arraycopy(encoded, 0, framed, 1, encoded.length);
+        return framed;
+    }
+
+    private static byte[] deflate(CacheCodec codec, byte[] encoded) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(encoded);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length / 2 + 16);
+            out.write(codec.id() << 1 | DEFLATED);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Meters {
+        final DistributionSummary encodedBytes;
+        final DistributionSummary storedBytes;
+        final Timer encode;
+        final Timer decode;
+
+        Meters(MeterRegistry registry, String cacheName, CacheCodec codec, String mode) {
+            String[] tags = {"cache", cacheName, "codec", codec.name(), "mode", mode};
+            encodedBytes = DistributionSummary.builder("inventory.cache.codec.bytes").baseUnit("bytes")
+                    .tags(tags).tag("stage", "encoded").register(registry);
+            storedBytes = DistributionSummary.builder("inventory.cache.codec.bytes").baseUnit("bytes")
+                    .tags(tags).tag("stage", "stored").register(registry);
+            encode = Timer.builder("inventory.cache.codec.encode").tags(tags).register(registry);
+            decode = Timer.builder("inventory.cache.codec.decode").tags(tags).register(registry);
+        }
+    }
+}
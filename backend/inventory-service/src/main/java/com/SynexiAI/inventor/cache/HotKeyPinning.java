@@ -0,0 +1,61 @@
+package com.SynexiAI.inventor.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Near-cache policy that pins hot keys: an entry written while its key is hot
+ * weighs nothing, so size-based eviction never picks it, and it lives for
+ * {@code pinnedTtl} instead of {@code ttl}. Both are decided when the entry is
+ * written, so a key that turns hot is pinned from its next write or reload, and a
+ * key that cools down keeps its pinned entry until that entry expires.
+ *
+ * <p>The L1 TTL only bounds staleness after a lost invalidation, so a longer
+ * pinned TTL widens that window for hot keys only. Pinned entries are at most the
+ * keys that were hot within one pinned TTL.
+ */
+public class HotKeyPinning implements Expiry<Object, Object>, Weigher<Object, Object> {
+
+    private final Predicate<String> hot;
+    private final long ttlNanos;
+    private final long pinnedTtlNanos;
+
+    public HotKeyPinning(Predicate<String> hot, Duration ttl, Duration pinnedTtl) {
+        this.hot = hot;
+        this.ttlNanos = ttl.toNanos();
+        this.pinnedTtlNanos = pinnedTtl.toNanos();
+    }
+
+    /** A near-cache spec of {@code maxSize} unpinned entries that applies this policy. */
+    public Caffeine<Object, Object> spec(long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher(this)
+                .expireAfter(this)
+                .recordStats();
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return hot.test(String.valueOf(key)) ? 0 : 1;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return hot.test(String.valueOf(key)) ? pinnedTtlNanos : ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
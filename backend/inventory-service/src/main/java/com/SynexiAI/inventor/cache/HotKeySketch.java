@@ -0,0 +1,166 @@
+package com.SynexiAI.inventor.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate access counts in fixed memory: a count-min sketch of
+ * {@code depth} rows by {@code width} counters, plus the {@code k} keys with the
+ * highest estimates seen so far.
+ *
+ * <p>An estimate never undercounts and overcounts by at most about
+ * {@code e / width} of all hits recorded, with probability {@code 1 - e^-depth}.
+ * Recording a hit is lock-free; the top-k set is only locked when a key outside
+ * it overtakes the smallest member, and finding that member is a scan of k
+ * entries. {@link #decay()} halves every count, so the sketch follows what is hot
+ * now rather than since startup.
+ */
+public class HotKeySketch {
+
+    public record HotKey(String key, long estimate) {
+    }
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final LongAdder total = new LongAdder();
+    private final int k;
+    private final Map<String, Member> top = new ConcurrentHashMap<>();
+    private final ReentrantLock admission = new ReentrantLock();
+    // Smallest estimate in a full top-k; keys below it skip the lock
+    private volatile long floor;
+
+    public HotKeySketch(int width, int depth, int k) {
+        if (width < 1 || depth < 1 || k < 1) {
+            throw new IllegalArgumentException("width, depth and k must be positive");
+        }
+        int roundedWidth = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(roundedWidth * depth);
+        this.k = k;
+    }
+
+    /** Records one hit and returns the key's new estimate. */
+    public long add(String key) {
+        total.increment();
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & mask;
+            estimate = Math.min(estimate, counters.incrementAndGet(row * (mask + 1) + column));
+        }
+
+        Member member = top.get(key);
+        if (member != null) {
+            member.estimate = estimate;
+        } else if (top.size() < k || estimate > floor) {
+            admit(key, estimate);
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * (mask + 1) + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    /** Current estimate if the key is among the top k, otherwise 0. */
+    public long topEstimate(String key) {
+        Member member = top.get(key);
+        return member != null ? member.estimate : 0;
+    }
+
+    /** Hits recorded, as decayed alongside the counters. */
+    public long total() {
+        return total.sum();
+    }
+
+    /** The top k, highest estimate first. */
+    public List<HotKey> top() {
+        List<HotKey> keys = new ArrayList<>(top.size());
+        top.forEach((key, member) -> keys.add(new HotKey(key, member.estimate)));
+        keys.sort(Comparator.comparingLong(HotKey::estimate).reversed().thenComparing(HotKey::key));
+        return keys;
+    }
+
+    /** Halves every count. Hits recorded concurrently may be halved or not. */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        long halved = total.sumThenReset() >>> 1;
+        total.add(halved);
+        admission.lock();
+        try {
+            top.values().forEach(member -> member.estimate >>>= 1);
+            top.values().removeIf(member -> member.estimate == 0);
+            floor = top.size() < k ? 0 : smallest().estimate;
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    private void admit(String key, long estimate) {
+        admission.lock();
+        try {
+            if (top.containsKey(key)) {
+                return;
+            }
+            if (top.size() >= k) {
+                Member smallest = smallest();
+                if (estimate <= smallest.estimate) {
+                    floor = smallest.estimate;
+                    return;
+                }
+                top.remove(smallest.key);
+            }
+            top.put(key, new Member(key, estimate));
+            floor = top.size() < k ? 0 : smallest().estimate;
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    private Member smallest() {
+        Member smallest = null;
+        for (Member member : top.values()) {
+            if (smallest == null || member.estimate < smallest.estimate) {
+                smallest = member;
+            }
+        }
+        return smallest;
+    }
+
+    // murmur3 finalizer: spreads String.hashCode's weak low bits over the whole int
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static final class Member {
+        final String key;
+        volatile long estimate;
+
+        Member(String key, long estimate) {
+            this.key = key;
+            this.estimate = estimate;
+        }
+    }
+}
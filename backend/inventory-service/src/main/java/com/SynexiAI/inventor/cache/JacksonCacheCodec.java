@@ -0,0 +1,64 @@
+package com.SynexiAI.inventor.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+/**
+ * Jackson with embedded type info, so values come back as the DTOs they were
+ * cached as. {@link #json} is the format the caches always used;
+ * {@link #smile} is the same data model in Smile, Jackson's binary JSON, with
+ * back-references for repeated property names and short strings. The class
+ * name on every element of a cached page is then written once.
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    public static final int JSON_ID = 1;
+    public static final int SMILE_ID = 2;
+
+    private final int id;
+    private final String name;
+    private final GenericJackson2JsonRedisSerializer serializer;
+
+    JacksonCacheCodec(int id, String name, ObjectMapper mapper) {
+        this.id = id;
+        this.name = name;
+        // Type info goes on a copy so the MVC mapper stays untyped
+        this.serializer = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(mapper)
+                .defaultTyping(true)
+                .build();
+    }
+
+    public static JacksonCacheCodec json(ObjectMapper mapper) {
+        return new JacksonCacheCodec(JSON_ID, "json", mapper.copy());
+    }
+
+    public static JacksonCacheCodec smile(ObjectMapper mapper) {
+        SmileFactory smile = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new JacksonCacheCodec(SMILE_ID, "smile", mapper.copyWith(smile));
+    }
+
+    @Override
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return serializer.serialize(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return serializer.deserialize(bytes);
+    }
+}
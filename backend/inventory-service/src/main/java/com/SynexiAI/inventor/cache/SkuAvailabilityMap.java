@@ -0,0 +1,161 @@
+package com.SynexiAI.inventor.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * SKU code to available quantity, stored as plain {@code String[]} and
+ * {@code int[]} arrays with open addressing (linear probing), so a lookup
+ * boxes nothing, builds no entry objects and allocates nothing at all.
+ *
+ * <p>Reads are lock-free; writes are serialised on the map. A slot's key only
+ * ever goes from empty to a SKU to deleted and is never reused, so a reader
+ * that matched a key cannot pick up another SKU's quantity. Deleted slots are
+ * dropped when the table is rebuilt, which happens whenever live plus deleted
+ * slots pass three quarters of the capacity.
+ */
+public class SkuAvailabilityMap {
+
+    /** Returned by {@link #get} for a SKU that is not in the map. Quantities are never negative. */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+    // Compared by identity only, so no SKU can be mistaken for it
+    private static final String DELETED = new String("<deleted>");
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private volatile Table table;
+
+    public SkuAvailabilityMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    public int get(String skuCode) {
+        Table t = table;
+        String[] keys = t.keys;
+        int mask = keys.length - 1;
+        for (int i = spread(skuCode.hashCode()) & mask; ; i = (i + 1) & mask) {
+            String key = (String) KEYS.getAcquire(keys, i);
+            if (key == null) {
+                return MISSING;
+            }
+            if (key != DELETED && key.equals(skuCode)) {
+                return (int) VALUES.getAcquire(t.values, i);
+            }
+        }
+    }
+
+    public synchronized void put(String skuCode, int available) {
+        put(skuCode, available, true);
+    }
+
+    /** Leaves a SKU that is already present alone; for loads that may race with newer writes. */
+    public synchronized void putIfAbsent(String skuCode, int available) {
+        put(skuCode, available, false);
+    }
+
+    public synchronized void remove(String skuCode) {
+        Table t = table;
+        int slot = find(t, skuCode);
+        if (slot >= 0) {
+            KEYS.setRelease(t.keys, slot, DELETED);
+            t.live--;
+        }
+    }
+
+    public synchronized void clear() {
+        table = new Table(MIN_CAPACITY);
+    }
+
+    public int size() {
+        return table.live;
+    }
+
+    private void put(String skuCode, int available, boolean replace) {
+        Table t = table;
+        int slot = find(t, skuCode);
+        if (slot >= 0) {
+            if (replace) {
+                VALUES.setRelease(t.values, slot, available);
+            }
+            return;
+        }
+        if ((t.used + 1) * 4L > t.keys.length * 3L) {
+            t = rebuild(t);
+        }
+        String[] keys = t.keys;
+        int mask = keys.length - 1;
+        int i = spread(skuCode.hashCode()) & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        // The value has to be visible before the key that leads readers to it
+        VALUES.setRelease(t.values, i, available);
+        KEYS.setRelease(keys, i, skuCode);
+        t.used++;
+        t.live++;
+    }
+
+    private static int find(Table t, String skuCode) {
+        String[] keys = t.keys;
+        int mask = keys.length - 1;
+        for (int i = spread(skuCode.hashCode()) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) {
+                return -1;
+            }
+            if (key != DELETED && key.equals(skuCode)) {
+                return i;
+            }
+        }
+    }
+
+    // Copies the live entries into a table sized for twice as many, then publishes it in one volatile write
+    private Table rebuild(Table old) {
+        Table fresh = new Table(capacityFor(old.live * 2 + 1));
+        int mask = fresh.keys.length - 1;
+        for (int j = 0; j < old.keys.length; j++) {
+            String key = old.keys[j];
+            if (key == null || key == DELETED) {
+                continue;
+            }
+            int i = spread(key.hashCode()) & mask;
+            while (fresh.keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            fresh.keys[i] = key;
+            fresh.values[i] = old.values[j];
+            fresh.used++;
+            fresh.live++;
+        }
+        table = fresh;
+        return fresh;
+    }
+
+    private static int capacityFor(int entries) {
+        long wanted = Math.max(MIN_CAPACITY, (long) Math.max(0, entries) * 4 / 3 + 1);
+        if (wanted > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries: " + entries);
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    // String.hashCode is cached in the string; mix it so sequential SKU codes do not cluster
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+        final String[] keys;
+        final int[] values;
+        int used;               // live plus deleted slots; only touched under the map's lock
+        volatile int live;
+
+        Table(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new int[capacity];
+        }
+    }
+}
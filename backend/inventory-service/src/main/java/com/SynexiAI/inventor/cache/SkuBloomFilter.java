@@ -0,0 +1,83 @@
+package com.SynexiAI.inventor.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set membership in fixed memory with no false negatives: {@link #mightContain}
+ * is always true for a key that was {@link #put}, and true for a key that was
+ * not with probability close to the {@code falsePositiveRate} it was sized for,
+ * as long as no more than {@code expectedKeys} are added. Keys cannot be
+ * removed; build a new filter instead.
+ *
+ * <p>Each key sets {@code hashCount} bits chosen by double hashing of one 64-bit
+ * hash. Adding and testing are lock-free.
+ */
+public class SkuBloomFilter {
+
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray words;
+
+    public SkuBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedKeys must be positive and falsePositiveRate in (0, 1)");
+        }
+        // m = -n ln p / (ln 2)^2 bits, k = m / n ln 2 hashes
+        long bits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        this.words = new AtomicLongArray(words);
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long current = words.get(word);
+            if ((current & mask) == 0) {
+                words.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // FNV-1a over the chars, then a 64-bit finaliser so both halves are usable as hashes
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
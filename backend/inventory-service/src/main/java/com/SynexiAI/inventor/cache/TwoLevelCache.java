@@ -0,0 +1,129 @@
+package com.SynexiAI.inventor.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A Caffeine near-cache (L1) in front of a shared cache (L2, Redis). Reads try
+ * L1 first and fill it from L2; writes go to L2, then L1, and then tell the
+ * other nodes to drop their L1 copy of the key.
+ *
+ * A read racing with a remote write can still put the old L2 value into L1
+ * just after the invalidation arrives; the L1 TTL bounds how long that lasts.
+ */
+public class TwoLevelCache implements Cache {
+
+    /** Broadcasts an invalidation to the other nodes. A null key means the whole cache. */
+    @FunctionalInterface
+    public interface Invalidations {
+        void publish(String cacheName, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final Invalidations invalidations;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         Cache remote,
+                         Invalidations invalidations) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> getLocalCache() {
+        return local;
+    }
+
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = local.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        value = remote.get(key);
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = remote.get(key, valueLoader);
+        local.put(localKey(key), new SimpleValueWrapper(value));
+        invalidations.publish(name, localKey(key));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(localKey(key), new SimpleValueWrapper(value));
+        invalidations.publish(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        invalidations.publish(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidations.publish(name, null);
+    }
+
+    /** Applies an invalidation received from another node. */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    // Redis turns every key into a string, so L1 does the same: 1L and "1" are the same entry in both levels
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
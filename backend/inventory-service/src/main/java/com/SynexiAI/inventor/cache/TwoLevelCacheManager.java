@@ -0,0 +1,109 @@
+package com.SynexiAI.inventor.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of the Redis cache manager in a {@link TwoLevelCache} and
+ * relays L1 invalidations between nodes over a Redis pub/sub channel.
+ *
+ * Messages are {@code nodeId|E|cache|key} (evict one key) or {@code nodeId|C|cache}
+ * (clear); a node ignores its own messages, and messages of other types, which
+ * other listeners share the channel for.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remote;
+    private final Caffeine<Object, Object> localSpec;
+    private final Map<String, Caffeine<Object, Object>> localSpecsByCache;
+    private final StringRedisTemplate redis;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, Caffeine<Object, Object> localSpec,
+                                StringRedisTemplate redis, String channel) {
+        this(remote, localSpec, Map.of(), redis, channel);
+    }
+
+    /** {@code localSpecsByCache} overrides {@code localSpec} for the named caches' L1. */
+    public TwoLevelCacheManager(CacheManager remote, Caffeine<Object, Object> localSpec,
+                                Map<String, Caffeine<Object, Object>> localSpecsByCache,
+                                StringRedisTemplate redis, String channel) {
+        this.remote = remote;
+        this.localSpec = localSpec;
+        this.localSpecsByCache = Map.copyOf(localSpecsByCache);
+        this.redis = redis;
+        this.channel = channel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoLevelCache(n,
+                localSpecsByCache.getOrDefault(n, localSpec).build(), remoteCache, this::publish));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void publish(String cacheName, String key) {
+        String message = key == null
+                ? nodeId + "|C|" + cacheName
+                : nodeId + "|E|" + cacheName + "|" + key;
+        try {
+            redis.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to their L1 TTL for this key
+            log.warn("Could not broadcast cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        handle(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    void handle(String message) {
+        // the key comes last and may itself contain '|'
+        String[] parts = message.split("\\|", 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;     // never read on this node, so nothing to drop
+        }
+        if ("C".equals(parts[1])) {
+            cache.invalidateLocal(null);
+        } else if ("E".equals(parts[1]) && parts.length == 4) {
+            cache.invalidateLocal(parts[3]);
+        }
+    }
+}
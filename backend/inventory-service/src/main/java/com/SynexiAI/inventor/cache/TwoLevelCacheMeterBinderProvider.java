@@ -0,0 +1,27 @@
+package com.SynexiAI.inventor.cache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Reports each level separately: {@code cache.gets{name=..., level=l1|l2, result=hit|miss}}.
+ * L2 only sees the reads that missed L1.
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), Tags.concat(tags, "level", "l1"))
+                    .bindTo(registry);
+            if (cache.getRemoteCache() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, Tags.concat(tags, "level", "l2")).bindTo(registry);
+            }
+        };
+    }
+}
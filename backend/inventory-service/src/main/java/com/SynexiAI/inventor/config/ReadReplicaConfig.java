@@ -0,0 +1,131 @@
+package com.SynexiAI.inventor.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a read replica and
+ * everything else to the primary. Only active when
+ * {@code inventory.datasource.replica.url} is set; without it the application
+ * uses the single auto-configured pool as before.
+ *
+ * <p>The application's DataSource is a {@link LazyConnectionDataSourceProxy} over
+ * the primary pool. The transaction manager marks the connection read-only before
+ * its first statement, and at that point the proxy takes the physical connection
+ * from the read-only side instead. That side is the replica while
+ * {@link ReplicaLagMonitor} finds it within {@code max-staleness}, and the
+ * primary otherwise.
+ *
+ * <p>Reads whose results are cached stay on the primary (plain {@code @Transactional}).
+ * A cache entry outlives {@code max-staleness}: a lookup that reached a lagging
+ * replica right after a delete would keep the deleted item cached for the whole
+ * item TTL. The changes feed stays there too: its {@code nextSince} is a
+ * cursor the client never rewinds, so a row missing from the replica would
+ * be skipped for good.
+ *
+ * <p>Metrics: {@code inventory.datasource.reads{target=replica|primary}} per
+ * read-only connection and {@code inventory.datasource.replica.lag} (ms, -1 when
+ * unreachable).
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(@Value("${inventory.datasource.replica.url}") String url,
+                                              @Value("${inventory.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${inventory.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${inventory.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMaximumPoolSize(maximumPoolSize);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${inventory.datasource.replica.max-staleness:5s}") Duration maxStaleness,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, maxStaleness, Clock.systemUTC());
+        Gauge.builder("inventory.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor monitor,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return routing(primary, replica, monitor, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public static DataSource routing(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+                                     MeterRegistry meterRegistry) {
+        ReadOnlyRouting readOnly = new ReadOnlyRouting(monitor,
+                Counter.builder("inventory.datasource.reads").tag("target", "replica").register(meterRegistry),
+                Counter.builder("inventory.datasource.reads").tag("target", "primary").register(meterRegistry));
+        readOnly.setTargetDataSources(Map.of(true, replica, false, primary));
+        readOnly.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        return dataSource;
+    }
+
+    /** Where read-only connections come from: the replica while it is fresh, else the primary. */
+    private static final class ReadOnlyRouting extends AbstractRoutingDataSource {
+
+        private final ReplicaLagMonitor monitor;
+        private final Counter replicaReads;
+        private final Counter primaryReads;
+
+        ReadOnlyRouting(ReplicaLagMonitor monitor, Counter replicaReads, Counter primaryReads) {
+            this.monitor = monitor;
+            this.replicaReads = replicaReads;
+            this.primaryReads = primaryReads;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            boolean fresh = monitor.isFresh();
+            (fresh ? replicaReads : primaryReads).increment();
+            return fresh;
+        }
+    }
+}
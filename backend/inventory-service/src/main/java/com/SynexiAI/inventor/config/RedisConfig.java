@@ -5,12 +5,34 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.SynexiAI.inventor.cache.CacheCodec;
+import com.SynexiAI.inventor.cache.CacheCodecs;
+import com.SynexiAI.inventor.cache.HotKeyPinning;
+import com.SynexiAI.inventor.cache.JacksonCacheCodec;
+import com.SynexiAI.inventor.cache.TwoLevelCacheManager;
+import com.SynexiAI.inventor.cache.TwoLevelCacheMeterBinderProvider;
+import com.SynexiAI.inventor.service.HotSkuTracker;
+import com.SynexiAI.inventor.service.InventoryCacheSynchronizer;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
@@ -26,10 +48,83 @@ public class RedisConfig {
         return mapper;
     }
 
+    // Built-in json and smile, plus any CacheCodec beans; inventory.cache.codec picks the one values are written with
+    @Bean
+    public CacheCodecs cacheCodecs(ObjectMapper mapper,
+                                   ObjectProvider<CacheCodec> extraCodecs,
+                                   ObjectProvider<MeterRegistry> meterRegistry,
+                                   @Value("${inventory.cache.codec:smile}") String codec,
+                                   @Value("${inventory.cache.compression.threshold:1024}") int compressionThreshold,
+                                   @Value("${inventory.cache.compare-every:0}") int compareEvery) {
+        List<CacheCodec> codecs = new ArrayList<>(List.of(JacksonCacheCodec.json(mapper), JacksonCacheCodec.smile(mapper)));
+        extraCodecs.orderedStream().forEach(codecs::add);
+        return new CacheCodecs(codecs, codec, compressionThreshold, compareEvery,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
     @Bean
-    public RedisCacheConfiguration cacheConfiguration(ObjectMapper mapper) {
+    public RedisCacheConfiguration cacheConfiguration(CacheCodecs cacheCodecs) {
         return RedisCacheConfiguration.defaultCacheConfig()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer(mapper)));
+                .serializeValuesWith(cacheCodecs.serializationPair("default"));
+    }
+
+    // Redis (L2) holds the shared copy; each node keeps a small Caffeine L1 in front of it.
+    // The caches are declared up front so Micrometer registers L1 and L2 metrics for each of them.
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             RedisCacheConfiguration cacheConfiguration,
+                                             CacheCodecs cacheCodecs,
+                                             StringRedisTemplate redisTemplate,
+                                             @Value("${inventory.cache.item-ttl:10m}") Duration itemTtl,
+                                             @Value("${inventory.cache.page-ttl:30s}") Duration pageTtl,
+                                             @Value("${inventory.cache.near.max-size:10000}") long nearMaxSize,
+                                             @Value("${inventory.cache.near.ttl:30s}") Duration nearTtl,
+                                             @Value("${inventory.cache.near.channel:inventory:cache-invalidation}") String channel,
+                                             HotSkuTracker hotSkus,
+                                             @Value("${inventory.hotskus.pinned-ttl:5m}") Duration pinnedTtl) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration)
+                .withCacheConfiguration(InventoryCacheSynchronizer.ITEM_CACHE,
+                        cacheConfigurationFor(cacheConfiguration, cacheCodecs, InventoryCacheSynchronizer.ITEM_CACHE, itemTtl))
+                .withCacheConfiguration(InventoryCacheSynchronizer.SKU_CACHE,
+                        cacheConfigurationFor(cacheConfiguration, cacheCodecs, InventoryCacheSynchronizer.SKU_CACHE, itemTtl))
+                .withCacheConfiguration(InventoryCacheSynchronizer.PAGE_CACHE,
+                        cacheConfigurationFor(cacheConfiguration, cacheCodecs, InventoryCacheSynchronizer.PAGE_CACHE, pageTtl))
+                .enableStatistics()
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        Caffeine<Object, Object> nearSpec = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats();
+        // Hot SKUs stay in L1 longer and are exempt from its size limit
+        Caffeine<Object, Object> skuNearSpec = new HotKeyPinning(hotSkus::isHot, nearTtl, pinnedTtl).spec(nearMaxSize);
+        return new TwoLevelCacheManager(redisCacheManager, nearSpec,
+                Map.of(InventoryCacheSynchronizer.SKU_CACHE, skuNearSpec), redisTemplate, channel);
+    }
+
+    // Each cache gets its own serializer so codec metrics are tagged with the cache name
+    private static RedisCacheConfiguration cacheConfigurationFor(RedisCacheConfiguration defaults, CacheCodecs cacheCodecs,
+                                                                 String cacheName, Duration ttl) {
+        return defaults.entryTtl(ttl).serializeValuesWith(cacheCodecs.serializationPair(cacheName));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoLevelCacheManager cacheManager,
+                                                                   SkuExistenceFilter skuFilter,
+                                                                   @Value("${inventory.cache.near.channel:inventory:cache-invalidation}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(channel));
+        // New SKUs from other nodes, so the existence filter does not reject them until its next refresh
+        container.addMessageListener(skuFilter, new ChannelTopic(channel));
+        return container;
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
     }
 }
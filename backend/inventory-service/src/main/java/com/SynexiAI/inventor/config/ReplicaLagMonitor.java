@@ -0,0 +1,82 @@
+package com.SynexiAI.inventor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Decides whether the read replica is fresh enough to serve reads. Each check
+ * writes the current time to a one-row heartbeat table on the primary and reads
+ * the row back from the replica; the replica's lag is the age of what it returns.
+ * That includes up to one check interval on top of the real replication delay,
+ * so keep the interval well below {@code max-staleness}.
+ *
+ * <p>Until the first successful check, and whenever the replica cannot be read,
+ * it counts as stale and reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String HEARTBEAT_TABLE = "replica_heartbeat";
+    private static final long UNKNOWN = -1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxStalenessMillis;
+    private final Clock clock;
+    private volatile long lagMillis = UNKNOWN;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxStaleness, Clock clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.clock = clock;
+        // Created on the primary only; replication brings it to the replica
+        this.primary.execute("create table if not exists " + HEARTBEAT_TABLE
+                + " (id int primary key, beat_millis bigint not null)");
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        long now = clock.millis();
+        beat(now);
+        try {
+            Long seen = replica.query("select beat_millis from " + HEARTBEAT_TABLE + " where id = 1",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            lagMillis = seen == null ? UNKNOWN : Math.max(0, now - seen);
+        } catch (DataAccessException e) {
+            if (lagMillis != UNKNOWN) {
+                log.warn("Read replica unavailable, reading from the primary: {}", e.getMessage());
+            }
+            lagMillis = UNKNOWN;
+        }
+    }
+
+    public boolean isFresh() {
+        long lag = lagMillis;
+        return lag != UNKNOWN && lag <= maxStalenessMillis;
+    }
+
+    /** Replication lag as of the last check, or -1 when the replica could not be read. */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    private void beat(long now) {
+        try {
+            if (primary.update("update " + HEARTBEAT_TABLE + " set beat_millis = ? where id = 1", now) == 0) {
+                primary.update("insert into " + HEARTBEAT_TABLE + " (id, beat_millis) values (1, ?)", now);
+            }
+        } catch (DuplicateKeyException e) {
+            // Another node inserted the row first; its beat is as good as ours
+        } catch (DataAccessException e) {
+            log.warn("Could not write replica heartbeat: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.SynexiAI.inventor.controller;
+
+import com.SynexiAI.inventor.service.HotSkuTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** {@code GET /actuator/hotskus}: the current heavy hitters, most hits first. */
+@Component
+@Endpoint(id = "hotskus")
+public class HotSkusEndpoint {
+
+    public record HotSkus(long recentHits, List<HotSkuTracker.HotSku> skus) {
+    }
+
+    private final HotSkuTracker tracker;
+
+    public HotSkusEndpoint(HotSkuTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public HotSkus hotSkus() {
+        return new HotSkus(tracker.totalHits(), tracker.heavyHitters());
+    }
+}
@@ -1,116 +1,238 @@
 package com.SynexiAI.inventor.controller;
 
+import com.SynexiAI.inventor.dto.ExpiryDigest;
+import com.SynexiAI.inventor.dto.InventoryBatchDeductResponse;
+import com.SynexiAI.inventor.dto.InventoryChanges;
 import com.SynexiAI.inventor.dto.InventoryDeductRequest;
+import com.SynexiAI.inventor.dto.InventoryImportResponse;
 import com.SynexiAI.inventor.dto.InventoryItemDto;
-import com.SynexiAI.inventor.exception.ItemNotFoundException;
-import com.SynexiAI.inventor.model.InventoryItem;
-import com.SynexiAI.inventor.repository.InventoryRepository;
-import com.SynexiAI.inventor.service.InventoryMappingService;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.SynexiAI.inventor.dto.InventorySearchResult;
+import com.SynexiAI.inventor.dto.LowStockItemDto;
+import com.SynexiAI.inventor.exception.VersionRequiredException;
+import com.SynexiAI.inventor.service.HotSkuTracker;
+import com.SynexiAI.inventor.service.InMemoryStockLedger;
+import com.SynexiAI.inventor.service.InventoryChangeStream;
+import com.SynexiAI.inventor.service.InventoryExpiryService;
+import com.SynexiAI.inventor.service.InventoryExportService;
+import com.SynexiAI.inventor.service.InventoryImportService;
 import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventorySyncService;
+import com.SynexiAI.inventor.service.StockMovementLedger;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/inventory")
 @CrossOrigin(origins = "http://localhost:5173")
 @Tag(name = "Inventory API", description = "Manage inventory items")
 public class InventoryController {
-    private final InventoryRepository repo;
-    private final InventoryMappingService mappingService;
 
     @Autowired
     private InventoryService inventoryService;
 
-    public InventoryController(InventoryRepository repo,
-                               InventoryMappingService mappingService) {
-        this.repo = repo;
-        this.mappingService = mappingService;
-    }
+    @Autowired
+    private InventoryExportService exportService;
 
+    @Autowired
+    private InventoryImportService importService;
 
-    @Cacheable("inventoryAll")
-    @GetMapping
+    @Autowired
+    private InventoryExpiryService expiryService;
+
+    @Autowired
+    private InventoryChangeStream changeStream;
+
+    @Autowired
+    private InventorySyncService syncService;
+
+    @Autowired
+    private HotSkuTracker hotSkus;
+
+    // Only present when inventory.ledger.enabled=true
+    @Autowired(required = false)
+    private InMemoryStockLedger stockLedger;
+
+    // Only present when inventory.movements.enabled=true
+    @Autowired(required = false)
+    private StockMovementLedger movements;
+
+
+    // The original unpaged shape, for clients that send none of the paging parameters.
+    // Reads the whole table; new callers should page
+    @GetMapping(params = {"!cursor", "!size", "!sort"})
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
     public List<InventoryItemDto> listAll() {
-        return repo.findAll()
-                .stream()
-                .map(mappingService::toDto)
-                .collect(Collectors.toList());
+        return inventoryService.getAllItems();
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public InventoryPage listPage(@RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "100") int size,
+                                 @RequestParam(defaultValue = "id") String sort) {
+        return inventoryService.getPage(cursor, size, sort);
+    }
+
+    // Ranked substring / word-prefix search over SKU, name and location
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public InventorySearchResult search(@RequestParam String q,
+                                        @RequestParam(defaultValue = "0") int offset,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return inventoryService.search(q, offset, limit);
+    }
+
+    // Most urgent first: ordered by how far each item is below its reorder level
+    @GetMapping("/low-stock")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public List<LowStockItemDto> lowStock(@RequestParam(defaultValue = "100") int limit) {
+        return inventoryService.getLowStock(limit);
+    }
+
+    // Delta sync: rows changed and deleted after ?since=, in change order; continue from nextSince
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public InventoryChanges changes(@RequestParam(defaultValue = "0") long since,
+                                    @RequestParam(defaultValue = "500") int size) {
+        return syncService.getChanges(since, size);
+    }
+
+    // Server-sent events: "ready" once, then coalesced "deltas" batches, or "resync" if the client fell behind
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public SseEmitter stream() {
+        return changeStream.subscribe();
+    }
+
+    // Soonest expiry first, paged with the same opaque cursor as GET /api/inventory
+    @GetMapping("/expiring")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public InventoryPage expiring(@RequestParam(defaultValue = "30") int withinDays,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(defaultValue = "100") int size) {
+        return expiryService.getExpiring(withinDays, cursor, size);
+    }
+
+    @GetMapping("/expiring/digest")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    public ExpiryDigest expiryDigest() {
+        return expiryService.getDigest();
+    }
+
+    // Full catalogue dump, streamed row by row instead of built in memory
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        InventoryExportService.Format exportFormat = InventoryExportService.Format.from(format);
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=inventory." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    // Bulk upsert by SKU; the body is read as it arrives, bad rows are reported and skipped
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    public InventoryImportResponse importCsv(InputStream body) throws IOException {
+        return importService.importCsv(body);
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
-    @CacheEvict(value = "inventoryAll", allEntries = true)
     public InventoryItemDto create(@Valid @RequestBody InventoryItemDto dto) {
-        InventoryItem entity = mappingService.toEntity(dto);
-        InventoryItem saved = repo.save(entity);
-        return mappingService.toDto(saved);
+        return inventoryService.createItem(dto);
     }
 
-    //@Cacheable(value = "inventory", key = "#id")
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
     public InventoryItemDto getOne(@PathVariable Long id) {
-
-        InventoryItem item = repo.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
-        return mappingService.toDto(item);
+        return inventoryService.getItem(id);
     }
 
+    // Send back the version from the last read; 428 without one, 409 if the item changed in between
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
-    @CacheEvict(value = "inventoryAll", allEntries = true)
     public InventoryItemDto update(
             @PathVariable Long id,
             @Valid @RequestBody InventoryItemDto dto) {
-
-        InventoryItem existing = repo.findById(id)
-                .orElseThrow(() ->  new ItemNotFoundException("Item not found with ID: " + id));
-        // copy fields (or use mapping service)
-        existing.setSkuCode(dto.getSkuCode());
-        existing.setName(dto.getName());
-        existing.setQuantityAvailable(dto.getQuantityAvailable());
-        existing.setQuantityReserved(dto.getQuantityReserved());
-        existing.setReorderLevel(dto.getReorderLevel());
-        existing.setLocation(dto.getLocation());
-        existing.setExpiryDate(dto.getExpiryDate());
-        // … other fields …
-        InventoryItem saved = repo.save(existing);
-        return mappingService.toDto(saved);
+        if (dto.getVersion() == null) {
+            throw new VersionRequiredException("Send the version of item " + id + " from the last read");
+        }
+        return inventoryService.updateItem(id, dto);
     }
 
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
     public void delete(@PathVariable Long id) {
-        repo.deleteById(id);
+        inventoryService.deleteItem(id);
     }
 
 
     @GetMapping("/sku/{skuCode}")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
-    @CacheEvict(value = "inventoryAll", allEntries = true)
     public InventoryItemDto getBySkuCode(@PathVariable String skuCode) {
-        InventoryItem item = repo.findBySkuCode(skuCode)
-                .orElseThrow(() -> new ItemNotFoundException("Item not found with SKU code: " + skuCode));
-        return mappingService.toDto(item);
+        hotSkus.record(skuCode);
+        return inventoryService.getItemBySkuCode(skuCode);
+    }
+
+    @GetMapping("/available/{skuCode}")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public int available(@PathVariable String skuCode) {
+        return inventoryService.getAvailable(skuCode);
+    }
+
+    @GetMapping(value = "/available/{skuCode}", params = "quantity")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public boolean isAvailable(@PathVariable String skuCode, @RequestParam int quantity) {
+        return inventoryService.getAvailable(skuCode) >= quantity;
     }
 
     @PostMapping("/deduct")
     //@PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
     public ResponseEntity<Void> deductInventory(@RequestBody InventoryDeductRequest request) {
-        boolean success = inventoryService.deductStock(request.getSkuCode(), request.getQuantity());
+        hotSkus.record(request.getSkuCode());
+        boolean success;
+        if (stockLedger != null && stockLedger.isReady()) {
+            success = stockLedger.deduct(request.getSkuCode(), request.getQuantity());
+        } else if (movements != null) {
+            success = movements.deduct(request.getSkuCode(), request.getQuantity());
+        } else {
+            success = inventoryService.deductStock(request.getSkuCode(), request.getQuantity());
+        }
         return success ? ResponseEntity.ok().build() : ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
 
+    @PostMapping("/deduct/batch")
+    public ResponseEntity<InventoryBatchDeductResponse> deductInventoryBatch(@RequestBody List<InventoryDeductRequest> lines) {
+        if (lines != null) {
+            lines.stream().filter(Objects::nonNull).forEach(line -> hotSkus.record(line.getSkuCode()));
+        }
+        InventoryBatchDeductResponse result;
+        if (stockLedger != null && stockLedger.isReady()) {
+            result = stockLedger.deductBatch(lines);
+        } else if (movements != null) {
+            result = movements.deductBatch(lines);
+        } else {
+            result = inventoryService.deductStockBatch(lines);
+        }
+        return result.isSuccess() ? ResponseEntity.ok(result) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+    }
+
 }
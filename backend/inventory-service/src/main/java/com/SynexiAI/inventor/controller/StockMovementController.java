@@ -0,0 +1,42 @@
+package com.SynexiAI.inventor.controller;
+
+import com.SynexiAI.inventor.dto.StockMovementDto;
+import com.SynexiAI.inventor.dto.StockReceiptRequest;
+import com.SynexiAI.inventor.service.StockMovementLedger;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory/movements")
+@CrossOrigin(origins = "http://localhost:5173")
+@ConditionalOnProperty(name = "inventory.movements.enabled", havingValue = "true")
+@Tag(name = "Stock Movement API", description = "Stock history per SKU and goods receipts")
+public class StockMovementController {
+
+    private final StockMovementLedger movements;
+
+    public StockMovementController(StockMovementLedger movements) {
+        this.movements = movements;
+    }
+
+    // Newest first, including movements already compacted into the item
+    @GetMapping("/{skuCode}")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public List<StockMovementDto> history(@PathVariable String skuCode,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        return movements.history(skuCode, limit);
+    }
+
+    @PostMapping("/receipts")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER','WAREHOUSE_STAFF')")
+    public ResponseEntity<Void> receive(@Valid @RequestBody StockReceiptRequest request) {
+        movements.receive(request.getSkuCode(), request.getQuantity());
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.SynexiAI.inventor.controller;
+
+import com.SynexiAI.inventor.dto.ReservationRequest;
+import com.SynexiAI.inventor.dto.ReservationResponse;
+import com.SynexiAI.inventor.service.StockReservationService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory/reservations")
+@CrossOrigin(origins = "http://localhost:5173")
+@Tag(name = "Stock Reservation API", description = "Hold stock for an order, then commit or release it")
+public class StockReservationController {
+
+    private final StockReservationService reservationService;
+
+    public StockReservationController(StockReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping
+    public ReservationResponse reserve(@Valid @RequestBody ReservationRequest request) {
+        return reservationService.reserve(request);
+    }
+
+    @GetMapping("/{reservationId}")
+    public ReservationResponse get(@PathVariable String reservationId) {
+        return reservationService.getReservation(reservationId);
+    }
+
+    @PostMapping("/{reservationId}/commit")
+    public ReservationResponse commit(@PathVariable String reservationId) {
+        return reservationService.commit(reservationId);
+    }
+
+    @PostMapping("/{reservationId}/release")
+    public ReservationResponse release(@PathVariable String reservationId) {
+        return reservationService.release(reservationId);
+    }
+}
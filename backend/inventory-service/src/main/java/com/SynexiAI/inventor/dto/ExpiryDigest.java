@@ -0,0 +1,32 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Per-day summary of stock expiring over the next {@code horizonDays}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiryDigest {
+    private Instant generatedAt;
+    private int horizonDays;
+    private long totalItems;
+    private long totalUnits;
+    private List<DayBucket> days = new ArrayList<>();     // only days with something expiring
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayBucket {
+        private LocalDate date;
+        private long items;
+        private long units;
+        private List<String> topSkus = new ArrayList<>();  // largest quantities first
+    }
+}
@@ -0,0 +1,21 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBatchDeductResponse {
+    private boolean success;
+    private Integer failedIndex;   // zero-based position of the first line that could not be applied
+    private String skuCode;
+    private String reason;
+
+    public static InventoryBatchDeductResponse ok() {
+        return new InventoryBatchDeductResponse(true, null, null, null);
+    }
+
+    public static InventoryBatchDeductResponse failed(int index, String skuCode, String reason) {
+        return new InventoryBatchDeductResponse(false, index, skuCode, reason);
+    }
+}
@@ -0,0 +1,26 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChanges {
+    private List<InventoryItemDto> upserts;     // current state of every row changed since the given point
+    private List<Deleted> deletes;
+    private long nextSince;                     // pass back as ?since= to continue
+    private boolean hasMore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Deleted {
+        private Long id;
+        private String skuCode;
+        private Long changeSeq;
+    }
+}
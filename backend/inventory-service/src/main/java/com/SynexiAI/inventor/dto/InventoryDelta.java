@@ -0,0 +1,29 @@
+package com.SynexiAI.inventor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item's change as pushed on the change stream. Stock changes carry only
+ * the quantities; creates and updates also carry the full item. When both are
+ * present the top-level quantities are the newer ones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryDelta {
+
+    public enum Op { UPSERT, DELETE }
+
+    private Op op;
+    private Long id;
+    private String skuCode;
+    private String previousSkuCode;     // only set when the SKU was renamed
+    private Integer quantityAvailable;
+    private Integer quantityReserved;
+    private Integer reorderLevel;
+    private InventoryItemDto item;
+}
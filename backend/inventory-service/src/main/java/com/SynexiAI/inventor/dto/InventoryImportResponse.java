@@ -0,0 +1,31 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportResponse {
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;    // only the first inventory.import.max-errors are listed
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String skuCode;
+        private String message;
+    }
+}
@@ -33,6 +33,8 @@ public class InventoryItemDto implements Serializable {
     private Integer reorderLevel;
     private String location;
     private LocalDate expiryDate;
+    private Long changeSeq;     // read-only, position in the change feed
+    private Long version;       // required on update, sent back unchanged; a stale value is rejected with 409
 
 
 }
@@ -0,0 +1,15 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryPage implements Serializable {
+    private List<InventoryItemDto> items;
+    private String nextCursor;   // opaque, pass back as ?cursor= to get the next page
+    private boolean hasMore;
+}
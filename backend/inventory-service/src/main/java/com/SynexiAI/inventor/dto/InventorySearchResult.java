@@ -0,0 +1,17 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySearchResult {
+    private String query;
+    private int total;          // all matches, not just this page
+    private int offset;
+    private List<InventoryItemDto> items;
+}
@@ -0,0 +1,17 @@
+package com.SynexiAI.inventor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockItemDto {
+    private Long id;
+    private String skuCode;
+    private String name;
+    private Integer quantityAvailable;
+    private Integer reorderLevel;
+    private Integer shortfall;      // reorderLevel - quantityAvailable
+}
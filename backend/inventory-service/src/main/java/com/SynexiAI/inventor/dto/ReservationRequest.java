@@ -0,0 +1,22 @@
+package com.SynexiAI.inventor.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    @Size(max = 64, message = "Reservation id must be at most 64 characters")
+    private String reservationId;   // optional, lets callers retry safely
+
+    @NotBlank(message = "SKU code is required")
+    private String skuCode;
+
+    @Min(value = 1, message = "Quantity must be positive")
+    private int quantity;
+
+    private Integer ttlSeconds;     // optional, defaults to inventory.reservations.default-ttl-seconds
+}
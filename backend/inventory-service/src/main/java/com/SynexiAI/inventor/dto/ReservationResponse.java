@@ -0,0 +1,17 @@
+package com.SynexiAI.inventor.dto;
+
+import com.SynexiAI.inventor.model.ReservationStatus;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private String reservationId;
+    private String skuCode;
+    private Integer quantity;
+    private ReservationStatus status;
+    private Instant expiresAt;
+}
@@ -0,0 +1,21 @@
+package com.SynexiAI.inventor.dto;
+
+import com.SynexiAI.inventor.model.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDto {
+    private Long id;
+    private String skuCode;
+    private MovementType type;
+    private Integer availableDelta;
+    private Integer reservedDelta;
+    private boolean compacted;      // already folded into the item's stored quantities
+    private Instant createdAt;
+}
@@ -0,0 +1,18 @@
+package com.SynexiAI.inventor.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReceiptRequest {
+    @NotBlank(message = "SKU code is required")
+    private String skuCode;
+
+    @Min(value = 1, message = "Quantity must be positive")
+    private int quantity;
+}
@@ -0,0 +1,53 @@
+package com.SynexiAI.inventor.event;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import lombok.Value;
+
+/**
+ * Published whenever an inventory row changes. Listeners that keep derived
+ * in-memory state (ledger, indexes, caches) subscribe to this instead of
+ * hooking every write path individually.
+ */
+@Value
+public class InventoryChangedEvent {
+
+    public enum Type { CREATED, UPDATED, STOCK_CHANGED, DELETED }
+
+    Type type;
+    Long id;
+    String skuCode;
+    String previousSkuCode;     // only set when an update renamed the SKU
+    Integer quantityAvailable;
+    Integer quantityReserved;
+    Integer reorderLevel;
+    InventoryItemDto item;      // full snapshot when the writer has one, otherwise null
+    boolean pendingFlush;       // true when the change lives in memory and is not yet in the database
+
+    public static InventoryChangedEvent created(InventoryItemDto item) {
+        return of(Type.CREATED, item, null);
+    }
+
+    public static InventoryChangedEvent updated(InventoryItemDto item, String previousSkuCode) {
+        return of(Type.UPDATED, item, previousSkuCode);
+    }
+
+    public static InventoryChangedEvent stockChanged(InventoryItemDto item) {
+        return of(Type.STOCK_CHANGED, item, null);
+    }
+
+    public static InventoryChangedEvent stockChanged(Long id, String skuCode, int available, int reserved,
+                                                     int reorderLevel, boolean pendingFlush) {
+        return new InventoryChangedEvent(Type.STOCK_CHANGED, id, skuCode, null,
+                available, reserved, reorderLevel, null, pendingFlush);
+    }
+
+    public static InventoryChangedEvent deleted(Long id, String skuCode) {
+        return new InventoryChangedEvent(Type.DELETED, id, skuCode, null, null, null, null, null, false);
+    }
+
+    private static InventoryChangedEvent of(Type type, InventoryItemDto item, String previousSkuCode) {
+        String previous = previousSkuCode != null && !previousSkuCode.equals(item.getSkuCode()) ? previousSkuCode : null;
+        return new InventoryChangedEvent(type, item.getId(), item.getSkuCode(), previous,
+                item.getQuantityAvailable(), item.getQuantityReserved(), item.getReorderLevel(), item, false);
+    }
+}
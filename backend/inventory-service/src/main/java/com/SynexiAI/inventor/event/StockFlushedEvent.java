@@ -0,0 +1,19 @@
+package com.SynexiAI.inventor.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published by the in-memory stock ledger once a flush has committed: the
+ * listed rows now hold the balances that earlier {@code pendingFlush}
+ * {@link InventoryChangedEvent}s announced. Listeners that mirror the
+ * database rather than the ledger (the Redis caches) catch up here, once per
+ * flush, instead of on every in-memory deduction.
+ */
+@Value
+public class StockFlushedEvent {
+
+    List<Long> ids;
+    List<String> skuCodes;
+}
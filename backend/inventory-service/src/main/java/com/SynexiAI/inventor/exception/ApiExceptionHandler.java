@@ -1,6 +1,7 @@
 package com.SynexiAI.inventor.exception;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +17,22 @@ public class ApiExceptionHandler {
       .body(msg);
   }
 
+  // Stale version on update, or an internal write that kept losing the race
+  @ExceptionHandler({InventoryConflictException.class, OptimisticLockingFailureException.class})
+  public ResponseEntity<String> handleConflict(RuntimeException ex) {
+    return ResponseEntity
+      .status(HttpStatus.CONFLICT)
+      .body(ex.getMessage());
+  }
+
+  // An edit without the version it was based on could silently overwrite a concurrent change
+  @ExceptionHandler(VersionRequiredException.class)
+  public ResponseEntity<String> handleVersionRequired(VersionRequiredException ex) {
+    return ResponseEntity
+      .status(HttpStatus.PRECONDITION_REQUIRED)
+      .body(ex.getMessage());
+  }
+
   @ExceptionHandler(RuntimeException.class)
   public ResponseEntity<String> handleNotFound(RuntimeException ex) {
     return ResponseEntity
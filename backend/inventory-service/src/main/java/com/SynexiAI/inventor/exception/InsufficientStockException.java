@@ -0,0 +1,9 @@
+package com.SynexiAI.inventor.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.SynexiAI.inventor.exception;
+
+public class InventoryConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InventoryConflictException(String message) {
+        super(message);
+    }
+
+    public InventoryConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
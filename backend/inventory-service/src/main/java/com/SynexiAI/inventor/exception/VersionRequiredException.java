@@ -0,0 +1,9 @@
+package com.SynexiAI.inventor.exception;
+
+public class VersionRequiredException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public VersionRequiredException(String message) {
+        super(message);
+    }
+}
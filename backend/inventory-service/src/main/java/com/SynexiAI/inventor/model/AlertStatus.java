@@ -0,0 +1,7 @@
+package com.SynexiAI.inventor.model;
+
+public enum AlertStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
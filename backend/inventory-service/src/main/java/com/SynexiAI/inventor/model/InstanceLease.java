@@ -0,0 +1,22 @@
+package com.SynexiAI.inventor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/** Held by the one instance allowed to run a single-instance component; see SingleInstanceLease. */
+@Data
+@Entity
+@Table(name = "instance_leases")
+public class InstanceLease {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
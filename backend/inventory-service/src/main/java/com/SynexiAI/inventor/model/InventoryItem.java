@@ -1,14 +1,20 @@
 package com.SynexiAI.inventor.model;
 
+import com.SynexiAI.inventor.service.ChangeSequenceListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 
 import java.time.LocalDate;
 
 @Data
 @Entity
-@Table(name = "inventory_items")
+@EntityListeners(ChangeSequenceListener.class)
+@Table(name = "inventory_items", indexes = {
+        @Index(name = "idx_inventory_items_expiry", columnList = "expiry_date, id"),
+        @Index(name = "idx_inventory_items_change_seq", columnList = "change_seq")
+})
 public class InventoryItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,4 +34,14 @@ public class InventoryItem {
     private String location;
     private LocalDate expiryDate;
 
+    // Stamped from the global change sequence on every write; drives GET /api/inventory/changes
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    // Optimistic lock: JPA writes check it, bulk and JDBC updates bump it by hand
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.SynexiAI.inventor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/** Left behind when an item is deleted, so delta-sync clients learn about the delete. */
+@Data
+@Entity
+@Table(name = "inventory_tombstones",
+        indexes = @Index(name = "idx_inventory_tombstones_change_seq", columnList = "change_seq"))
+public class InventoryTombstone {
+    @Id
+    private Long itemId;
+
+    @Column(nullable = false)
+    private String skuCode;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,40 @@
+package com.SynexiAI.inventor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/** Outbox row: a low-stock alert waiting to be delivered to the notification service. */
+@Data
+@Entity
+@Table(name = "low_stock_alerts", indexes = {
+        @Index(name = "idx_low_stock_alerts_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_low_stock_alerts_sku_created", columnList = "sku_code, created_at")
+})
+public class LowStockAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String skuCode;
+
+    private Integer quantityAvailable;
+    private Integer reorderLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AlertStatus status;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant sentAt;
+    private String lastError;
+}
@@ -0,0 +1,11 @@
+package com.SynexiAI.inventor.model;
+
+/** Why stock moved; the deltas on the movement say by how much. */
+public enum MovementType {
+    RECEIPT,
+    DEDUCTION,
+    ADJUSTMENT,
+    RESERVATION,
+    RESERVATION_RELEASE,
+    RESERVATION_COMMIT
+}
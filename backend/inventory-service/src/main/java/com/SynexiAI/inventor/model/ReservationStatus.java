@@ -0,0 +1,8 @@
+package com.SynexiAI.inventor.model;
+
+public enum ReservationStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,43 @@
+package com.SynexiAI.inventor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One change to an item's stock, appended and never updated except to mark it
+ * compacted once its deltas are folded into the {@code inventory_items} row.
+ */
+@Data
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_item_compacted", columnList = "item_id, compacted"),
+        @Index(name = "idx_stock_movements_compacted_id", columnList = "compacted, id")})
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private String skuCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private MovementType type;
+
+    @Column(nullable = false)
+    private Integer availableDelta;
+
+    @Column(nullable = false)
+    private Integer reservedDelta;
+
+    @Column(nullable = false)
+    private boolean compacted;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,31 @@
+package com.SynexiAI.inventor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name = "stock_reservations",
+        indexes = @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at"))
+public class StockReservation {
+    @Id
+    @Column(length = 64)
+    private String reservationId;
+
+    @Column(nullable = false)
+    private String skuCode;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant createdAt;
+}
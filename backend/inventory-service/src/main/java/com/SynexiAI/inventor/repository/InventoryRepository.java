@@ -1,9 +1,19 @@
 package com.SynexiAI.inventor.repository;
 
 import com.SynexiAI.inventor.model.InventoryItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +21,95 @@ public interface InventoryRepository extends JpaRepository<InventoryItem, Long>
 
     Optional<InventoryItem> findBySkuCode(String skuCode);
 
+    // Keyset pagination: each page is an index seek past the last key, so deep pages cost the same as the first
+    List<InventoryItem> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<InventoryItem> findBySkuCodeGreaterThanOrderBySkuCodeAsc(String skuCode, Limit limit);
+
+    // Expiry queries seek on the (expiry_date, id) index and page by that same key
+    @Query("select i from InventoryItem i where i.expiryDate <= :to " +
+            "and (i.expiryDate > :afterDate or (i.expiryDate = :afterDate and i.id > :afterId)) " +
+            "order by i.expiryDate, i.id")
+    List<InventoryItem> findExpiringAfter(@Param("afterDate") LocalDate afterDate,
+                                          @Param("afterId") Long afterId,
+                                          @Param("to") LocalDate to,
+                                          Limit limit);
+
+    List<InventoryItem> findByExpiryDateAndIdGreaterThanOrderByIdAsc(LocalDate expiryDate, Long id, Limit limit);
+
+    // Delta sync: rows changed after a point, in change order, never past what is known to be settled
+    List<InventoryItem> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(
+            Long since, Long upTo, Limit limit);
+
+    List<InventoryItem> findByChangeSeqIsNull(Limit limit);
+
+    @Query("select max(i.changeSeq) from InventoryItem i")
+    Long findMaxChangeSeq();
+
+    // Fallback for the search index while it is still loading; the pattern escapes wildcards with '!'
+    @Query("select i from InventoryItem i where lower(i.skuCode) like :pattern escape '!' " +
+            "or lower(i.name) like :pattern escape '!' or lower(i.location) like :pattern escape '!' " +
+            "order by i.skuCode")
+    List<InventoryItem> searchByText(@Param("pattern") String pattern, Limit limit);
+
+    @Query("select count(i) from InventoryItem i where lower(i.skuCode) like :pattern escape '!' " +
+            "or lower(i.name) like :pattern escape '!' or lower(i.location) like :pattern escape '!'")
+    long countByText(@Param("pattern") String pattern);
+
+    // Fallback for the low-stock index while it is still loading
+    @Query("select i from InventoryItem i where i.quantityAvailable <= i.reorderLevel " +
+            "order by (i.reorderLevel - i.quantityAvailable) desc, i.skuCode")
+    List<InventoryItem> findLowStock(Limit limit);
+
+    /**
+     * Deducts stock in a single guarded UPDATE so concurrent orders can never
+     * oversell. Returns the number of rows changed: 1 on success, 0 when the
+     * SKU is unknown or does not have enough stock.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("update InventoryItem i set i.quantityAvailable = i.quantityAvailable - :quantity, " +
+            "i.changeSeq = :changeSeq, i.version = i.version + 1 " +
+            "where i.skuCode = :skuCode and i.quantityAvailable >= :quantity")
+    int deductIfAvailable(@Param("skuCode") String skuCode, @Param("quantity") int quantity,
+                          @Param("changeSeq") long changeSeq);
+
+    /** Moves stock from available to reserved if enough is available. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("update InventoryItem i set i.quantityAvailable = i.quantityAvailable - :quantity, " +
+            "i.quantityReserved = coalesce(i.quantityReserved, 0) + :quantity, " +
+            "i.changeSeq = :changeSeq, i.version = i.version + 1 " +
+            "where i.skuCode = :skuCode and i.quantityAvailable >= :quantity")
+    int reserveIfAvailable(@Param("skuCode") String skuCode, @Param("quantity") int quantity,
+                           @Param("changeSeq") long changeSeq);
+
+    /** Consumes reserved stock once the reservation is committed. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("update InventoryItem i set i.quantityReserved = i.quantityReserved - :quantity, " +
+            "i.changeSeq = :changeSeq, i.version = i.version + 1 " +
+            "where i.skuCode = :skuCode and i.quantityReserved >= :quantity")
+    int consumeReserved(@Param("skuCode") String skuCode, @Param("quantity") int quantity,
+                        @Param("changeSeq") long changeSeq);
+
+    /** Returns reserved stock to available (release or expiry). */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("update InventoryItem i set i.quantityAvailable = i.quantityAvailable + :quantity, " +
+            "i.quantityReserved = i.quantityReserved - :quantity, " +
+            "i.changeSeq = :changeSeq, i.version = i.version + 1 " +
+            "where i.skuCode = :skuCode and i.quantityReserved >= :quantity")
+    int releaseReserved(@Param("skuCode") String skuCode, @Param("quantity") int quantity,
+                        @Param("changeSeq") long changeSeq);
+
+    /**
+     * Locks the given rows for the rest of the transaction. Rows are locked in
+     * SKU order so two overlapping batches can never deadlock on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.skuCode in :skuCodes order by i.skuCode")
+    List<InventoryItem> findAllBySkuCodeForUpdate(@Param("skuCodes") Collection<String> skuCodes);
+
     // Additional methods can be added as required
 }
@@ -0,0 +1,19 @@
+package com.SynexiAI.inventor.repository;
+
+import com.SynexiAI.inventor.model.InventoryTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryTombstoneRepository extends JpaRepository<InventoryTombstone, Long> {
+
+    List<InventoryTombstone> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(
+            Long since, Long upTo, Limit limit);
+
+    @Query("select max(t.changeSeq) from InventoryTombstone t")
+    Long findMaxChangeSeq();
+}
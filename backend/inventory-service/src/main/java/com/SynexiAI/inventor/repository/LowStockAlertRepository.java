@@ -0,0 +1,27 @@
+package com.SynexiAI.inventor.repository;
+
+import com.SynexiAI.inventor.model.AlertStatus;
+import com.SynexiAI.inventor.model.LowStockAlert;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LowStockAlertRepository extends JpaRepository<LowStockAlert, Long> {
+
+    /** Alerts due for delivery, oldest first; rows another instance is sending are skipped. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select a from LowStockAlert a where a.status = :status and a.nextAttemptAt <= :now order by a.id")
+    List<LowStockAlert> findDueForUpdate(@Param("status") AlertStatus status,
+                                         @Param("now") Instant now,
+                                         Limit limit);
+
+    boolean existsBySkuCodeAndCreatedAtAfter(String skuCode, Instant since);
+}
@@ -0,0 +1,15 @@
+package com.SynexiAI.inventor.repository;
+
+import com.SynexiAI.inventor.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Newest first; compacted movements stay readable until the retention purge removes them
+    List<StockMovement> findByItemIdOrderByIdDesc(Long itemId, Limit limit);
+}
@@ -0,0 +1,42 @@
+package com.SynexiAI.inventor.repository;
+
+import com.SynexiAI.inventor.model.ReservationStatus;
+import com.SynexiAI.inventor.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Oldest expired holds first, read through the (status, expires_at) index. Rows
+     * already locked by another sweeper are skipped rather than waited on.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select r from StockReservation r where r.status = :status and r.expiresAt < :cutoff order by r.expiresAt")
+    List<StockReservation> findExpiredForUpdate(@Param("status") ReservationStatus status,
+                                                @Param("cutoff") Instant cutoff,
+                                                Limit limit);
+
+    /**
+     * Moves a reservation between states only if it is still in the expected one and
+     * has not expired at {@code validAt}.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("update StockReservation r set r.status = :to " +
+            "where r.reservationId = :id and r.status = :from and r.expiresAt > :validAt")
+    int transition(@Param("id") String reservationId,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to,
+                   @Param("validAt") Instant validAt);
+}
@@ -0,0 +1,146 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.cache.SkuAvailabilityMap;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Available quantity per SKU for storefront availability checks, held in a
+ * {@link SkuAvailabilityMap} so answering one costs a hash probe and no
+ * allocation instead of an entity load and a DTO.
+ *
+ * <p>Loaded at startup and kept current from {@link InventoryChangedEvent}s,
+ * which also carry the in-memory and movement ledgers' balances. The
+ * in-memory ledger publishes after releasing its stripe lock, so two of its
+ * events can arrive out of order; with it enabled the balance is read back
+ * from the ledger instead, under one lock, so the event applied last always
+ * leaves the newest balance. Rows written or deleted by other instances are
+ * picked up every {@code inventory.availability.refresh-interval-ms} from the
+ * change sequence and the tombstones, reading the last {@code rescan-window}
+ * again (see {@link ChangeWatermark}). Both ledgers assume a single instance
+ * and keep balances the rows do not have yet, so with either one enabled
+ * there is no refresh.
+ */
+@Slf4j
+@Component
+public class AvailabilityIndex {
+
+    private static final String LOAD_SQL = "select sku_code, quantity_available, change_seq from inventory_items";
+    // Snapshot plus pending movements, the same balance StockMovementLedger reads
+    private static final String LOAD_WITH_MOVEMENTS_SQL =
+            "select i.sku_code, i.quantity_available + coalesce(sum(m.available_delta), 0), i.change_seq " +
+            "from inventory_items i left join stock_movements m on m.item_id = i.id and m.compacted = false " +
+            "group by i.id, i.sku_code, i.quantity_available, i.change_seq";
+    private static final String CHANGED_SQL = "select sku_code, quantity_available, change_seq from inventory_items " +
+            "where change_seq > ? and change_seq <= ?";
+    private static final String DELETED_SQL = "select sku_code, change_seq from inventory_tombstones " +
+            "where change_seq > ? and change_seq <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeSequence changeSequence;
+    private final InMemoryStockLedger stockLedger;
+    private final boolean movementsEnabled;
+    private final boolean followOtherInstances;
+    private final SkuAvailabilityMap available = new SkuAvailabilityMap(1024);
+    private final ChangeWatermark watermark;
+    private final Object ledgerOrder = new Object();
+    private volatile boolean ready;
+
+    public AvailabilityIndex(JdbcTemplate jdbcTemplate,
+                             ChangeSequence changeSequence,
+                             ObjectProvider<InMemoryStockLedger> stockLedger,
+                             ObjectProvider<StockMovementLedger> movements,
+                             @Value("${inventory.availability.rescan-window:30s}") Duration rescanWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeSequence = changeSequence;
+        this.stockLedger = stockLedger.getIfAvailable();
+        this.movementsEnabled = movements.getIfAvailable() != null;
+        this.followOtherInstances = !movementsEnabled && this.stockLedger == null;
+        this.watermark = new ChangeWatermark(rescanWindow);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Available quantity, or {@link SkuAvailabilityMap#MISSING} for an unknown SKU. */
+    public int available(String skuCode) {
+        return available.get(skuCode);
+    }
+
+    public int size() {
+        return available.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ready = false;
+        available.clear();
+        // Rows stamped above this may still be joined by slower commits, so the refresh reads them again
+        long stable = changeSequence.stableUpTo();
+        long[] highest = {0};
+        jdbcTemplate.query(movementsEnabled ? LOAD_WITH_MOVEMENTS_SQL : LOAD_SQL, rs -> {
+            String skuCode = rs.getString(1);
+            // The in-memory ledger holds deductions the row has not been flushed with yet
+            Integer balance = stockLedger != null ? stockLedger.available(skuCode) : null;
+            // An event that raced with the load is newer than this row
+            available.putIfAbsent(skuCode, balance != null ? balance : rs.getInt(2));
+            highest[0] = Math.max(highest[0], rs.getLong(3));
+        });
+        watermark.seen(Math.min(highest[0], stable));
+        ready = true;
+        log.info("Availability index loaded with {} SKUs", available.size());
+    }
+
+    /** Applies rows written and deleted by other instances since the last refresh. */
+    @Scheduled(fixedDelayString = "${inventory.availability.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!ready || !followOtherInstances) {
+            return;
+        }
+        long since = watermark.since();
+        long upTo = changeSequence.stableUpTo();
+        long[] highest = {since};
+        // Deletes first: a SKU deleted and created again in the same window ends up present
+        jdbcTemplate.query(DELETED_SQL, rs -> {
+            available.remove(rs.getString(1));
+            highest[0] = Math.max(highest[0], rs.getLong(2));
+        }, since, upTo);
+        jdbcTemplate.query(CHANGED_SQL, rs -> {
+            available.put(rs.getString(1), rs.getInt(2));
+            highest[0] = Math.max(highest[0], rs.getLong(3));
+        }, since, upTo);
+        watermark.seen(highest[0]);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.getPreviousSkuCode() != null) {
+            available.remove(event.getPreviousSkuCode());
+        }
+        if (event.getType() == InventoryChangedEvent.Type.DELETED) {
+            available.remove(event.getSkuCode());
+        } else if (stockLedger != null) {
+            synchronized (ledgerOrder) {
+                Integer balance = stockLedger.available(event.getSkuCode());
+                if (balance != null) {
+                    available.put(event.getSkuCode(), balance);
+                } else if (event.getQuantityAvailable() != null) {
+                    available.put(event.getSkuCode(), event.getQuantityAvailable());
+                }
+            }
+        } else if (event.getQuantityAvailable() != null) {
+            available.put(event.getSkuCode(), event.getQuantityAvailable());
+        }
+    }
+}
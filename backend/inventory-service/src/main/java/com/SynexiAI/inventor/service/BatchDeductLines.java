@@ -0,0 +1,63 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryBatchDeductResponse;
+import com.SynexiAI.inventor.dto.InventoryDeductRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Helpers shared by the database and ledger batch deduction paths.
+ */
+final class BatchDeductLines {
+
+    private BatchDeductLines() {
+    }
+
+    /** Returns the first malformed line as a failure, or null when every line is usable. */
+    static InventoryBatchDeductResponse validate(List<InventoryDeductRequest> lines) {
+        if (lines == null || lines.isEmpty()) {
+            return InventoryBatchDeductResponse.failed(0, null, "No lines to deduct");
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            InventoryDeductRequest line = lines.get(i);
+            if (line == null || line.getSkuCode() == null || line.getSkuCode().isBlank()) {
+                return InventoryBatchDeductResponse.failed(i, null, "SKU code is required");
+            }
+            if (line.getQuantity() <= 0) {
+                return InventoryBatchDeductResponse.failed(i, line.getSkuCode(), "Quantity must be positive");
+            }
+        }
+        return null;
+    }
+
+    /** SKUs in ascending order, which is also the order their locks are taken in. */
+    static TreeMap<String, Integer> totalsBySku(List<InventoryDeductRequest> lines) {
+        TreeMap<String, Integer> totals = new TreeMap<>();
+        for (InventoryDeductRequest line : lines) {
+            totals.merge(line.getSkuCode(), line.getQuantity(), Integer::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Walks the lines in request order against the given stock levels and returns the
+     * first line that cannot be satisfied. {@code remaining} is updated in place.
+     */
+    static InventoryBatchDeductResponse apply(List<InventoryDeductRequest> lines, Map<String, Integer> remaining) {
+        for (int i = 0; i < lines.size(); i++) {
+            InventoryDeductRequest line = lines.get(i);
+            Integer available = remaining.get(line.getSkuCode());
+            if (available == null) {
+                return InventoryBatchDeductResponse.failed(i, line.getSkuCode(), "SKU not found");
+            }
+            if (available < line.getQuantity()) {
+                return InventoryBatchDeductResponse.failed(i, line.getSkuCode(),
+                        "Not enough stock | Requested: " + line.getQuantity() + " | Available: " + available);
+            }
+            remaining.put(line.getSkuCode(), available - line.getQuantity());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.SynexiAI.inventor.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hands out values of the global change sequence that every write to
+ * {@code inventory_items} is stamped with.
+ *
+ * <p>Each transaction reserves a block of {@link #BLOCK_SIZE} values with one
+ * {@code nextval} and numbers its rows from it, so a bulk import costs one
+ * round trip per hundred rows. Values are only ever handed out inside a
+ * transaction, and the block stays "in flight" until that transaction ends.
+ * {@link #stableUpTo()} is the highest value below every in-flight block: a
+ * reader that stops there cannot skip a row that a slower transaction commits
+ * later with a smaller number. Only this instance's transactions are tracked.
+ */
+@Component
+public class ChangeSequence {
+
+    public static final String SEQUENCE = "inventory_change_seq";
+    public static final int BLOCK_SIZE = 100;     // the sequence increment
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // Allocations share the lock; stableUpTo takes it exclusively so it never runs between nextval and registration
+    private final ReentrantReadWriteLock allocation = new ReentrantReadWriteLock();
+
+    public ChangeSequence(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Not tied to an id generator, so Hibernate's schema update would not create it
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with 1 increment by " + BLOCK_SIZE);
+        this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCE);
+    }
+
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change sequence values must be taken inside a transaction");
+        }
+        Block block = (Block) TransactionSynchronizationManager.getResource(this);
+        if (block == null) {
+            Block opened = new Block();
+            TransactionSynchronizationManager.bindResource(this, opened);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeSequence.this);
+                    opened.bases.forEach(inFlight::remove);
+                }
+            });
+            block = opened;
+        }
+        if (block.next == block.end) {
+            allocation.readLock().lock();
+            try {
+                Long base = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                inFlight.add(base);
+                block.bases.add(base);
+                block.next = base;
+                block.end = base + BLOCK_SIZE;
+            } finally {
+                allocation.readLock().unlock();
+            }
+        }
+        return block.next++;
+    }
+
+    /** Every change stamped at or below this value has committed or rolled back, as far as this instance knows. */
+    public long stableUpTo() {
+        allocation.writeLock().lock();
+        try {
+            return inFlight.isEmpty() ? Long.MAX_VALUE : inFlight.first() - 1;
+        } finally {
+            allocation.writeLock().unlock();
+        }
+    }
+
+    private static final class Block {
+        final List<Long> bases = new ArrayList<>(1);
+        long next;
+        long end;
+    }
+}
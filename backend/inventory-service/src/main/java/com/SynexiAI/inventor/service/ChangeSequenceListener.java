@@ -0,0 +1,24 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.model.InventoryItem;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stamps items written through JPA with the next change sequence value.
+ * Bulk updates and JDBC writes bypass this and stamp the column themselves.
+ */
+public class ChangeSequenceListener {
+
+    // Looked up per write: listeners are built with the EntityManagerFactory, which ChangeSequence itself needs
+    @Autowired
+    private ObjectProvider<ChangeSequence> changeSequence;
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(InventoryItem item) {
+        item.setChangeSeq(changeSequence.getObject().next());
+    }
+}
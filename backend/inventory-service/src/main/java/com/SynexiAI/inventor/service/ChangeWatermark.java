@@ -0,0 +1,49 @@
+package com.SynexiAI.inventor.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Where a poller of {@code change_seq} starts its next scan.
+ *
+ * <p>{@link ChangeSequence#stableUpTo()} only knows this instance's
+ * transactions: another instance can still commit a row stamped below the
+ * highest value already read. So the next scan does not start from the
+ * highest value seen but from the highest value seen a rescan window ago,
+ * and rows changed within the window are read again. A write from another
+ * instance whose transaction outlives the window is only picked up by the
+ * next full load. Right after a load, scans go back to where the previous
+ * load stood (the beginning, on the first one) until the window has passed.
+ */
+class ChangeWatermark {
+
+    private final long windowNanos;
+    // {recorded at (nanoTime), highest value seen}, oldest first
+    private final Deque<long[]> recent = new ArrayDeque<>();
+    private long floor;
+
+    ChangeWatermark(Duration rescanWindow) {
+        this.windowNanos = rescanWindow.toNanos();
+    }
+
+    /** Exclusive lower bound for the next scan. */
+    synchronized long since() {
+        long now = System.nanoTime();
+        while (!recent.isEmpty() && now - recent.peekFirst()[0] >= windowNanos) {
+            floor = Math.max(floor, recent.pollFirst()[1]);
+        }
+        return floor;
+    }
+
+    /**
+     * Records the highest value a scan has seen. Callers cap it at the
+     * {@code stableUpTo()} they read before scanning, so it never passes a
+     * block that was still in flight on this instance. The sync feed records
+     * the highest committed value instead and reads {@link #since()} as the
+     * horizon it may read up to.
+     */
+    synchronized void seen(long highest) {
+        recent.addLast(new long[] {System.nanoTime(), highest});
+    }
+}
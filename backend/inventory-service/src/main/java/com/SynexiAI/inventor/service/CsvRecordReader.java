@@ -0,0 +1,120 @@
+package com.SynexiAI.inventor.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: one record at a time, quoted fields may contain
+ * commas, doubled quotes and line breaks. Nothing beyond the current record is kept.
+ */
+class CsvRecordReader {
+
+    private final Reader in;
+    private int peeked = -2;        // -2 = nothing buffered
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Line on which the record last returned by {@link #next()} started. */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Returns the next record, or null at end of input. Blank lines are skipped.
+     * A record that cannot be parsed throws {@link MalformedRecordException}.
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineBreak(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedRecordException(recordLine, "Unterminated quoted field starting on line "
+                            + recordLine + "; everything after it was read into that field");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    skipLineBreak(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // c was \n or \r; for \r also swallow a following \n
+    private void skipLineBreak(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                peeked = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    /** A record that is not valid CSV; the reader cannot go on past it. */
+    static class MalformedRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final long line;
+
+        MalformedRecordException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+
+        long getLine() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.cache.HotKeySketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Which SKUs get most of the lookups and deductions right now. Every
+ * {@code GET /sku/{sku}} and deduction line is recorded in a {@link HotKeySketch};
+ * counts are halved every {@code inventory.hotskus.decay-interval-ms}, so a
+ * SKU's weight fades by half per interval once it stops being asked for.
+ *
+ * <p>A SKU is hot when it is among the top {@code inventory.hotskus.top-k} and has
+ * at least {@code inventory.hotskus.min-share} of all recorded hits. Hot SKUs are
+ * pinned in the near-cache (see {@code RedisConfig}).
+ */
+@Component
+public class HotSkuTracker {
+
+    /** A heavy hitter as reported by {@code /actuator/hotskus}. */
+    public record HotSku(String skuCode, long estimatedHits, double share, boolean hot) {
+    }
+
+    private final HotKeySketch sketch;
+    private final double minShare;
+
+    public HotSkuTracker(@Value("${inventory.hotskus.top-k:100}") int topK,
+                         @Value("${inventory.hotskus.sketch-width:4096}") int sketchWidth,
+                         @Value("${inventory.hotskus.sketch-depth:4}") int sketchDepth,
+                         @Value("${inventory.hotskus.min-share:0.001}") double minShare) {
+        this.sketch = new HotKeySketch(sketchWidth, sketchDepth, topK);
+        this.minShare = minShare;
+    }
+
+    public void record(String skuCode) {
+        if (skuCode != null) {
+            sketch.add(skuCode);
+        }
+    }
+
+    public boolean isHot(String skuCode) {
+        long estimate = sketch.topEstimate(skuCode);
+        return estimate > 0 && estimate >= minShare * sketch.total();
+    }
+
+    public List<HotSku> heavyHitters() {
+        long total = Math.max(1, sketch.total());
+        return sketch.top().stream()
+                .map(key -> new HotSku(key.key(), key.estimate(), (double) key.estimate() / total,
+                        key.estimate() >= minShare * total))
+                .toList();
+    }
+
+    public long totalHits() {
+        return sketch.total();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hotskus.decay-interval-ms:60000}")
+    public void decay() {
+        sketch.decay();
+    }
+}
@@ -0,0 +1,437 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryBatchDeductResponse;
+import com.SynexiAI.inventor.dto.InventoryDeductRequest;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.event.StockFlushedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the authoritative available/reserved counters for every SKU in memory
+ * and writes the accumulated deltas back to {@code inventory_items} in batches.
+ *
+ * <p>Each SKU hashes to one of a fixed number of lock stripes, so deductions for
+ * different SKUs rarely contend. The database row is only touched by the
+ * scheduled flush, which applies relative deltas so writes made elsewhere
+ * (admin updates, other writers) are not overwritten.
+ *
+ * <p>Enabled with {@code inventory.ledger.enabled=true}. The ledger assumes it is
+ * the only instance deducting stock for these SKUs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.ledger.enabled", havingValue = "true")
+public class InMemoryStockLedger {
+
+    private static final String LOAD_ALL_SQL =
+            "select id, sku_code, quantity_available, quantity_reserved, reorder_level from inventory_items";
+    private static final String LOAD_ONE_SQL = LOAD_ALL_SQL + " where sku_code = ?";
+    private static final String FLUSH_SQL =
+            "update inventory_items set quantity_available = quantity_available + ?, " +
+            "quantity_reserved = coalesce(quantity_reserved, 0) + ?, change_seq = ?, version = version + 1 " +
+            "where sku_code = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeSequence changeSequence;
+    private final LowStockNotifier lowStockNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int flushBatchSize;
+
+    private final ReentrantLock[] stripes;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // Serialises flushes with reloads so a reload never observes a half-applied flush
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    public InMemoryStockLedger(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ChangeSequence changeSequence,
+                               LowStockNotifier lowStockNotifier,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${inventory.ledger.stripes:64}") int stripeCount,
+                               @Value("${inventory.ledger.flush-batch-size:500}") int flushBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeSequence = changeSequence;
+        this.lowStockNotifier = lowStockNotifier;
+        this.eventPublisher = eventPublisher;
+        this.flushBatchSize = flushBatchSize;
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuilds the counters from the database. Runs once the application is up;
+     * until then callers fall back to the database deduction path.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        flushLock.lock();
+        try {
+            slots.clear();
+            dirty.clear();
+            jdbcTemplate.query(LOAD_ALL_SQL, rs -> {
+                Slot slot = new Slot(rs.getLong("id"), rs.getInt("quantity_available"),
+                        rs.getInt("quantity_reserved"), rs.getInt("reorder_level"));
+                slots.put(rs.getString("sku_code"), slot);
+            });
+            ready = true;
+            log.info("Stock ledger recovered {} SKUs from inventory_items", slots.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public boolean deduct(String skuCode, int quantity) {
+        if (quantity <= 0) {
+            return false;
+        }
+        Slot slot = slots.get(skuCode);
+        if (slot == null) {
+            System.err.println("❌ SKU not found: " + skuCode);
+            return false;
+        }
+
+        int available;
+        int reserved;
+        int reorder;
+        ReentrantLock lock = stripeFor(skuCode);
+        lock.lock();
+        try {
+            if (slot.available < quantity) {
+                System.err.println("❌ Not enough stock for SKU: " + skuCode + " | Requested: " + quantity + " | Available: " + slot.available);
+                return false;
+            }
+            slot.available -= quantity;
+            slot.pendingAvailable -= quantity;
+            available = slot.available;
+            reserved = slot.reserved;
+            reorder = slot.reorderLevel;
+        } finally {
+            lock.unlock();
+        }
+        dirty.add(skuCode);
+
+        eventPublisher.publishEvent(InventoryChangedEvent.stockChanged(slot.id, skuCode, available, reserved, reorder, true));
+        lowStockNotifier.notifyIfLow(skuCode, available, reorder);
+        return true;
+    }
+
+    /**
+     * All-or-nothing deduction of several lines. The stripes covering the batch are
+     * locked in ascending index order so overlapping batches cannot deadlock.
+     */
+    public InventoryBatchDeductResponse deductBatch(List<InventoryDeductRequest> lines) {
+        InventoryBatchDeductResponse invalid = BatchDeductLines.validate(lines);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        TreeMap<String, Integer> totals = BatchDeductLines.totalsBySku(lines);
+        Map<String, Slot> batchSlots = new HashMap<>();
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (String skuCode : totals.keySet()) {
+            Slot slot = slots.get(skuCode);
+            if (slot != null) {
+                batchSlots.put(skuCode, slot);
+            }
+            stripeIndexes.add(stripeIndex(skuCode));
+        }
+
+        List<InventoryChangedEvent> changes = new ArrayList<>();
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (int index : stripeIndexes) {
+                stripes[index].lock();
+                held.add(stripes[index]);
+            }
+
+            Map<String, Integer> remaining = new HashMap<>();
+            batchSlots.forEach((skuCode, slot) -> remaining.put(skuCode, slot.available));
+            InventoryBatchDeductResponse failure = BatchDeductLines.apply(lines, remaining);
+            if (failure != null) {
+                System.err.println("❌ Batch deduction rejected: " + failure);
+                return failure;
+            }
+
+            batchSlots.forEach((skuCode, slot) -> {
+                int deducted = slot.available - remaining.get(skuCode);
+                slot.available -= deducted;
+                slot.pendingAvailable -= deducted;
+                changes.add(InventoryChangedEvent.stockChanged(slot.id, skuCode, slot.available,
+                        slot.reserved, slot.reorderLevel, true));
+            });
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+
+        for (InventoryChangedEvent change : changes) {
+            dirty.add(change.getSkuCode());
+            eventPublisher.publishEvent(change);
+            lowStockNotifier.notifyIfLow(change.getSkuCode(), change.getQuantityAvailable(), change.getReorderLevel());
+        }
+        return InventoryBatchDeductResponse.ok();
+    }
+
+    /** Moves stock from available to reserved. */
+    public boolean reserve(String skuCode, int quantity) {
+        return move(skuCode, -quantity, quantity);
+    }
+
+    /** Returns previously reserved stock to available. */
+    public boolean release(String skuCode, int quantity) {
+        return move(skuCode, quantity, -quantity);
+    }
+
+    /** Consumes reserved stock when a reservation is committed. */
+    public boolean consumeReserved(String skuCode, int quantity) {
+        return move(skuCode, 0, -quantity);
+    }
+
+    /** Puts back reserved stock taken by {@link #consumeReserved} whose transaction rolled back. */
+    public boolean restoreReserved(String skuCode, int quantity) {
+        return move(skuCode, 0, quantity);
+    }
+
+    /** Makes stock taken out of reserved available again, once the release that freed it has committed. */
+    public boolean returnToAvailable(String skuCode, int quantity) {
+        return move(skuCode, quantity, 0);
+    }
+
+    public Integer available(String skuCode) {
+        Slot slot = slots.get(skuCode);
+        if (slot == null) {
+            return null;
+        }
+        ReentrantLock lock = stripeFor(skuCode);
+        lock.lock();
+        try {
+            return slot.available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:500}")
+    public void flush() {
+        if (!ready || dirty.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>(flushBatchSize);
+            for (String skuCode : dirty) {
+                dirty.remove(skuCode);
+                Object[] delta = drain(skuCode);
+                if (delta != null) {
+                    batch.add(delta);
+                }
+                if (batch.size() >= flushBatchSize) {
+                    write(batch);
+                    batch = new ArrayList<>(flushBatchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /** Keeps the counters in line with changes written straight to the database. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.isPendingFlush() || !ready) {
+            return;
+        }
+        if (event.getPreviousSkuCode() != null) {
+            slots.remove(event.getPreviousSkuCode());
+        }
+        if (event.getType() == InventoryChangedEvent.Type.DELETED) {
+            slots.remove(event.getSkuCode());
+            return;
+        }
+        reload(event.getSkuCode());
+    }
+
+    private void reload(String skuCode) {
+        flushLock.lock();
+        try {
+            List<Slot> rows = jdbcTemplate.query(LOAD_ONE_SQL, (rs, rowNum) -> new Slot(rs.getLong("id"),
+                    rs.getInt("quantity_available"), rs.getInt("quantity_reserved"), rs.getInt("reorder_level")), skuCode);
+            if (rows.isEmpty()) {
+                slots.remove(skuCode);
+                return;
+            }
+            Slot fresh = rows.get(0);
+            ReentrantLock lock = stripeFor(skuCode);
+            lock.lock();
+            try {
+                Slot current = slots.putIfAbsent(skuCode, fresh);
+                if (current != null) {
+                    // The database does not contain unflushed deltas yet, so add them back on top
+                    current.available = fresh.available + current.pendingAvailable;
+                    current.reserved = fresh.reserved + current.pendingReserved;
+                    current.reorderLevel = fresh.reorderLevel;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean move(String skuCode, int availableDelta, int reservedDelta) {
+        Slot slot = slots.get(skuCode);
+        if (slot == null) {
+            return false;
+        }
+        InventoryChangedEvent change;
+        ReentrantLock lock = stripeFor(skuCode);
+        lock.lock();
+        try {
+            if (slot.available + availableDelta < 0 || slot.reserved + reservedDelta < 0) {
+                return false;
+            }
+            slot.available += availableDelta;
+            slot.reserved += reservedDelta;
+            slot.pendingAvailable += availableDelta;
+            slot.pendingReserved += reservedDelta;
+            change = InventoryChangedEvent.stockChanged(slot.id, skuCode, slot.available,
+                    slot.reserved, slot.reorderLevel, true);
+        } finally {
+            lock.unlock();
+        }
+        dirty.add(skuCode);
+        eventPublisher.publishEvent(change);
+        return true;
+    }
+
+    private Object[] drain(String skuCode) {
+        Slot slot = slots.get(skuCode);
+        if (slot == null) {
+            return null;
+        }
+        ReentrantLock lock = stripeFor(skuCode);
+        lock.lock();
+        try {
+            if (slot.pendingAvailable == 0 && slot.pendingReserved == 0) {
+                return null;
+            }
+            Object[] delta = {slot.pendingAvailable, slot.pendingReserved, skuCode, slot.id};
+            slot.pendingAvailable = 0;
+            slot.pendingReserved = 0;
+            return delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> rows = new ArrayList<>(batch.size());
+                for (Object[] delta : batch) {
+                    rows.add(new Object[]{delta[0], delta[1], changeSequence.next(), delta[2]});
+                }
+                jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+            });
+        } catch (RuntimeException e) {
+            log.error("Stock ledger flush of {} SKUs failed, will retry: {}", batch.size(), e.getMessage());
+            for (Object[] delta : batch) {
+                restore((String) delta[2], (Integer) delta[0], (Integer) delta[1]);
+            }
+            return;
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        List<String> skuCodes = new ArrayList<>(batch.size());
+        for (Object[] delta : batch) {
+            ids.add((Long) delta[3]);
+            skuCodes.add((String) delta[2]);
+        }
+        eventPublisher.publishEvent(new StockFlushedEvent(ids, skuCodes));
+    }
+
+    private void restore(String skuCode, int pendingAvailable, int pendingReserved) {
+        Slot slot = slots.get(skuCode);
+        if (slot == null) {
+            return;
+        }
+        ReentrantLock lock = stripeFor(skuCode);
+        lock.lock();
+        try {
+            slot.pendingAvailable += pendingAvailable;
+            slot.pendingReserved += pendingReserved;
+        } finally {
+            lock.unlock();
+        }
+        dirty.add(skuCode);
+    }
+
+    private ReentrantLock stripeFor(String skuCode) {
+        return stripes[stripeIndex(skuCode)];
+    }
+
+    private int stripeIndex(String skuCode) {
+        int h = skuCode.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    /** Per-SKU counters; every field is guarded by the SKU's stripe lock. */
+    private static final class Slot {
+        private final long id;
+        private int available;
+        private int reserved;
+        private int reorderLevel;
+        private int pendingAvailable;
+        private int pendingReserved;
+
+        private Slot(long id, int available, int reserved, int reorderLevel) {
+            this.id = id;
+            this.available = available;
+            this.reserved = reserved;
+            this.reorderLevel = reorderLevel;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.event.StockFlushedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the Redis caches in line with inventory writes. Runs after commit, so a
+ * rolled-back write never reaches the cache.
+ */
+@Slf4j
+@Component
+public class InventoryCacheSynchronizer {
+
+    public static final String ITEM_CACHE = "inventoryItem";
+    public static final String SKU_CACHE = "inventoryBySku";
+    public static final String PAGE_CACHE = "inventoryPage";
+
+    private final CacheManager cacheManager;
+
+    public InventoryCacheSynchronizer(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.isPendingFlush()) {
+            // The caches mirror the database, which does not have this balance yet; the flush evicts them once
+            return;
+        }
+        try {
+            syncItemCaches(event);
+            // Adding, removing or renaming an item shifts page boundaries, so every page goes.
+            // Pure stock changes are left to the short page TTL instead of wiping the cache per deduction.
+            if (event.getType() != InventoryChangedEvent.Type.STOCK_CHANGED) {
+                cache(PAGE_CACHE).clear();
+            }
+        } catch (RuntimeException e) {
+            // The write is already committed; a cache outage must not turn it into an error for the caller
+            log.warn("Could not sync inventory caches for SKU {}: {}", event.getSkuCode(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        try {
+            Cache byId = cache(ITEM_CACHE);
+            Cache bySku = cache(SKU_CACHE);
+            for (int i = 0; i < event.getIds().size(); i++) {
+                byId.evict(event.getIds().get(i));
+                bySku.evict(event.getSkuCodes().get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not evict inventory caches after a ledger flush of {} SKUs: {}",
+                    event.getSkuCodes().size(), e.getMessage());
+        }
+    }
+
+    private void syncItemCaches(InventoryChangedEvent event) {
+        Cache byId = cache(ITEM_CACHE);
+        Cache bySku = cache(SKU_CACHE);
+
+        if (event.getPreviousSkuCode() != null && !event.getPreviousSkuCode().equals(event.getSkuCode())) {
+            bySku.evict(event.getPreviousSkuCode());
+        }
+
+        InventoryItemDto item = event.getItem();
+        if (event.getType() == InventoryChangedEvent.Type.DELETED || item == null) {
+            // Deleted, or a change without the full row: drop the entries and let the next read reload them
+            byId.evict(event.getId());
+            bySku.evict(event.getSkuCode());
+            return;
+        }
+        byId.put(item.getId(), item);
+        bySku.put(item.getSkuCode(), item);
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + name + "' is not configured");
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,307 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryDelta;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed inventory changes to connected dashboards.
+ *
+ * <p>Every subscriber has its own pending map keyed by SKU, so a burst of
+ * changes to one SKU collapses into its latest state. The map is drained at
+ * most once per flush interval by a small sender pool, one send per subscriber
+ * at a time; while a slow client is still being written to, its changes keep
+ * coalescing instead of queueing. If a client falls so far behind that more
+ * than {@code max-pending} SKUs are waiting, its backlog is dropped and it is
+ * told to resync, and a client whose send has been stuck past
+ * {@code stall-timeout} is disconnected.
+ *
+ * <p>Disconnecting does not free the sender thread: a write to a client that
+ * stopped reading blocks in the socket until the container's write timeout
+ * gives up, however the emitter is closed. The stuck thread is interrupted and
+ * written off, and the pool grows by one in its place, so stalled clients
+ * never hold up the healthy ones; it shrinks back when the write returns. At
+ * most {@code max-stalled-senders} threads are replaced this way.
+ */
+@Slf4j
+@Component
+public class InventoryChangeStream {
+
+    /** Where a subscriber's events go; the SSE emitter in production. */
+    public interface Sink {
+        void send(String event, Object data) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+    private int stalledSenders;     // guarded by senders
+    private final Duration timeout;
+    private final int maxPending;
+    private final long stallTimeoutNanos;
+    private final long heartbeatNanos;
+
+    public InventoryChangeStream(@Value("${inventory.stream.sender-threads:4}") int senderThreads,
+                                 @Value("${inventory.stream.timeout:30m}") Duration timeout,
+                                 @Value("${inventory.stream.max-pending:5000}") int maxPending,
+                                 @Value("${inventory.stream.stall-timeout:30s}") Duration stallTimeout,
+                                 @Value("${inventory.stream.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${inventory.stream.max-stalled-senders:16}") int maxStalledSenders) {
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senderThreads = senderThreads;
+        this.maxStalledSenders = maxStalledSenders;
+        this.timeout = timeout;
+        this.maxPending = maxPending;
+        this.stallTimeoutNanos = stallTimeout.toNanos();
+        this.heartbeatNanos = heartbeat.toNanos();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = register(new Sink() {
+            @Override
+            public void send(String event, Object data) throws IOException {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Adds a subscriber and sends it a {@code ready} event. Clients should load
+     * their snapshot after that, so no change falls between the two.
+     */
+    public Subscriber register(Sink sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        subscribers.add(subscriber);
+        try {
+            sink.send("ready", Map.of("maxPending", maxPending));
+        } catch (IOException | IllegalStateException e) {
+            subscriber.close();
+        }
+        return subscriber;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        InventoryDelta delta = toDelta(event);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stream.flush-interval-ms:250}")
+    public void flush() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > stallTimeoutNanos) {
+                if (subscriber.abandoned.compareAndSet(false, true)) {
+                    log.warn("Dropping change stream subscriber stuck in a send for over {} ms", stallTimeoutNanos / 1_000_000);
+                    subscriber.close();
+                    writeOff(subscriber);
+                }
+            } else if (subscriber.due(now) && subscriber.sending.compareAndSet(false, true)) {
+                senders.execute(subscriber::drain);
+            }
+        }
+    }
+
+    /** Number of sender threads, including replacements for ones stuck writing to a stalled client. */
+    public int senderPoolSize() {
+        return senders.getMaximumPoolSize();
+    }
+
+    // Interrupts the stuck sender and adds a thread in its place, unless its send has returned meanwhile
+    private void writeOff(Subscriber subscriber) {
+        synchronized (senders) {
+            Thread stuck = subscriber.sendingThread;
+            if (stuck == null) {
+                return;
+            }
+            if (stalledSenders < maxStalledSenders) {
+                stalledSenders++;
+                senders.setMaximumPoolSize(senderThreads + stalledSenders);
+                senders.setCorePoolSize(senderThreads + stalledSenders);
+                subscriber.replaced = true;
+            } else {
+                log.warn("{} change stream senders are already stuck; not replacing another", stalledSenders);
+            }
+            stuck.interrupt();
+        }
+    }
+
+    // The written-off sender came back, so the thread added for it goes again
+    private void sendFinished(Subscriber subscriber) {
+        synchronized (senders) {
+            subscriber.sendingThread = null;
+            if (subscriber.replaced) {
+                subscriber.replaced = false;
+                stalledSenders--;
+                senders.setCorePoolSize(senderThreads + stalledSenders);
+                senders.setMaximumPoolSize(senderThreads + stalledSenders);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    private static InventoryDelta toDelta(InventoryChangedEvent event) {
+        if (event.getType() == InventoryChangedEvent.Type.DELETED) {
+            return new InventoryDelta(InventoryDelta.Op.DELETE, event.getId(), event.getSkuCode(),
+                    null, null, null, null, null);
+        }
+        // Stock changes are the hot path, so they go out without the full item
+        boolean full = event.getType() != InventoryChangedEvent.Type.STOCK_CHANGED;
+        return new InventoryDelta(InventoryDelta.Op.UPSERT, event.getId(), event.getSkuCode(),
+                event.getPreviousSkuCode(), event.getQuantityAvailable(), event.getQuantityReserved(),
+                event.getReorderLevel(), full ? event.getItem() : null);
+    }
+
+    // A stock change that lands on a pending create or update keeps that item and its rename
+    private static InventoryDelta merge(InventoryDelta older, InventoryDelta newer) {
+        if (older == null || older.getOp() == InventoryDelta.Op.DELETE
+                || newer.getOp() == InventoryDelta.Op.DELETE || newer.getItem() != null) {
+            return newer;
+        }
+        return new InventoryDelta(newer.getOp(), newer.getId(), newer.getSkuCode(),
+                older.getPreviousSkuCode(), newer.getQuantityAvailable(), newer.getQuantityReserved(),
+                newer.getReorderLevel(), older.getItem());
+    }
+
+    public final class Subscriber {
+        private final Sink sink;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean abandoned = new AtomicBoolean();
+        private boolean replaced;               // guarded by senders
+        private volatile Thread sendingThread;  // written under senders
+        private Map<String, InventoryDelta> pending = new LinkedHashMap<>();   // guarded by this
+        private boolean overflowed;                                           // guarded by this
+        private volatile long sendStartedAt;
+        private volatile long lastSentAt = System.nanoTime();
+
+        private Subscriber(Sink sink) {
+            this.sink = sink;
+        }
+
+        private synchronized void offer(InventoryDelta delta) {
+            if (overflowed) {
+                return;     // a resync is already owed, which supersedes any delta
+            }
+            if (delta.getPreviousSkuCode() != null) {
+                pending.remove(delta.getPreviousSkuCode());
+            }
+            pending.put(delta.getSkuCode(), merge(pending.get(delta.getSkuCode()), delta));
+            if (pending.size() > maxPending) {
+                pending = new LinkedHashMap<>();
+                overflowed = true;
+            }
+        }
+
+        private synchronized boolean due(long now) {
+            return overflowed || !pending.isEmpty() || now - lastSentAt > heartbeatNanos;
+        }
+
+        // One send per flush; whatever arrives meanwhile coalesces for the next one
+        private void drain() {
+            List<InventoryDelta> batch;
+            boolean resync;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                resync = overflowed;
+                pending = new LinkedHashMap<>();
+                overflowed = false;
+            }
+            synchronized (senders) {
+                sendingThread = Thread.currentThread();
+            }
+            sendStartedAt = System.nanoTime();
+            try {
+                if (resync) {
+                    sink.send("resync", Map.of("reason", "too many pending changes"));
+                } else if (!batch.isEmpty()) {
+                    sink.send("deltas", batch);
+                } else {
+                    sink.heartbeat();
+                }
+                lastSentAt = System.nanoTime();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change stream subscriber went away: {}", e.getMessage());
+                close();
+            } finally {
+                sendStartedAt = 0;
+                sendFinished(this);
+                if (abandoned.get()) {
+                    // Interrupted when written off; that must not leak into the next task on this thread
+                    Thread.interrupted();
+                }
+                sending.set(false);
+            }
+        }
+
+        public void close() {
+            subscribers.remove(this);
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                log.debug("Closing change stream subscriber failed: {}", e.getMessage());
+            }
+        }
+    }
+}
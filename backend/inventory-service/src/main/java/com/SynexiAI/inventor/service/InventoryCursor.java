@@ -0,0 +1,37 @@
+package com.SynexiAI.inventor.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination. It encodes the sort key and
+ * the last value returned, so the next page starts with a plain index seek.
+ */
+public final class InventoryCursor {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_SKU = "skuCode";
+
+    private InventoryCursor() {
+    }
+
+    public static String encode(String sort, String lastValue) {
+        String raw = sort + ":" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns the last value carried by the token, checking it was issued for the same sort. */
+    public static String decode(String token, String expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int separator = raw.indexOf(':');
+        if (separator < 0 || !raw.substring(0, separator).equals(expectedSort)) {
+            throw new IllegalArgumentException("Cursor does not match sort '" + expectedSort + "'");
+        }
+        return raw.substring(separator + 1);
+    }
+}
@@ -0,0 +1,147 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.ExpiryDigest;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Expiry lookups on the (expiry_date, id) index. Both the endpoint and the
+ * nightly digest page by that key, so neither ever scans the whole table.
+ */
+@Slf4j
+@Service
+public class InventoryExpiryService {
+
+    static final String SORT_EXPIRY = "expiry";
+    private static final int TOP_SKUS = 5;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryMappingService mapper;
+
+    @Value("${inventory.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${inventory.expiry.max-days:365}")
+    private int maxDays;
+
+    @Value("${inventory.expiry.digest-days:30}")
+    private int digestDays;
+
+    @Value("${inventory.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    private volatile ExpiryDigest lastDigest;
+
+    /** Items expiring between today and today + withinDays, soonest first. */
+    public InventoryPage getExpiring(int withinDays, String cursor, int size) {
+        if (withinDays < 0 || withinDays > maxDays) {
+            throw new IllegalArgumentException("withinDays must be between 0 and " + maxDays);
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        LocalDate today = LocalDate.now();
+
+        LocalDate afterDate = today;
+        long afterId = 0L;
+        if (cursor != null) {
+            String[] last = InventoryCursor.decode(cursor, SORT_EXPIRY).split("/", 2);
+            try {
+                afterDate = LocalDate.parse(last[0]);
+                afterId = Long.parseLong(last[1]);
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<InventoryItem> rows = repository.findExpiringAfter(afterDate, afterId,
+                today.plusDays(withinDays), Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<InventoryItem> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            InventoryItem last = page.get(page.size() - 1);
+            nextCursor = InventoryCursor.encode(SORT_EXPIRY, last.getExpiryDate() + "/" + last.getId());
+        }
+        return new InventoryPage(page.stream().map(mapper::toDto).collect(Collectors.toList()), nextCursor, hasMore);
+    }
+
+    /** The digest from the last scheduled run, built on demand if there has not been one yet. */
+    public ExpiryDigest getDigest() {
+        ExpiryDigest digest = lastDigest;
+        return digest != null ? digest : buildDigest();
+    }
+
+    /**
+     * Walks the next {@code inventory.expiry.digest-days} one day bucket at a time,
+     * reading each day in chunks of {@code inventory.expiry.chunk-size}, and keeps
+     * only counters and the top SKUs per day.
+     */
+    @Scheduled(cron = "${inventory.expiry.digest-cron:0 15 2 * * *}")
+    public ExpiryDigest buildDigest() {
+        LocalDate today = LocalDate.now();
+        ExpiryDigest digest = new ExpiryDigest();
+        digest.setGeneratedAt(Instant.now());
+        digest.setHorizonDays(digestDays);
+
+        for (int offset = 0; offset <= digestDays; offset++) {
+            LocalDate day = today.plusDays(offset);
+            ExpiryDigest.DayBucket bucket = new ExpiryDigest.DayBucket(day, 0, 0, new ArrayList<>());
+            PriorityQueue<InventoryItem> top = new PriorityQueue<>(
+                    Comparator.comparingInt((InventoryItem i) -> units(i)).thenComparing(InventoryItem::getSkuCode,
+                            Comparator.reverseOrder()));
+
+            long afterId = 0L;
+            List<InventoryItem> chunk;
+            do {
+                chunk = repository.findByExpiryDateAndIdGreaterThanOrderByIdAsc(day, afterId, Limit.of(chunkSize));
+                for (InventoryItem item : chunk) {
+                    bucket.setItems(bucket.getItems() + 1);
+                    bucket.setUnits(bucket.getUnits() + units(item));
+                    top.add(item);
+                    if (top.size() > TOP_SKUS) {
+                        top.poll();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == chunkSize);
+
+            if (bucket.getItems() > 0) {
+                List<InventoryItem> largest = new ArrayList<>(top);
+                largest.sort(top.comparator().reversed());
+                largest.forEach(item -> bucket.getTopSkus().add(item.getSkuCode()));
+                digest.getDays().add(bucket);
+                digest.setTotalItems(digest.getTotalItems() + bucket.getItems());
+                digest.setTotalUnits(digest.getTotalUnits() + bucket.getUnits());
+            }
+        }
+
+        lastDigest = digest;
+        log.info("Expiry digest: {} items / {} units expire within {} days across {} days with stock",
+                digest.getTotalItems(), digest.getTotalUnits(), digestDays, digest.getDays().size());
+        return digest;
+    }
+
+    private static int units(InventoryItem item) {
+        return item.getQuantityAvailable() != null ? item.getQuantityAvailable() : 0;
+    }
+}
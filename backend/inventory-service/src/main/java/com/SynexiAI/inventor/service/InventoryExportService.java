@@ -0,0 +1,199 @@
+package com.SynexiAI.inventor.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the whole inventory table to an output stream. Rows are read with a
+ * forward-only cursor and written as they arrive, so memory use does not
+ * depend on the size of the table.
+ */
+@Service
+public class InventoryExportService {
+
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format '" + value + "', use csv or ndjson");
+            }
+        }
+    }
+
+    private static final String EXPORT_SQL = "SELECT id, sku_code, name, quantity_available, quantity_reserved, " +
+            "reorder_level, location, expiry_date FROM inventory_items ORDER BY id";
+    // With stock movements on, the rows hold the last compacted snapshot; add what is still pending
+    private static final String EXPORT_WITH_MOVEMENTS_SQL = "SELECT i.id, i.sku_code, i.name, " +
+            "i.quantity_available + COALESCE(p.available_delta, 0), " +
+            "CASE WHEN p.item_id IS NULL THEN i.quantity_reserved ELSE COALESCE(i.quantity_reserved, 0) + p.reserved_delta END, " +
+            "i.reorder_level, i.location, i.expiry_date FROM inventory_items i LEFT JOIN (" +
+            "SELECT item_id, SUM(available_delta) AS available_delta, SUM(reserved_delta) AS reserved_delta " +
+            "FROM stock_movements WHERE compacted = false GROUP BY item_id) p ON p.item_id = i.id ORDER BY i.id";
+
+    private static final String CSV_HEADER =
+            "id,skuCode,name,quantityAvailable,quantityReserved,reorderLevel,location,expiryDate";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final int fetchSize;
+    private final String exportSql;
+
+    public InventoryExportService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${inventory.export.fetch-size:1000}") int fetchSize,
+                                  @Value("${inventory.movements.enabled:false}") boolean movementsEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportSql = movementsEnabled ? EXPORT_WITH_MOVEMENTS_SQL : EXPORT_SQL;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /** Writes every row in id order and returns how many were written. */
+    public long export(Format format, OutputStream out) throws IOException {
+        try {
+            return format == Format.CSV ? exportCsv(out) : exportNdjson(out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();     // usually the client went away mid-download
+        }
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = stream(rs -> {
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            writer.write(csv(rs.getString(2)));
+            writer.write(',');
+            writer.write(csv(rs.getString(3)));
+            writer.write(',');
+            writer.write(number(rs, 4));
+            writer.write(',');
+            writer.write(number(rs, 5));
+            writer.write(',');
+            writer.write(number(rs, 6));
+            writer.write(',');
+            writer.write(csv(rs.getString(7)));
+            writer.write(',');
+            Date expiry = rs.getDate(8);
+            writer.write(expiry != null ? expiry.toLocalDate().toString() : "");
+            writer.write('\n');
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long rows = stream(rs -> {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong(1));
+            json.writeStringField("skuCode", rs.getString(2));
+            json.writeStringField("name", rs.getString(3));
+            writeNumber(json, "quantityAvailable", rs, 4);
+            writeNumber(json, "quantityReserved", rs, 5);
+            writeNumber(json, "reorderLevel", rs, 6);
+            json.writeStringField("location", rs.getString(7));
+            Date expiry = rs.getDate(8);
+            json.writeStringField("expiryDate", expiry != null ? expiry.toLocalDate().toString() : null);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        });
+        json.flush();
+        return rows;
+    }
+
+    private long stream(RowWriter rowWriter) {
+        AtomicLong rows = new AtomicLong();
+        // PostgreSQL only honours the fetch size inside a transaction; outside one it buffers the whole result
+        readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(exportSql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows.incrementAndGet();
+        }));
+        return rows.get();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private static String number(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? "" : Integer.toString(value);
+    }
+
+    private static void writeNumber(JsonGenerator json, String field, ResultSet rs, int column)
+            throws SQLException, IOException {
+        int value = rs.getInt(column);
+        if (rs.wasNull()) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
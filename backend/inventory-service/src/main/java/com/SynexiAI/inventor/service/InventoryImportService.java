@@ -0,0 +1,370 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryImportResponse;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Bulk CSV import. The file is parsed one record at a time and upserted by SKU
+ * in JDBC batches of {@code inventory.import.batch-size}; each batch commits on
+ * its own. A batch the database rejects is retried row by row so only the bad
+ * rows are reported, and the rest of the file carries on.
+ *
+ * The header picks the columns: skuCode, name and quantityAvailable are
+ * required; quantityReserved, reorderLevel, location and expiryDate are
+ * optional and an empty cell keeps the current value. Other columns (such as
+ * the id from an export) are ignored.
+ */
+@Slf4j
+@Service
+public class InventoryImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO inventory_items (sku_code, name, quantity_available, " +
+            "quantity_reserved, reorder_level, location, expiry_date, change_seq) " +
+            "VALUES (?, ?, ?, COALESCE(?, 0), COALESCE(?, 0), ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE inventory_items SET name = ?, quantity_available = ?, " +
+            "quantity_reserved = COALESCE(?, quantity_reserved), reorder_level = COALESCE(?, reorder_level), " +
+            "location = COALESCE(?, location), expiry_date = COALESCE(?, expiry_date), change_seq = ?, " +
+            "version = version + 1 WHERE sku_code = ?";
+
+    private static final String SELECT_COLUMNS = "SELECT id, sku_code, name, quantity_available, quantity_reserved, " +
+            "reorder_level, location, expiry_date, change_seq FROM inventory_items WHERE sku_code IN ";
+
+    private static final List<String> REQUIRED = List.of("skuCode", "name", "quantityAvailable");
+    private static final List<String> KNOWN_COLUMNS = List.of("skuCode", "name", "quantityAvailable",
+            "quantityReserved", "reorderLevel", "location", "expiryDate");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeSequence changeSequence;
+    private final ObjectProvider<StockMovementLedger> movements;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public InventoryImportService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ChangeSequence changeSequence,
+                                  ObjectProvider<StockMovementLedger> movements,
+                                  @Value("${inventory.import.batch-size:1000}") int batchSize,
+                                  @Value("${inventory.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.changeSequence = changeSequence;
+        this.movements = movements;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public InventoryImportResponse importCsv(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        InventoryImportResponse result = new InventoryImportResponse();
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024));
+
+        List<String> header;
+        try {
+            header = reader.next();
+        } catch (CsvRecordReader.MalformedRecordException e) {
+            throw new IllegalArgumentException("CSV header is malformed: " + e.getMessage());
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = columnIndexes(header);
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        Set<String> batchSkus = new HashSet<>();
+        List<String> record;
+        while (true) {
+            try {
+                record = reader.next();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                // The rest of the input went into the broken record, so it is the last one; rows before it still import
+                result.setRowsRead(result.getRowsRead() + 1);
+                recordError(result, e.getLine(), null, e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            result.setRowsRead(result.getRowsRead() + 1);
+            ImportRow row;
+            try {
+                row = ImportRow.parse(record, columns, reader.getRecordLine());
+            } catch (IllegalArgumentException e) {
+                recordError(result, reader.getRecordLine(), value(record, columns.get("skuCode")), e.getMessage());
+                continue;
+            }
+            // A SKU repeated within one batch would be inserted twice; write what we have first
+            if (!batchSkus.add(row.skuCode)) {
+                writeBatch(batch, result);
+                batch.clear();
+                batchSkus.clear();
+                batchSkus.add(row.skuCode);
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, result);
+                batch.clear();
+                batchSkus.clear();
+            }
+        }
+        writeBatch(batch, result);
+
+        long elapsedNanos = System.nanoTime() - started;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? Math.round(result.getRowsRead() / (elapsedNanos / 1e9)) : 0);
+        log.info("CSV import: {} rows read, {} inserted, {} updated, {} failed in {} ms ({} rows/s)",
+                result.getRowsRead(), result.getInserted(), result.getUpdated(), result.getFailed(),
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private static Map<String, Integer> columnIndexes(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            for (String known : KNOWN_COLUMNS) {
+                if (known.equalsIgnoreCase(name)) {
+                    columns.put(known, i);
+                }
+            }
+        }
+        if (!columns.keySet().containsAll(REQUIRED)) {
+            throw new IllegalArgumentException("CSV header must contain " + String.join(", ", REQUIRED));
+        }
+        return columns;
+    }
+
+    private void writeBatch(List<ImportRow> batch, InventoryImportResponse result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                        "SELECT sku_code FROM inventory_items WHERE sku_code IN " + placeholders(batch.size()),
+                        String.class, batch.stream().map(r -> r.skuCode).toArray()));
+                List<Object[]> inserts = new ArrayList<>();
+                List<Object[]> updates = new ArrayList<>();
+                Set<String> insertedSkus = new HashSet<>();
+                for (ImportRow row : batch) {
+                    if (existing.contains(row.skuCode)) {
+                        updates.add(row.updateArgs(changeSequence.next()));
+                    } else {
+                        inserts.add(row.insertArgs(changeSequence.next()));
+                        insertedSkus.add(row.skuCode);
+                    }
+                }
+                // Imported quantities replace the balance, so pending movements are folded in first
+                movements.ifAvailable(ledger -> ledger.foldPending(existing));
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts, ImportRow.INSERT_TYPES);
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates, ImportRow.UPDATE_TYPES);
+                return insertedSkus;
+            });
+        } catch (DataAccessException e) {
+            // One bad row fails the whole batch; redo it row by row to find out which
+            writeRowByRow(batch, result);
+            return;
+        }
+        result.setInserted(result.getInserted() + inserted.size());
+        result.setUpdated(result.getUpdated() + batch.size() - inserted.size());
+        publishChanges(batch, inserted);
+    }
+
+    private void writeRowByRow(List<ImportRow> batch, InventoryImportResponse result) {
+        List<ImportRow> written = new ArrayList<>();
+        Set<String> inserted = new HashSet<>();
+        for (ImportRow row : batch) {
+            try {
+                boolean wasInsert = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    long changeSeq = changeSequence.next();
+                    movements.ifAvailable(ledger -> ledger.foldPending(List.of(row.skuCode)));
+                    if (jdbcTemplate.update(UPDATE_SQL, row.updateArgs(changeSeq), ImportRow.UPDATE_TYPES) == 1) {
+                        return false;
+                    }
+                    jdbcTemplate.update(INSERT_SQL, row.insertArgs(changeSeq), ImportRow.INSERT_TYPES);
+                    return true;
+                }));
+                if (wasInsert) {
+                    inserted.add(row.skuCode);
+                    result.setInserted(result.getInserted() + 1);
+                } else {
+                    result.setUpdated(result.getUpdated() + 1);
+                }
+                written.add(row);
+            } catch (DataAccessException e) {
+                recordError(result, row.line, row.skuCode, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        publishChanges(written, inserted);
+    }
+
+    // The writes bypass JPA, so tell the caches, ledger and indexes what changed
+    private void publishChanges(List<ImportRow> rows, Set<String> inserted) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<InventoryItemDto> items = jdbcTemplate.query(SELECT_COLUMNS + placeholders(rows.size()),
+                (rs, rowNum) -> {
+                    Date expiry = rs.getDate("expiry_date");
+                    return InventoryItemDto.builder()
+                            .id(rs.getLong("id"))
+                            .skuCode(rs.getString("sku_code"))
+                            .name(rs.getString("name"))
+                            .quantityAvailable(rs.getInt("quantity_available"))
+                            .quantityReserved(rs.getInt("quantity_reserved"))
+                            .reorderLevel(rs.getInt("reorder_level"))
+                            .location(rs.getString("location"))
+                            .expiryDate(expiry != null ? expiry.toLocalDate() : null)
+                            .changeSeq(rs.getLong("change_seq"))
+                            .build();
+                },
+                rows.stream().map(r -> r.skuCode).toArray());
+        for (InventoryItemDto item : items) {
+            eventPublisher.publishEvent(inserted.contains(item.getSkuCode())
+                    ? InventoryChangedEvent.created(item)
+                    : InventoryChangedEvent.updated(item, item.getSkuCode()));
+        }
+    }
+
+    private void recordError(InventoryImportResponse result, long line, String skuCode, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new InventoryImportResponse.RowError(line, skuCode, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner joiner = new StringJoiner(",", "(", ")");
+        for (int i = 0; i < count; i++) {
+            joiner.add("?");
+        }
+        return joiner.toString();
+    }
+
+    private static String value(List<String> record, Integer index) {
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static final class ImportRow {
+
+        static final int[] INSERT_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+                Types.INTEGER, Types.VARCHAR, Types.DATE, Types.BIGINT};
+        static final int[] UPDATE_TYPES = {Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+                Types.VARCHAR, Types.DATE, Types.BIGINT, Types.VARCHAR};
+
+        final long line;
+        final String skuCode;
+        final String name;
+        final int quantityAvailable;
+        final Integer quantityReserved;
+        final Integer reorderLevel;
+        final String location;
+        final Date expiryDate;
+
+        private ImportRow(long line, String skuCode, String name, int quantityAvailable, Integer quantityReserved,
+                          Integer reorderLevel, String location, Date expiryDate) {
+            this.line = line;
+            this.skuCode = skuCode;
+            this.name = name;
+            this.quantityAvailable = quantityAvailable;
+            this.quantityReserved = quantityReserved;
+            this.reorderLevel = reorderLevel;
+            this.location = location;
+            this.expiryDate = expiryDate;
+        }
+
+        static ImportRow parse(List<String> record, Map<String, Integer> columns, long line) {
+            String skuCode = value(record, columns.get("skuCode"));
+            String name = value(record, columns.get("name"));
+            if (skuCode == null) {
+                throw new IllegalArgumentException("SKU code is required");
+            }
+            if (name == null) {
+                throw new IllegalArgumentException("Name is required");
+            }
+            Integer available = quantity(record, columns.get("quantityAvailable"), "quantityAvailable");
+            if (available == null) {
+                throw new IllegalArgumentException("Quantity available is required");
+            }
+            String expiry = value(record, columns.get("expiryDate"));
+            Date expiryDate;
+            try {
+                expiryDate = expiry != null ? Date.valueOf(LocalDate.parse(expiry)) : null;
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("expiryDate must be yyyy-MM-dd, got '" + expiry + "'");
+            }
+            return new ImportRow(line, skuCode, name, available,
+                    quantity(record, columns.get("quantityReserved"), "quantityReserved"),
+                    quantity(record, columns.get("reorderLevel"), "reorderLevel"),
+                    value(record, columns.get("location")),
+                    expiryDate);
+        }
+
+        private static Integer quantity(List<String> record, Integer index, String column) {
+            String raw = value(record, index);
+            if (raw == null) {
+                return null;
+            }
+            int parsed;
+            try {
+                parsed = Integer.parseInt(raw);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " must be a whole number, got '" + raw + "'");
+            }
+            if (parsed < 0) {
+                throw new IllegalArgumentException(column + " cannot be negative");
+            }
+            return parsed;
+        }
+
+        Object[] insertArgs(long changeSeq) {
+            return new Object[]{skuCode, name, quantityAvailable, quantityReserved, reorderLevel, location, expiryDate,
+                    changeSeq};
+        }
+
+        Object[] updateArgs(long changeSeq) {
+            return new Object[]{name, quantityAvailable, quantityReserved, reorderLevel, location, expiryDate,
+                    changeSeq, skuCode};
+        }
+    }
+}
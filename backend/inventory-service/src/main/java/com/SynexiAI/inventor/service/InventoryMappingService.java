@@ -17,6 +17,8 @@ public class InventoryMappingService {
         dto.setReorderLevel(entity.getReorderLevel());
         dto.setLocation(entity.getLocation());
         dto.setExpiryDate(entity.getExpiryDate());
+        dto.setChangeSeq(entity.getChangeSeq());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
@@ -0,0 +1,582 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search over SKU, name and location.
+ *
+ * <p>Every document lives in an int slot. Terms of three or more characters are
+ * matched as substrings through a trigram index: the posting lists of the
+ * term's trigrams are intersected and the survivors checked against the real
+ * text. Shorter terms are matched as word prefixes through a sorted token map
+ * (a trie in all but name) whose postings also record the field, so they are
+ * scored without touching the text. Several terms must all match.
+ *
+ * <p>Posting lists only ever grow, in slot order. An updated or deleted document
+ * leaves a dead slot behind, and the index is rebuilt from the live slots once
+ * dead ones make up a quarter of the total.
+ */
+@Slf4j
+@Component
+public class InventorySearchIndex {
+
+    private static final String LOAD_SQL = "select id, sku_code, name, location from inventory_items";
+    private static final int GRAM = 3;
+    private static final int SKU = 0, NAME = 1, LOCATION = 2;
+    // Kinds of word match, indexes into WORD_SCORES; SKU_WHOLE is a SKU made of a single word
+    private static final int SKU_LEAD = 0, SKU_WORD = 1, NAME_WORD = 2, LOCATION_WORD = 3, SKU_WHOLE = 4;
+    private static final int[] WORD_SCORES = {80, 45, 60, 50, 80};
+    private static final int KIND_BITS = 3;
+    private static final int EXACT_SKU = 100;
+    private static final int VERIFY = -1;
+    private static final int MAX_PROBED_WORDS = 16;
+
+    // Worst hit first, so the bounded heap drops it when a better one arrives; ties go to the older slot
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::score)
+            .thenComparing(Comparator.comparingInt(Hit::slot).reversed());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private String[][] texts;           // lower-cased sku, name, location per slot
+    private BitSet dead;
+    private int slotCount;
+    private int deadCount;
+    private Map<Long, Integer> slotById;
+    private Map<String, IntList> grams;
+    private NavigableMap<String, IntList> tokens;
+    private volatile boolean ready;
+
+    public InventorySearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        reset(1024);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            reset(1024);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long id = rs.getLong("id");
+            lock.writeLock().lock();
+            try {
+                // An event that raced with the load is newer than this row
+                if (!slotById.containsKey(id)) {
+                    add(id, rs.getString("sku_code"), rs.getString("name"), rs.getString("location"));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        ready = true;
+        log.info("Search index loaded with {} items", size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.getType() == InventoryChangedEvent.Type.DELETED) {
+            remove(event.getId());
+            return;
+        }
+        InventoryItemDto item = event.getItem();
+        if (event.getType() != InventoryChangedEvent.Type.STOCK_CHANGED && item != null && item.getId() != null) {
+            put(item.getId(), item.getSkuCode(), item.getName(), item.getLocation());
+        }
+    }
+
+    public void put(long id, String skuCode, String name, String location) {
+        lock.writeLock().lock();
+        try {
+            kill(slotById.get(id));
+            add(id, skuCode, name, location);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            kill(slotById.remove(id));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ids of the matching items, best match first, plus the total number of matches. */
+    public Hits search(String query, int offset, int limit) {
+        String[] terms = query == null ? new String[0] : query.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        if (terms.length == 0 || terms[0].isEmpty()) {
+            return new Hits(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            // Only the most selective term is materialised; the walk over it probes the others
+            String driverTerm = null;
+            long driverCost = Long.MAX_VALUE;
+            for (String term : terms) {
+                long cost = cost(term);
+                if (cost == 0) {
+                    return new Hits(0, List.of());
+                }
+                if (cost < driverCost) {
+                    driverTerm = term;
+                    driverCost = cost;
+                }
+            }
+            TermMatch driver = driverTerm.length() >= GRAM ? substringMatch(driverTerm) : prefixMatch(driverTerm);
+            List<TermMatch> matches = new ArrayList<>(terms.length);
+            matches.add(driver);
+            boolean skipped = false;
+            for (String term : terms) {
+                if (term.equals(driverTerm) && !skipped) {
+                    skipped = true;
+                } else {
+                    // Short terms need their word union built; longer ones are probed trigram by trigram
+                    matches.add(term.length() >= GRAM ? gramProbe(term) : prefixMatch(term));
+                }
+            }
+
+            int keep = offset + limit;
+            // Not pre-sized: keep is caller-controlled and usually far above the number of matches
+            PriorityQueue<Hit> top = new PriorityQueue<>(WORST_FIRST);
+            int total = 0;
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int slot = driver.slots[i];
+                if (dead.get(slot)) {
+                    continue;
+                }
+                driver.cursor = i;
+                // Cheap membership probes first, text checks only for slots every term can match
+                for (int t = 1; t < matches.size(); t++) {
+                    if (!matches.get(t).advanceTo(slot)) {
+                        continue candidates;
+                    }
+                }
+                int score = 0;
+                for (TermMatch match : matches) {
+                    int termScore = match.score(texts[slot]);
+                    if (termScore == 0) {
+                        continue candidates;
+                    }
+                    score += termScore;
+                }
+                total++;
+                if (keep > 0 && (top.size() < keep || score > top.peek().score())) {
+                    // equal scores keep the earlier slot, which is already in the heap
+                    top.add(new Hit(slot, score));
+                    if (top.size() > keep) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(WORST_FIRST.reversed());
+            List<Long> page = new ArrayList<>(Math.max(0, ranked.size() - offset));
+            for (int i = offset; i < ranked.size(); i++) {
+                page.add(ids[ranked.get(i).slot()]);
+            }
+            return new Hits(total, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Hits(int total, List<Long> ids) {
+    }
+
+    private record Hit(int slot, int score) {
+    }
+
+    /**
+     * Slots matching one term, ascending, walked forward with a cursor. A
+     * materialised match carries its slots and word-prefix scores; a probe holds
+     * the term's trigram postings and, when there are few of them, the postings
+     * of the words it is a prefix of. Anything not scored from the postings is
+     * confirmed against the text.
+     */
+    private static final class TermMatch {
+        final String term;
+        final int[] slots;
+        final int[] scores;     // VERIFY: confirm and score against the text
+        final int size;
+        final IntList[] postings;
+        final int[] cursors;
+        final IntList[] words;      // null: too many words start with the term, score from the text
+        final boolean[] wholeWord;
+        final int[] wordCursors;
+        int cursor;
+        int probeScore;
+
+        TermMatch(String term, int[] slots, int[] scores, int size) {
+            this.term = term;
+            this.slots = slots;
+            this.scores = scores;
+            this.size = size;
+            this.postings = null;
+            this.cursors = null;
+            this.words = null;
+            this.wholeWord = null;
+            this.wordCursors = null;
+        }
+
+        TermMatch(String term, IntList[] postings, IntList[] words, boolean[] wholeWord) {
+            this.term = term;
+            this.slots = null;
+            this.scores = null;
+            this.size = 0;
+            this.postings = postings;
+            this.cursors = new int[postings.length];
+            this.words = words;
+            this.wholeWord = wholeWord;
+            this.wordCursors = words == null ? null : new int[words.length];
+        }
+
+        // Slots must be asked for in ascending order
+        boolean advanceTo(int slot) {
+            if (slots != null) {
+                cursor = seek(slots, size, cursor, slot);
+                return cursor < size && slots[cursor] == slot;
+            }
+            for (int p = 0; p < postings.length; p++) {
+                IntList list = postings[p];
+                cursors[p] = seek(list.values, list.size, cursors[p], slot);
+                if (cursors[p] == list.size || list.values[cursors[p]] != slot) {
+                    return false;
+                }
+            }
+            probeScore = words == null ? VERIFY : wordScore(slot);
+            return true;
+        }
+
+        // Best word-prefix score of the slot, VERIFY when the term only occurs mid-word
+        private int wordScore(int slot) {
+            int best = VERIFY;
+            for (int w = 0; w < words.length; w++) {
+                IntList list = words[w];
+                int at = seek(list.values, list.size, wordCursors[w], slot << KIND_BITS);
+                wordCursors[w] = at;
+                for (; at < list.size && list.values[at] >>> KIND_BITS == slot; at++) {
+                    int kind = list.values[at] & ((1 << KIND_BITS) - 1);
+                    best = Math.max(best, wholeWord[w] && kind == SKU_WHOLE ? EXACT_SKU : WORD_SCORES[kind]);
+                }
+            }
+            return best;
+        }
+
+        int score(String[] text) {
+            int score = scores != null ? scores[cursor] : probeScore;
+            return score != VERIFY ? score : substringScore(term, text);
+        }
+    }
+
+    // Upper bound on the slots a term can match, 0 when it cannot match at all
+    private long cost(String term) {
+        if (term.length() < GRAM) {
+            long postings = 0;
+            for (IntList list : tokens.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                postings += list.size;
+            }
+            return postings;
+        }
+        long rarest = Long.MAX_VALUE;
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            IntList list = grams.get(term.substring(i, i + GRAM));
+            rarest = Math.min(rarest, list == null ? 0 : list.size);
+        }
+        return rarest;
+    }
+
+    private TermMatch gramProbe(String term) {
+        IntList[] postings = new IntList[term.length() - GRAM + 1];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = grams.get(term.substring(i, i + GRAM));
+        }
+        Arrays.sort(postings, Comparator.comparingInt(list -> list.size));
+        NavigableMap<String, IntList> prefixed = tokens.subMap(term, true, term + Character.MAX_VALUE, false);
+        if (prefixed.size() > MAX_PROBED_WORDS) {
+            return new TermMatch(term, postings, null, null);
+        }
+        IntList[] words = new IntList[prefixed.size()];
+        boolean[] wholeWord = new boolean[words.length];
+        int w = 0;
+        for (Map.Entry<String, IntList> token : prefixed.entrySet()) {
+            wholeWord[w] = token.getKey().equals(term);
+            words[w++] = token.getValue();
+        }
+        return new TermMatch(term, postings, words, wholeWord);
+    }
+
+    // All trigrams of the term must be present, so intersect their posting lists
+    private TermMatch substringMatch(String term) {
+        List<IntList> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            IntList list = grams.get(term.substring(i, i + GRAM));
+            if (list == null) {
+                return null;
+            }
+            postings.add(list);
+        }
+        postings.sort(Comparator.comparingInt(list -> list.size));
+        int[] slots = postings.get(0).values;
+        int size = postings.get(0).size;
+        for (int p = 1; p < postings.size() && size > 0; p++) {
+            IntList other = postings.get(p);
+            int[] kept = new int[size];
+            int keptSize = 0;
+            int cursor = 0;
+            for (int i = 0; i < size; i++) {
+                cursor = seek(other.values, other.size, cursor, slots[i]);
+                if (cursor == other.size) {
+                    break;
+                }
+                if (other.values[cursor] == slots[i]) {
+                    kept[keptSize++] = slots[i];
+                }
+            }
+            slots = kept;
+            size = keptSize;
+        }
+        // Word-prefix hits are scored from the token postings; only mid-word candidates need the text
+        TermMatch words = prefixMatch(term);
+        int[] scores = new int[size];
+        int cursor = 0;
+        for (int i = 0; i < size; i++) {
+            cursor = seek(words.slots, words.size, cursor, slots[i]);
+            scores[i] = cursor < words.size && words.slots[cursor] == slots[i] ? words.scores[cursor] : VERIFY;
+        }
+        return new TermMatch(term, slots, scores, size);
+    }
+
+    // Every word starting with the term; the best field per slot decides the score
+    private TermMatch prefixMatch(String term) {
+        int[] best = new int[slotCount];
+        int found = 0;
+        for (Map.Entry<String, IntList> token : tokens.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            boolean whole = token.getKey().equals(term);
+            IntList postings = token.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                int entry = postings.values[i];
+                int slot = entry >>> KIND_BITS;
+                int kind = entry & ((1 << KIND_BITS) - 1);
+                int score = whole && kind == SKU_WHOLE ? EXACT_SKU : WORD_SCORES[kind];
+                if (best[slot] == 0) {
+                    found++;
+                }
+                if (score > best[slot]) {
+                    best[slot] = score;
+                }
+            }
+        }
+        int[] slots = new int[found];
+        int[] scores = new int[found];
+        int size = 0;
+        for (int slot = 0; slot < best.length && size < found; slot++) {
+            if (best[slot] != 0) {
+                slots[size] = slot;
+                scores[size++] = best[slot];
+            }
+        }
+        return new TermMatch(term, slots, scores, size);
+    }
+
+    // Exact SKU beats SKU prefix beats word prefix beats plain substring; 0 means no match
+    private static int substringScore(String term, String[] text) {
+        String sku = text[SKU];
+        if (sku.equals(term)) {
+            return EXACT_SKU;
+        }
+        if (sku.startsWith(term)) {
+            return WORD_SCORES[SKU_LEAD];
+        }
+        if (startsWord(text[NAME], term)) {
+            return WORD_SCORES[NAME_WORD];
+        }
+        if (startsWord(text[LOCATION], term)) {
+            return WORD_SCORES[LOCATION_WORD];
+        }
+        if (startsWord(sku, term)) {
+            return WORD_SCORES[SKU_WORD];
+        }
+        if (sku.contains(term)) {
+            return 40;
+        }
+        if (text[NAME].contains(term)) {
+            return 30;
+        }
+        if (text[LOCATION].contains(term)) {
+            return 20;
+        }
+        return 0;
+    }
+
+    private static boolean startsWord(String text, String term) {
+        for (int from = text.indexOf(term); from >= 0; from = text.indexOf(term, from + 1)) {
+            if (from == 0 || !Character.isLetterOrDigit(text.charAt(from - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // First index at or after from whose value is >= target (galloping, then binary search)
+    private static int seek(int[] values, int size, int from, int target) {
+        int bound = 1;
+        while (from + bound < size && values[from + bound] < target) {
+            bound <<= 1;
+        }
+        int lo = from + (bound >> 1);
+        int hi = Math.min(size, from + bound + 1);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void add(long id, String skuCode, String name, String location) {
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        int slot = slotCount++;
+        String[] text = {lower(skuCode), lower(name), lower(location)};
+        ids[slot] = id;
+        texts[slot] = text;
+        slotById.put(id, slot);
+
+        Set<String> docGrams = new HashSet<>();
+        Map<String, Integer> docTokens = new HashMap<>();    // token -> bit per field kind it appears in
+        for (int field = 0; field < text.length; field++) {
+            String value = text[field];
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                docGrams.add(value.substring(i, i + GRAM));
+            }
+            for (String token : value.split("[^\\p{L}\\p{N}]+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int kind = field == NAME ? NAME_WORD : field == LOCATION ? LOCATION_WORD
+                        : value.equals(token) ? SKU_WHOLE : value.startsWith(token) ? SKU_LEAD : SKU_WORD;
+                docTokens.merge(token, 1 << kind, (a, b) -> a | b);
+            }
+        }
+        for (String gram : docGrams) {
+            grams.computeIfAbsent(gram, g -> new IntList()).add(slot);
+        }
+        // Token postings hold slot << KIND_BITS | kind, so a prefix lookup can score without reading the text
+        docTokens.forEach((token, kinds) -> {
+            IntList postings = tokens.computeIfAbsent(token, t -> new IntList());
+            for (int kind = 0; kind < WORD_SCORES.length; kind++) {
+                if ((kinds & (1 << kind)) != 0) {
+                    postings.add(slot << KIND_BITS | kind);
+                }
+            }
+        });
+    }
+
+    private void kill(Integer slot) {
+        if (slot != null && !dead.get(slot)) {
+            dead.set(slot);
+            deadCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount < 1024 || deadCount * 4 < slotCount) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[][] oldTexts = texts;
+        BitSet oldDead = dead;
+        int oldCount = slotCount;
+        reset(Math.max(1024, Integer.highestOneBit(Math.max(1, oldCount - deadCount)) * 2));
+        for (int slot = 0; slot < oldCount; slot++) {
+            if (!oldDead.get(slot)) {
+                String[] text = oldTexts[slot];
+                add(oldIds[slot], text[SKU], text[NAME], text[LOCATION]);
+            }
+        }
+    }
+
+    private void reset(int capacity) {
+        ids = new long[capacity];
+        texts = new String[capacity][];
+        dead = new BitSet();
+        slotCount = 0;
+        deadCount = 0;
+        slotById = new HashMap<>();
+        grams = new HashMap<>();
+        tokens = new TreeMap<>();
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /** Growable int array; slots are appended in increasing order. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
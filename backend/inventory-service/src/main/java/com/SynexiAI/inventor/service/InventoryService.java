@@ -1,15 +1,39 @@
 package com.SynexiAI.inventor.service;
 
+import com.SynexiAI.inventor.cache.SkuAvailabilityMap;
+import com.SynexiAI.inventor.dto.InventoryBatchDeductResponse;
+import com.SynexiAI.inventor.dto.InventoryDeductRequest;
 import com.SynexiAI.inventor.dto.InventoryItemDto;
-import com.SynexiAI.inventor.dto.NotificationRequest;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.SynexiAI.inventor.dto.InventorySearchResult;
+import com.SynexiAI.inventor.dto.LowStockItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.exception.InventoryConflictException;
+import com.SynexiAI.inventor.exception.ItemNotFoundException;
 import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.model.InventoryTombstone;
 import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.InventoryTombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class InventoryService {
@@ -21,28 +45,184 @@ public class InventoryService {
     private InventoryMappingService mapper;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private LowStockNotifier lowStockNotifier;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private InventorySearchIndex searchIndex;
+
+    @Autowired
+    private InventoryTombstoneRepository tombstoneRepository;
 
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private InventoryWriteRetry writeRetry;
+
+    @Autowired
+    private SkuExistenceFilter skuFilter;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    // Only present when inventory.movements.enabled=true; rows then hold the last compacted snapshot
+    @Autowired(required = false)
+    private StockMovementLedger movements;
+
+    @Value("${inventory.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${inventory.search.max-offset:10000}")
+    private int maxSearchOffset;
+
+
+    @Transactional(readOnly = true)
     public List<InventoryItemDto> getAllItems() {
-        return repository.findAll().stream()
+        return withPendingMovements(repository.findAll().stream()
                 .map(mapper::toDto)
-                .toList();
+                .toList());
     }
 
+    /**
+     * One page of the catalogue ordered by {@code id} or {@code skuCode}. Pass the
+     * returned {@code nextCursor} back to continue after the last item.
+     */
+    @Cacheable(value = InventoryCacheSynchronizer.PAGE_CACHE, key = "#sort + '|' + #size + '|' + #cursor")
+    // Not readOnly, so it reads the primary: a replica result would be cached past max-staleness
+    @Transactional
+    public InventoryPage getPage(String cursor, int size, String sort) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        Limit limit = Limit.of(pageSize + 1);   // one extra row tells us whether there is another page
+
+        List<InventoryItem> rows;
+        if (InventoryCursor.SORT_SKU.equals(sort)) {
+            String after = cursor != null ? InventoryCursor.decode(cursor, sort) : "";
+            rows = repository.findBySkuCodeGreaterThanOrderBySkuCodeAsc(after, limit);
+        } else if (InventoryCursor.SORT_ID.equals(sort)) {
+            long after = cursor != null ? parseId(InventoryCursor.decode(cursor, sort)) : 0L;
+            rows = repository.findByIdGreaterThanOrderByIdAsc(after, limit);
+        } else {
+            throw new IllegalArgumentException("Unsupported sort '" + sort + "', use id or skuCode");
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<InventoryItem> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            InventoryItem last = page.get(page.size() - 1);
+            String lastValue = InventoryCursor.SORT_SKU.equals(sort) ? last.getSkuCode() : String.valueOf(last.getId());
+            nextCursor = InventoryCursor.encode(sort, lastValue);
+        }
+        return new InventoryPage(withPendingMovements(page.stream().map(mapper::toDto).collect(Collectors.toList())),
+                nextCursor, hasMore);
+    }
+
+    public List<LowStockItemDto> getLowStock(int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        if (lowStockIndex.isReady()) {
+            return lowStockIndex.top(size);
+        }
+        if (movements != null) {
+            return movements.lowStock(size);
+        }
+        return repository.findLowStock(Limit.of(size)).stream()
+                .map(item -> new LowStockItemDto(item.getId(), item.getSkuCode(), item.getName(),
+                        item.getQuantityAvailable(), item.getReorderLevel(),
+                        item.getReorderLevel() - item.getQuantityAvailable()))
+                .collect(Collectors.toList());
+    }
+
+    public InventorySearchResult search(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        int from = Math.max(0, offset);
+        if (from > maxSearchOffset) {
+            // Every page up to the offset is ranked to find this one; deep pages should narrow the query
+            throw new IllegalArgumentException("Search offset must be at most " + maxSearchOffset);
+        }
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        if (!searchIndex.isReady()) {
+            String pattern = "%" + escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+            List<InventoryItemDto> found = repository.searchByText(pattern, Limit.of(from + size)).stream()
+                    .skip(from).map(mapper::toDto).collect(Collectors.toList());
+            int total = (int) repository.countByText(pattern);
+            return new InventorySearchResult(query, total, from, withPendingMovements(found));
+        }
+
+        InventorySearchIndex.Hits hits = searchIndex.search(query, from, size);
+        // The index only ranks ids; load the page itself by primary key and keep the ranking
+        Map<Long, InventoryItem> byId = new HashMap<>();
+        repository.findAllById(hits.ids()).forEach(item -> byId.put(item.getId(), item));
+        List<InventoryItemDto> items = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+        return new InventorySearchResult(query, hits.total(), from, withPendingMovements(items));
+    }
+
+    // The query is matched literally, so LIKE wildcards in it must not act as wildcards
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private List<InventoryItemDto> withPendingMovements(List<InventoryItemDto> items) {
+        if (movements != null) {
+            movements.applyPending(items);
+        }
+        return items;
+    }
+
+    private InventoryItemDto withPendingMovements(InventoryItemDto item) {
+        return movements != null ? movements.applyPending(item) : item;
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    @Cacheable(value = InventoryCacheSynchronizer.ITEM_CACHE, key = "#id")
+    @Transactional     // cached, so primary only (see getPage)
     public InventoryItemDto getItem(Long id) {
         return repository.findById(id)
                 .map(mapper::toDto)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+                .map(this::withPendingMovements)
+                .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
     }
 
     public InventoryItemDto createItem(InventoryItemDto dto) {
         InventoryItem saved = repository.save(mapper.toEntity(dto));
-        return mapper.toDto(saved);
+        InventoryItemDto created = mapper.toDto(saved);
+        eventPublisher.publishEvent(InventoryChangedEvent.created(created));
+        return created;
     }
 
+    @Transactional
     public void deleteItem(Long id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(item -> {
+            repository.delete(item);
+            InventoryTombstone tombstone = new InventoryTombstone();
+            tombstone.setItemId(item.getId());
+            tombstone.setSkuCode(item.getSkuCode());
+            tombstone.setChangeSeq(changeSequence.next());
+            tombstone.setDeletedAt(Instant.now());
+            tombstoneRepository.save(tombstone);
+            eventPublisher.publishEvent(InventoryChangedEvent.deleted(item.getId(), item.getSkuCode()));
+        });
     }
 
     public InventoryItem getItemById(Long id) {
@@ -54,71 +234,160 @@ public class InventoryService {
         return repository.save(item);
     }
 
-    public InventoryItemDto updateItem(Long id, 
-                                       InventoryItemDto dto) {
+    /**
+     * Applies an edit to an existing item. With {@code dto.version} set this is a
+     * conditional write: if the row changed since that version (a deduction, a
+     * reservation, another edit) it is rejected with {@link InventoryConflictException}
+     * instead of overwriting the change. Without a version the edit applies to the
+     * current row, re-reading and retrying with backoff if a concurrent write wins;
+     * that is for internal callers only, the REST endpoint insists on a version.
+     */
+    public InventoryItemDto updateItem(Long id, InventoryItemDto dto) {
+        Updated result;
+        if (dto.getVersion() != null) {
+            try {
+                result = transactionTemplate.execute(status -> applyUpdate(id, dto));
+            } catch (OptimisticLockingFailureException e) {
+                writeRetry.recordClientConflict(dto.getSkuCode());
+                throw new InventoryConflictException("Item " + id + " was changed since version " + dto.getVersion()
+                        + ", reload it and try again", e);
+            }
+        } else {
+            result = writeRetry.execute(dto.getSkuCode(),
+                    () -> transactionTemplate.execute(status -> applyUpdate(id, dto)));
+        }
+        eventPublisher.publishEvent(InventoryChangedEvent.updated(result.item(), result.previousSkuCode()));
+        return result.item();
+    }
+
+    private Updated applyUpdate(Long id, InventoryItemDto dto) {
         InventoryItem existingItem = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+                .orElseThrow(() -> new ItemNotFoundException("Item not found with ID: " + id));
+        if (dto.getVersion() != null && !dto.getVersion().equals(existingItem.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(InventoryItem.class, id);
+        }
+        String previousSkuCode = existingItem.getSkuCode();
 
+        if (movements != null) {
+            // Stored quantities are only a snapshot; the edit becomes an adjustment movement instead
+            movements.adjustTo(previousSkuCode, dto.getQuantityAvailable(),
+                    dto.getQuantityReserved() == null ? 0 : dto.getQuantityReserved());
+        } else {
+            existingItem.setQuantityAvailable(dto.getQuantityAvailable());
+            existingItem.setQuantityReserved(dto.getQuantityReserved());
+        }
         existingItem.setName(dto.getName());
         existingItem.setSkuCode(dto.getSkuCode());
-        existingItem.setQuantityAvailable(dto.getQuantityAvailable());
-        existingItem.setQuantityReserved(dto.getQuantityReserved());
         existingItem.setReorderLevel(dto.getReorderLevel());
         existingItem.setLocation(dto.getLocation());
         existingItem.setExpiryDate(dto.getExpiryDate());
 
+        // Flush here so the version check runs now and the returned row carries the new version
         InventoryItem updatedItem = repository.save(existingItem);
-        return mapper.toDto(updatedItem);
+        repository.flush();
+        return new Updated(withPendingMovements(mapper.toDto(updatedItem)), previousSkuCode);
     }
 
+    private record Updated(InventoryItemDto item, String previousSkuCode) {
+    }
+
+    @Cacheable(value = InventoryCacheSynchronizer.SKU_CACHE, key = "#skuCode")
+    @Transactional     // cached, so primary only (see getPage)
     public InventoryItemDto getItemBySkuCode(String skuCode) {
+        if (!skuFilter.mightExist(skuCode)) {
+            throw new ItemNotFoundException("Item not found with SKU code: " + skuCode);
+        }
         InventoryItem item = repository.findBySkuCode(skuCode)
-                .orElseThrow(() -> new RuntimeException("Item not found with SKU code: " + skuCode));
-        return mapper.toDto(item);
+                .orElseThrow(() -> new ItemNotFoundException("Item not found with SKU code: " + skuCode));
+        return withPendingMovements(mapper.toDto(item));
     }
 
+    /** Available quantity of one SKU; served from the availability index, without a query, once it is loaded. */
+    public int getAvailable(String skuCode) {
+        if (!availabilityIndex.isReady()) {
+            return getItemBySkuCode(skuCode).getQuantityAvailable();
+        }
+        int available = availabilityIndex.available(skuCode);
+        if (available == SkuAvailabilityMap.MISSING) {
+            throw new ItemNotFoundException("Item not found with SKU code: " + skuCode);
+        }
+        return available;
+    }
+
+    @Transactional
     public boolean deductStock(String skuCode, int quantity) {
-        Optional<InventoryItem> optionalItem = repository.findBySkuCode(skuCode);
-
-        if (optionalItem.isPresent()) {
-            InventoryItem item = optionalItem.get();
-
-            // 🛡️ Null-safe default values
-            int available = item.getQuantityAvailable() != null ? item.getQuantityAvailable() : 0;
-            int reorder = item.getReorderLevel() != null ? item.getReorderLevel() : 0;
-
-            if (available >= quantity) {
-                int updatedQty = available - quantity;
-                item.setQuantityAvailable(updatedQty);
-                repository.save(item);
-
-                // 🚨 Trigger notification if now below reorder level
-                if (updatedQty < reorder) {
-                    NotificationRequest alert = new NotificationRequest(
-                            "LOW_STOCK",
-                            "⚠️ Inventory low for SKU: " + item.getSkuCode()
-                                    + " | Available: " + updatedQty
-                                    + " | Reorder Level: " + reorder,
-                            "slack-inventory-alerts"
-                    );
-
-                    try {
-                        restTemplate.postForEntity("http://localhost:8084/api/notify/email", alert, Void.class);
-                        System.out.println("🔔 Notification triggered for low stock!");
-                    } catch (Exception e) {
-                        System.err.println("❌ Failed to send notification: " + e.getMessage());
-                    }
-                }
-
-                return true;
-            } else {
+        if (quantity <= 0) {
+            System.err.println("❌ Invalid deduction quantity for SKU: " + skuCode + " | Requested: " + quantity);
+            return false;
+        }
+        if (!skuFilter.mightExist(skuCode)) {
+            System.err.println("❌ SKU not found: " + skuCode);
+            return false;
+        }
+
+        // 🔒 Guarded UPDATE: the check and the subtraction happen atomically in the database
+        int updatedRows = repository.deductIfAvailable(skuCode, quantity, changeSequence.next());
+
+        if (updatedRows == 0) {
+            Optional<InventoryItem> optionalItem = repository.findBySkuCode(skuCode);
+            if (optionalItem.isPresent()) {
+                Integer available = optionalItem.get().getQuantityAvailable();
                 System.err.println("❌ Not enough stock for SKU: " + skuCode + " | Requested: " + quantity + " | Available: " + available);
+            } else {
+                System.err.println("❌ SKU not found: " + skuCode);
             }
-        } else {
-            System.err.println("❌ SKU not found: " + skuCode);
+            return false;
+        }
+
+        repository.findBySkuCode(skuCode).ifPresent(item -> {
+            eventPublisher.publishEvent(InventoryChangedEvent.stockChanged(mapper.toDto(item)));
+            lowStockNotifier.notifyIfLow(item.getSkuCode(), item.getQuantityAvailable(), item.getReorderLevel());
+        });
+        return true;
+    }
+
+    /**
+     * Deducts every line or none of them. The affected rows are locked in SKU order,
+     * updated in one transaction (flushed as a single JDBC batch) and the low-stock
+     * check runs once per SKU after commit.
+     */
+    public InventoryBatchDeductResponse deductStockBatch(List<InventoryDeductRequest> lines) {
+        InventoryBatchDeductResponse invalid = BatchDeductLines.validate(lines);
+        if (invalid != null) {
+            return invalid;
         }
 
-        return false;
+        List<InventoryItem> updatedItems = new ArrayList<>();
+        InventoryBatchDeductResponse result = transactionTemplate.execute(status -> {
+            List<InventoryItem> locked = repository.findAllBySkuCodeForUpdate(BatchDeductLines.totalsBySku(lines).keySet());
+
+            Map<String, Integer> remaining = new HashMap<>();
+            for (InventoryItem item : locked) {
+                remaining.put(item.getSkuCode(), item.getQuantityAvailable());
+            }
+
+            InventoryBatchDeductResponse failure = BatchDeductLines.apply(lines, remaining);
+            if (failure != null) {
+                return failure;
+            }
+
+            for (InventoryItem item : locked) {
+                item.setQuantityAvailable(remaining.get(item.getSkuCode()));
+                updatedItems.add(item);
+            }
+            return InventoryBatchDeductResponse.ok();
+        });
+
+        if (result == null || !result.isSuccess()) {
+            System.err.println("❌ Batch deduction rejected: " + result);
+            return result;
+        }
+
+        for (InventoryItem item : updatedItems) {
+            eventPublisher.publishEvent(InventoryChangedEvent.stockChanged(mapper.toDto(item)));
+            lowStockNotifier.notifyIfLow(item.getSkuCode(), item.getQuantityAvailable(), item.getReorderLevel());
+        }
+        return result;
     }
 
 }
@@ -0,0 +1,140 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryChanges;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.model.InventoryTombstone;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.InventoryTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync for clients that mirror the catalogue. Every write stamps the row
+ * with the next value of the change sequence and every delete leaves a
+ * tombstone, so "what changed since N" is an index range scan on change_seq
+ * and costs the same however large the catalogue is.
+ *
+ * <p>A client starts with {@code since=0}, applies the upserts and deletes,
+ * and keeps calling with the returned {@code nextSince}.
+ *
+ * <p>Every instance writes with numbers from the same database sequence, and
+ * a transaction on another instance can commit a row numbered below one that
+ * is already visible. {@link ChangeSequence#stableUpTo()} cannot see those, so
+ * the feed also stops at the highest committed number it saw at least
+ * {@code inventory.sync.commit-lag} ago: everything numbered up to that was
+ * taken before then, and has settled as long as no write transaction runs
+ * longer than the lag. Changes therefore reach the feed after the lag.
+ */
+@Slf4j
+@Service
+public class InventorySyncService {
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private InventoryMappingService mapper;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Only present when inventory.movements.enabled=true; rows then hold the last compacted snapshot
+    @Autowired(required = false)
+    private StockMovementLedger movements;
+
+    @Value("${inventory.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${inventory.sync.backfill-chunk-size:500}")
+    private int backfillChunkSize;
+
+    private ChangeWatermark committed;
+
+    @Value("${inventory.sync.commit-lag:30s}")
+    void setCommitLag(Duration commitLag) {
+        this.committed = new ChangeWatermark(commitLag);
+    }
+
+    // Not readOnly, so it reads the primary: stableUpTo() knows nothing of what the replica has applied,
+    // and a replica missing a smaller change_seq would let the client's nextSince move past it for good
+    @Transactional
+    public InventoryChanges getChanges(long since, int size) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Stop short of any change still in flight, or a slower commit with a smaller number would be skipped
+        committed.seen(Math.max(maxChangeSeq(repository.findMaxChangeSeq()),
+                maxChangeSeq(tombstoneRepository.findMaxChangeSeq())));
+        long upTo = Math.min(changeSequence.stableUpTo(), committed.since());
+        List<InventoryItem> items = repository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(
+                since, upTo, Limit.of(pageSize + 1));
+        List<InventoryTombstone> tombstones = tombstoneRepository
+                .findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(since, upTo, Limit.of(pageSize + 1));
+
+        List<InventoryItemDto> upserts = new ArrayList<>();
+        List<InventoryChanges.Deleted> deletes = new ArrayList<>();
+        long nextSince = since;
+        int i = 0;
+        int t = 0;
+        while (upserts.size() + deletes.size() < pageSize && (i < items.size() || t < tombstones.size())) {
+            if (t == tombstones.size() || (i < items.size()
+                    && items.get(i).getChangeSeq() < tombstones.get(t).getChangeSeq())) {
+                InventoryItem item = items.get(i++);
+                upserts.add(mapper.toDto(item));
+                nextSince = item.getChangeSeq();
+            } else {
+                InventoryTombstone tombstone = tombstones.get(t++);
+                deletes.add(new InventoryChanges.Deleted(tombstone.getItemId(), tombstone.getSkuCode(),
+                        tombstone.getChangeSeq()));
+                nextSince = tombstone.getChangeSeq();
+            }
+        }
+        if (movements != null) {
+            movements.applyPending(upserts);
+        }
+        boolean hasMore = i < items.size() || t < tombstones.size();
+        return new InventoryChanges(upserts, deletes, nextSince, hasMore);
+    }
+
+    private static long maxChangeSeq(Long max) {
+        return max == null ? 0 : max;
+    }
+
+    /** Rows written before the change sequence existed get a number once, so a sync from 0 sees them. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void stampUnversionedRows() {
+        int stamped = 0;
+        int chunk;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                List<InventoryItem> rows = repository.findByChangeSeqIsNull(Limit.of(backfillChunkSize));
+                rows.forEach(row -> row.setChangeSeq(changeSequence.next()));
+                return rows.size();
+            });
+            chunk = count == null ? 0 : count;
+            stamped += chunk;
+        } while (chunk >= backfillChunkSize);
+        if (stamped > 0) {
+            log.info("Stamped {} inventory rows with a change sequence", stamped);
+        }
+    }
+}
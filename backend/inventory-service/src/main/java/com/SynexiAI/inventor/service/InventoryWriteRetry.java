@@ -0,0 +1,111 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.exception.InventoryConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries internal inventory writes that lose an optimistic-lock race and
+ * counts conflicts per SKU.
+ *
+ * <p>A write is attempted up to {@code inventory.write.max-attempts} times. Between
+ * attempts it sleeps a random time between zero and an exponentially growing cap
+ * ("full jitter"), so writers that collided once do not collide again in lockstep.
+ * The write itself must re-read the row on every attempt.
+ *
+ * <p>Metrics: {@code inventory.write.conflicts{sku, source=client|internal}},
+ * {@code inventory.write.retries{sku}} and {@code inventory.write.retries.exhausted{sku}}.
+ * Only the first {@code inventory.write.metrics.max-skus} SKUs get their own tag,
+ * the rest are reported as {@code sku=other}.
+ */
+@Slf4j
+@Component
+public class InventoryWriteRetry {
+
+    static final String OTHER_SKUS = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxTaggedSkus;
+    private final Set<String> taggedSkus = ConcurrentHashMap.newKeySet();
+
+    public InventoryWriteRetry(ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${inventory.write.max-attempts:5}") int maxAttempts,
+                               @Value("${inventory.write.backoff:20ms}") Duration backoff,
+                               @Value("${inventory.write.max-backoff:500ms}") Duration maxBackoff,
+                               @Value("${inventory.write.metrics.max-skus:1000}") int maxTaggedSkus) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMillis = Math.max(1, backoff.toMillis());
+        this.maxBackoffMillis = Math.max(baseBackoffMillis, maxBackoff.toMillis());
+        this.maxTaggedSkus = maxTaggedSkus;
+    }
+
+    public <T> T execute(String skuCode, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                counter("inventory.write.conflicts", skuCode, "source", "internal").increment();
+                if (attempt >= maxAttempts) {
+                    counter("inventory.write.retries.exhausted", skuCode).increment();
+                    log.warn("Giving up on write to SKU {} after {} conflicting attempts", skuCode, attempt);
+                    throw new InventoryConflictException("Item " + skuCode + " is being changed concurrently, try again", e);
+                }
+                counter("inventory.write.retries", skuCode).increment();
+                sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    /** Counts a conditional write from a client that arrived with a stale version. */
+    public void recordClientConflict(String skuCode) {
+        counter("inventory.write.conflicts", skuCode, "source", "client").increment();
+    }
+
+    long backoffMillis(int attempt) {
+        long cap = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private Counter counter(String name, String skuCode, String... tags) {
+        return Counter.builder(name)
+                .tag("sku", skuTag(skuCode))
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    // Per-SKU tags are what makes the metric useful, but each one is a time series; cap them
+    private String skuTag(String skuCode) {
+        if (skuCode == null) {
+            return OTHER_SKUS;
+        }
+        if (taggedSkus.contains(skuCode) || (taggedSkus.size() < maxTaggedSkus && taggedSkus.add(skuCode))) {
+            return skuCode;
+        }
+        return OTHER_SKUS;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InventoryConflictException("Interrupted while waiting to retry", e);
+        }
+    }
+}
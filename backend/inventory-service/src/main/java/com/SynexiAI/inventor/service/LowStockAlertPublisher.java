@@ -0,0 +1,113 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.NotificationRequest;
+import com.SynexiAI.inventor.model.AlertStatus;
+import com.SynexiAI.inventor.model.LowStockAlert;
+import com.SynexiAI.inventor.repository.LowStockAlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delivers queued low-stock alerts to the notification service. Failed sends
+ * are retried with exponential backoff until {@code inventory.alerts.max-attempts},
+ * after which the alert is parked as FAILED.
+ *
+ * <p>No transaction is open while sending. A batch is claimed in one short
+ * transaction, which pushes its next attempt {@code claim-timeout} out so no
+ * other instance picks it up, and the results are written in another. An
+ * instance that dies mid-batch leaves its alerts to be sent again once the
+ * claim runs out, so delivery is at least once.
+ */
+@Slf4j
+@Component
+public class LowStockAlertPublisher {
+
+    @Autowired
+    private LowStockAlertRepository alertRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.alerts.notify-url:http://localhost:8084/api/notify/email}")
+    private String notifyUrl;
+
+    @Value("${inventory.alerts.recipient:slack-inventory-alerts}")
+    private String recipient;
+
+    @Value("${inventory.alerts.publish-batch-size:100}")
+    private int batchSize;
+
+    @Value("${inventory.alerts.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${inventory.alerts.retry-backoff:5s}")
+    private Duration retryBackoff;
+
+    @Value("${inventory.alerts.claim-timeout:15m}")
+    private Duration claimTimeout;
+
+    @Scheduled(fixedDelayString = "${inventory.alerts.publish-interval-ms:1000}")
+    public void publishPending() {
+        int handled;
+        do {
+            List<LowStockAlert> batch = claim();
+            batch.forEach(this::send);
+            if (!batch.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> alertRepository.saveAll(batch));
+            }
+            handled = batch.size();
+        } while (handled >= batchSize);
+    }
+
+    private List<LowStockAlert> claim() {
+        List<LowStockAlert> due = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<LowStockAlert> rows = alertRepository.findDueForUpdate(AlertStatus.PENDING, now, Limit.of(batchSize));
+            rows.forEach(alert -> alert.setNextAttemptAt(now.plus(claimTimeout)));
+            return rows;
+        });
+        return due == null ? List.of() : due;
+    }
+
+    private void send(LowStockAlert alert) {
+        NotificationRequest request = new NotificationRequest(
+                "LOW_STOCK",
+                "⚠️ Inventory low for SKU: " + alert.getSkuCode()
+                        + " | Available: " + alert.getQuantityAvailable()
+                        + " | Reorder Level: " + alert.getReorderLevel(),
+                recipient
+        );
+        alert.setAttempts(alert.getAttempts() + 1);
+        try {
+            restTemplate.postForEntity(notifyUrl, request, Void.class);
+            alert.setStatus(AlertStatus.SENT);
+            alert.setSentAt(Instant.now());
+            alert.setLastError(null);
+        } catch (Exception e) {
+            alert.setLastError(e.getMessage());
+            if (alert.getAttempts() >= maxAttempts) {
+                alert.setStatus(AlertStatus.FAILED);
+                log.warn("Giving up on low-stock alert {} for SKU {} after {} attempts: {}",
+                        alert.getId(), alert.getSkuCode(), alert.getAttempts(), e.getMessage());
+            } else {
+                // 5s, 10s, 20s, ... capped at one hour
+                long factor = 1L << Math.min(alert.getAttempts() - 1, 20);
+                Duration delay = retryBackoff.multipliedBy(factor);
+                alert.setNextAttemptAt(Instant.now().plus(delay.compareTo(Duration.ofHours(1)) > 0 ? Duration.ofHours(1) : delay));
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.LowStockItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Items at or below their reorder level (the same rule the dashboard uses),
+ * ordered by shortfall, largest first. Loaded once at startup and then kept
+ * current from {@link InventoryChangedEvent}s, so reading the top k costs O(k)
+ * and a change costs O(log n) in the number of low items.
+ */
+@Slf4j
+@Component
+public class LowStockIndex {
+
+    private static final String LOAD_SQL = "select id, sku_code, name, quantity_available, reorder_level " +
+            "from inventory_items where quantity_available <= reorder_level";
+
+    private static final Comparator<Entry> BY_SHORTFALL = Comparator
+            .comparingInt((Entry e) -> e.shortfall()).reversed()
+            .thenComparing(Entry::skuCode);
+
+    private final JdbcTemplate jdbcTemplate;
+    // Only present when inventory.movements.enabled=true; rows then hold the last compacted snapshot
+    private final ObjectProvider<StockMovementLedger> movements;
+    // bySku decides membership; ordered is the same entries sorted for reading
+    private final Map<String, Entry> bySku = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> ordered = new ConcurrentSkipListSet<>(BY_SHORTFALL);
+    private volatile boolean ready;
+
+    public LowStockIndex(JdbcTemplate jdbcTemplate, ObjectProvider<StockMovementLedger> movements) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movements = movements;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        bySku.clear();
+        ordered.clear();
+        StockMovementLedger ledger = movements.getIfAvailable();
+        if (ledger != null) {
+            ledger.lowStock(Integer.MAX_VALUE).forEach(item -> add(new Entry(item.getId(), item.getSkuCode(),
+                    item.getName(), item.getQuantityAvailable(), item.getReorderLevel())));
+        } else {
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                add(new Entry(rs.getLong("id"), rs.getString("sku_code"), rs.getString("name"),
+                        rs.getInt("quantity_available"), rs.getInt("reorder_level")));
+            });
+        }
+        ready = true;
+        log.info("Low-stock index loaded with {} items", bySku.size());
+    }
+
+    /** The {@code limit} items furthest below their reorder level. */
+    public List<LowStockItemDto> top(int limit) {
+        List<LowStockItemDto> result = new ArrayList<>(Math.min(limit, bySku.size()));
+        Iterator<Entry> it = ordered.iterator();
+        while (it.hasNext() && result.size() < limit) {
+            result.add(it.next().toDto());
+        }
+        return result;
+    }
+
+    public int size() {
+        return bySku.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.getPreviousSkuCode() != null) {
+            remove(event.getPreviousSkuCode());
+        }
+        if (event.getType() == InventoryChangedEvent.Type.DELETED || event.getQuantityAvailable() == null) {
+            remove(event.getSkuCode());
+            return;
+        }
+        int available = event.getQuantityAvailable();
+        int reorder = event.getReorderLevel() != null ? event.getReorderLevel() : 0;
+        String name = event.getItem() != null ? event.getItem().getName() : null;
+
+        bySku.compute(event.getSkuCode(), (sku, current) -> {
+            if (current != null) {
+                ordered.remove(current);
+            }
+            if (available > reorder) {
+                return null;
+            }
+            // Ledger events carry counters only, so keep the name we already had
+            Entry entry = new Entry(event.getId(), sku,
+                    name != null ? name : current != null ? current.name() : null, available, reorder);
+            ordered.add(entry);
+            return entry;
+        });
+    }
+
+    // An event that raced with the load is newer than this row
+    private void add(Entry entry) {
+        bySku.computeIfAbsent(entry.skuCode(), sku -> {
+            ordered.add(entry);
+            return entry;
+        });
+    }
+
+    private void remove(String skuCode) {
+        bySku.computeIfPresent(skuCode, (sku, current) -> {
+            ordered.remove(current);
+            return null;
+        });
+    }
+
+    private record Entry(Long id, String skuCode, String name, int available, int reorderLevel) {
+
+        int shortfall() {
+            return reorderLevel - available;
+        }
+
+        LowStockItemDto toDto() {
+            return new LowStockItemDto(id, skuCode, name, available, reorderLevel, shortfall());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.model.AlertStatus;
+import com.SynexiAI.inventor.model.LowStockAlert;
+import com.SynexiAI.inventor.repository.LowStockAlertRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queues a low-stock alert in the {@code low_stock_alerts} outbox; delivery is
+ * left to {@link LowStockAlertPublisher}, so deductions never wait on the
+ * notification service. At most one alert per SKU is queued per dedupe window.
+ *
+ * <p>Called from inside a deduction's transaction, the alert is only queued
+ * once that transaction has committed, and in a transaction of its own: a
+ * deduction that rolls back queues nothing, and an outbox failure cannot
+ * roll the deduction back.
+ */
+@Component
+public class LowStockNotifier {
+
+    private final LowStockAlertRepository alertRepository;
+    private final TransactionTemplate outboxTransaction;
+    private final Duration dedupeWindow;
+    // When this node last found an alert queued per SKU (committed, by it or another); spares the database check on hot items
+    private final Map<String, Instant> lastQueued = new ConcurrentHashMap<>();
+    // SKUs whose alert is being written right now, so concurrent deductions do not queue two
+    private final Set<String> queuing = ConcurrentHashMap.newKeySet();
+
+    public LowStockNotifier(LowStockAlertRepository alertRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inventory.alerts.dedupe-window:15m}") Duration dedupeWindow) {
+        this.alertRepository = alertRepository;
+        this.outboxTransaction = new TransactionTemplate(transactionManager);
+        this.outboxTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dedupeWindow = dedupeWindow;
+    }
+
+    public void notifyIfLow(String skuCode, Integer quantityAvailable, Integer reorderLevel) {
+        // 🛡️ Null-safe default values
+        int available = quantityAvailable != null ? quantityAvailable : 0;
+        int reorder = reorderLevel != null ? reorderLevel : 0;
+
+        // 🚨 Queue an alert if now below reorder level
+        if (available >= reorder) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue(skuCode, available, reorder);
+                }
+            });
+        } else {
+            queue(skuCode, available, reorder);
+        }
+    }
+
+    private void queue(String skuCode, int available, int reorder) {
+        Instant now = Instant.now();
+        Instant windowStart = now.minus(dedupeWindow);
+        Instant last = lastQueued.get(skuCode);
+        if (last != null && last.isAfter(windowStart) || !queuing.add(skuCode)) {
+            return;
+        }
+        try {
+            outboxTransaction.executeWithoutResult(status -> {
+                // Another instance may already have queued one for this SKU
+                if (alertRepository.existsBySkuCodeAndCreatedAtAfter(skuCode, windowStart)) {
+                    return;
+                }
+                LowStockAlert alert = new LowStockAlert();
+                alert.setSkuCode(skuCode);
+                alert.setQuantityAvailable(available);
+                alert.setReorderLevel(reorder);
+                alert.setStatus(AlertStatus.PENDING);
+                alert.setCreatedAt(now);
+                alert.setNextAttemptAt(now);
+                alertRepository.save(alert);
+            });
+            lastQueued.put(skuCode, now);
+        } catch (Exception e) {
+            // The deduction has already committed; losing an alert must not fail it
+            System.err.println("❌ Failed to queue low-stock alert for SKU " + skuCode + ": " + e.getMessage());
+        } finally {
+            queuing.remove(skuCode);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.SynexiAI.inventor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row in {@code instance_leases} that at most one instance holds at a time,
+ * for components whose correctness rests on running on a single instance.
+ * {@link #claim()} fails while another instance holds an unexpired lease, so
+ * a second instance refuses to start instead of quietly racing the first.
+ * The holder renews it well inside the TTL; one that misses renewals loses it
+ * and must stop, which {@link #check()} enforces before every guarded write.
+ */
+@Slf4j
+public class SingleInstanceLease {
+
+    private static final String TAKE_SQL = "update instance_leases set owner = ?, expires_at = ? " +
+            "where name = ? and (owner = ? or expires_at < ?)";
+    private static final String INSERT_SQL = "insert into instance_leases (name, owner, expires_at) values (?, ?, ?)";
+    private static final String HOLDER_SQL = "select owner, expires_at from instance_leases where name = ?";
+    private static final String RELEASE_SQL = "delete from instance_leases where name = ? and owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+    // Local deadline, set a little short of the stored one so this instance stops first
+    private volatile Instant heldUntil = Instant.MIN;
+
+    public SingleInstanceLease(JdbcTemplate jdbcTemplate, String name, Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.ttl = ttl;
+    }
+
+    /** Takes the lease, or throws if another instance holds it. */
+    public void claim() {
+        if (!renew()) {
+            throw new IllegalStateException(name + " must run on a single instance, and another instance "
+                    + holder() + " holds the lease");
+        }
+    }
+
+    /** Extends the lease, or takes it over if it expired. False when another instance holds it. */
+    public boolean renew() {
+        Instant now = Instant.now();
+        Timestamp expiresAt = Timestamp.from(now.plus(ttl));
+        boolean taken = jdbcTemplate.update(TAKE_SQL, owner, expiresAt, name, owner, Timestamp.from(now)) == 1;
+        if (!taken) {
+            try {
+                taken = jdbcTemplate.update(INSERT_SQL, name, owner, expiresAt) == 1;
+            } catch (DuplicateKeyException e) {
+                taken = false;
+            }
+        }
+        if (taken) {
+            heldUntil = now.plus(ttl.multipliedBy(4).dividedBy(5));
+        } else if (heldUntil != Instant.MIN) {
+            heldUntil = Instant.MIN;
+            log.error("Lost the {} lease to {}; writes are refused until it can be taken back", name, holder());
+        }
+        return taken;
+    }
+
+    public boolean isHeld() {
+        return Instant.now().isBefore(heldUntil);
+    }
+
+    public void check() {
+        if (!isHeld()) {
+            throw new IllegalStateException("This instance does not hold the " + name + " lease");
+        }
+    }
+
+    /** Gives the lease up at shutdown, so a replacement can start at once. */
+    public void release() {
+        heldUntil = Instant.MIN;
+        jdbcTemplate.update(RELEASE_SQL, name, owner);
+    }
+
+    private String holder() {
+        return jdbcTemplate.query(HOLDER_SQL, rs -> rs.next()
+                ? "(" + rs.getString(1) + ", until " + rs.getTimestamp(2).toInstant() + ")"
+                : "(unknown)", name);
+    }
+}
@@ -0,0 +1,196 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.cache.SkuBloomFilter;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers "can this SKU exist?" without a query, so lookups and deductions for
+ * unknown or retired SKUs (scanner typos, stale integrations) are turned away
+ * before they reach the database. Backed by a {@link SkuBloomFilter}: a SKU
+ * that exists is never rejected, one that does not gets through to the query
+ * with probability about {@code inventory.sku-filter.false-positive-rate}.
+ *
+ * <p>Loaded at startup. This instance's creates and renames are added from
+ * {@link InventoryChangedEvent}s and broadcast as {@code nodeId|S|sku} on the
+ * near-cache invalidation channel, so other instances accept a new SKU as
+ * soon as it commits. Broadcasts can be lost, so rows written by other
+ * instances are also picked up every {@code refresh-interval-ms} from the
+ * change sequence, reading the last {@code rescan-window} again so a slow
+ * commit from another instance is not skipped (see {@link ChangeWatermark}). Deletes
+ * cannot be taken out of a Bloom filter, so the whole filter is rebuilt every
+ * {@code rebuild-interval-ms}, sized for twice the current catalogue.
+ * Until the first load finishes every SKU is let through.
+ */
+@Slf4j
+@Component
+public class SkuExistenceFilter implements MessageListener {
+
+    private static final String LOAD_SQL = "select sku_code, change_seq from inventory_items";
+    private static final String CHANGED_SQL = "select sku_code, change_seq from inventory_items " +
+            "where change_seq > ? and change_seq <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeSequence changeSequence;
+    private final boolean enabled;
+    private final long minExpectedSkus;
+    private final double falsePositiveRate;
+    private final Counter rejected;
+
+    private volatile SkuBloomFilter current;
+    // Set while a rebuild scans the table, so SKUs created meanwhile land in the new filter too
+    private volatile SkuBloomFilter building;
+    private final ChangeWatermark watermark;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Absent without Redis; other instances then wait for their next refresh
+    private final StringRedisTemplate redis;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SkuExistenceFilter(JdbcTemplate jdbcTemplate,
+                              ChangeSequence changeSequence,
+                              @Value("${inventory.sku-filter.enabled:true}") boolean enabled,
+                              @Value("${inventory.sku-filter.expected-skus:100000}") long minExpectedSkus,
+                              @Value("${inventory.sku-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${inventory.sku-filter.rescan-window:30s}") Duration rescanWindow,
+                              @Value("${inventory.cache.near.channel:inventory:cache-invalidation}") String channel,
+                              ObjectProvider<StringRedisTemplate> redis,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeSequence = changeSequence;
+        this.enabled = enabled;
+        this.minExpectedSkus = minExpectedSkus;
+        this.falsePositiveRate = falsePositiveRate;
+        this.watermark = new ChangeWatermark(rescanWindow);
+        this.channel = channel;
+        this.redis = redis.getIfAvailable();
+        this.rejected = Counter.builder("inventory.sku.filter.rejected")
+                .description("SKU lookups and deductions rejected without a query")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /** False only when the SKU certainly does not exist. */
+    public boolean mightExist(String skuCode) {
+        SkuBloomFilter filter = current;
+        if (filter == null || skuCode == null || filter.mightContain(skuCode)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.sku-filter.rebuild-interval-ms:900000}",
+            initialDelayString = "${inventory.sku-filter.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            Long count = jdbcTemplate.queryForObject("select count(*) from inventory_items", Long.class);
+            SkuBloomFilter fresh = new SkuBloomFilter(Math.max(minExpectedSkus, 2 * (count == null ? 0 : count)),
+                    falsePositiveRate);
+            building = fresh;
+            // The scan can see rows above a block still in flight here; those are read again by refresh
+            long stable = changeSequence.stableUpTo();
+            long[] highest = {0};
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                fresh.put(rs.getString(1));
+                highest[0] = Math.max(highest[0], rs.getLong(2));
+            });
+            current = fresh;
+            building = null;
+            watermark.seen(Math.min(highest[0], stable));
+            log.info("SKU filter built for {} SKUs: {} bits, {} hashes", count, fresh.bitCount(), fresh.hashCount());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** Adds SKUs written by other instances since the last refresh. */
+    @Scheduled(fixedDelayString = "${inventory.sku-filter.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (current == null) {
+            return;
+        }
+        long since = watermark.since();
+        long upTo = changeSequence.stableUpTo();
+        long[] highest = {since};
+        jdbcTemplate.query(CHANGED_SQL, rs -> {
+            add(rs.getString(1));
+            highest[0] = Math.max(highest[0], rs.getLong(2));
+        }, since, upTo);
+        watermark.seen(highest[0]);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.getType() == InventoryChangedEvent.Type.CREATED || event.getType() == InventoryChangedEvent.Type.UPDATED) {
+            add(event.getSkuCode());
+            if (event.getType() == InventoryChangedEvent.Type.CREATED || event.getPreviousSkuCode() != null) {
+                broadcast(event.getSkuCode());
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Shares the channel with the near-cache invalidations, which use other message types
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length == 3 && "S".equals(parts[1]) && !nodeId.equals(parts[0])) {
+            add(parts[2]);
+        }
+    }
+
+    private void broadcast(String skuCode) {
+        if (redis == null || !enabled) {
+            return;
+        }
+        try {
+            redis.convertAndSend(channel, nodeId + "|S|" + skuCode);
+        } catch (RuntimeException e) {
+            // Other instances pick the SKU up at their next refresh
+            log.warn("Could not broadcast new SKU {}: {}", skuCode, e.getMessage());
+        }
+    }
+
+    // Reads building before current: a rebuild that finished in between has already swapped current
+    private void add(String skuCode) {
+        SkuBloomFilter next = building;
+        if (next != null) {
+            next.put(skuCode);
+        }
+        SkuBloomFilter filter = current;
+        if (filter != null) {
+            filter.put(skuCode);
+        }
+    }
+}
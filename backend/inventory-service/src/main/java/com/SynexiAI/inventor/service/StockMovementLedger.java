@@ -0,0 +1,496 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.InventoryBatchDeductResponse;
+import com.SynexiAI.inventor.dto.InventoryDeductRequest;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.LowStockItemDto;
+import com.SynexiAI.inventor.dto.StockMovementDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.exception.ItemNotFoundException;
+import com.SynexiAI.inventor.model.MovementType;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.StockMovementRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Records every stock change as a row in {@code stock_movements} instead of
+ * updating the item row, so deductions on a popular SKU append rather than queue
+ * on one row lock, and the table doubles as the item's stock history.
+ *
+ * <p>An item's balance is its {@code inventory_items} quantities (the last
+ * snapshot) plus the deltas of its movements that are not yet compacted. The
+ * scheduled {@link #compact()} folds those deltas into the row in batches and
+ * marks the movements compacted in the same transaction, so the sum never counts
+ * a movement twice or drops one. Readers of whole rows (export, low stock,
+ * the changes feed) add the pending deltas the same way.
+ *
+ * <p>Appending touches no item row at all. The row's {@code change_seq} is
+ * stamped when compaction folds the movements in, so the changes feed reports
+ * a movement within {@code compact-interval-ms}.
+ *
+ * <p>Checks that stock suffices run under a per-SKU lock stripe held until the
+ * movement commits, which only holds within one JVM. So, like
+ * {@link InMemoryStockLedger}, which it must not be combined with, it needs a
+ * single instance, and enforces that with a {@link SingleInstanceLease}: a
+ * second instance with movements enabled fails to start, and an instance
+ * that loses the lease refuses to move stock.
+ *
+ * <p>Enabled with {@code inventory.movements.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.movements.enabled", havingValue = "true")
+public class StockMovementLedger {
+
+    // Snapshot plus pending deltas in one statement, so a concurrent fold is seen entirely or not at all
+    private static final String BALANCE_SQL =
+            "select i.id, i.sku_code, i.reorder_level, " +
+            "i.quantity_available + coalesce(sum(m.available_delta), 0) as available, " +
+            "coalesce(i.quantity_reserved, 0) + coalesce(sum(m.reserved_delta), 0) as reserved " +
+            "from inventory_items i left join stock_movements m on m.item_id = i.id and m.compacted = false " +
+            "where %s group by i.id, i.sku_code, i.reorder_level, i.quantity_available, i.quantity_reserved";
+    private static final String BALANCE_BY_SKU_SQL = BALANCE_SQL.formatted("i.sku_code in (:skuCodes)");
+    private static final String BALANCE_BY_ID_SQL = BALANCE_SQL.formatted("i.id in (:itemIds)");
+    private static final String PENDING_SQL =
+            "select item_id, sum(available_delta), sum(reserved_delta) from stock_movements " +
+            "where compacted = false and item_id in (:itemIds) group by item_id";
+    private static final String PENDING_BY_ITEM_SQL =
+            "select item_id, sum(available_delta) as available_delta, sum(reserved_delta) as reserved_delta " +
+            "from stock_movements where compacted = false group by item_id";
+    private static final String BALANCE_AVAILABLE = "i.quantity_available + coalesce(p.available_delta, 0)";
+    private static final String LOW_STOCK_SQL =
+            "select i.id, i.sku_code, i.name, i.reorder_level, " + BALANCE_AVAILABLE + " as available " +
+            "from inventory_items i left join (" + PENDING_BY_ITEM_SQL + ") p on p.item_id = i.id " +
+            "where " + BALANCE_AVAILABLE + " <= i.reorder_level " +
+            "order by i.reorder_level - " + BALANCE_AVAILABLE + " desc, i.sku_code limit ?";
+    private static final String INSERT_SQL =
+            "insert into stock_movements (item_id, sku_code, type, available_delta, reserved_delta, compacted, created_at) " +
+            "values (?, ?, ?, ?, ?, false, ?)";
+    private static final String NEXT_BATCH_SQL =
+            "select id, item_id, available_delta, reserved_delta, sku_code from stock_movements " +
+            "where compacted = false order by id limit ?";
+    private static final String ITEM_MOVEMENTS_SQL =
+            "select m.id, m.item_id, m.available_delta, m.reserved_delta, m.sku_code from stock_movements m " +
+            "join inventory_items i on i.id = m.item_id where m.compacted = false and i.sku_code in (:skuCodes)";
+    private static final String MARK_SQL = "update stock_movements set compacted = true where id = ? and compacted = false";
+    private static final String FOLD_SQL =
+            "update inventory_items set quantity_available = quantity_available + ?, " +
+            "quantity_reserved = coalesce(quantity_reserved, 0) + ?, change_seq = ?, version = version + 1 " +
+            "where id = ?";
+    private static final int MAX_HISTORY = 500;
+    private static final String PURGE_SQL = "delete from stock_movements where compacted = true and created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository movementRepository;
+    private final ChangeSequence changeSequence;
+    private final LowStockNotifier lowStockNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int compactBatchSize;
+    private final Duration retention;
+    private final ReentrantLock[] stripes;
+    private final SingleInstanceLease lease;
+
+    public StockMovementLedger(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               InventoryRepository inventoryRepository,
+                               StockMovementRepository movementRepository,
+                               ChangeSequence changeSequence,
+                               LowStockNotifier lowStockNotifier,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${inventory.movements.stripes:64}") int stripeCount,
+                               @Value("${inventory.movements.compact-batch-size:1000}") int compactBatchSize,
+                               @Value("${inventory.movements.retention:30d}") Duration retention,
+                               @Value("${inventory.movements.lease-ttl:30s}") Duration leaseTtl,
+                               @Value("${inventory.ledger.enabled:false}") boolean inMemoryLedger) {
+        if (inMemoryLedger) {
+            throw new IllegalStateException("inventory.movements.enabled and inventory.ledger.enabled cannot both be set");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inventoryRepository = inventoryRepository;
+        this.movementRepository = movementRepository;
+        this.changeSequence = changeSequence;
+        this.lowStockNotifier = lowStockNotifier;
+        this.eventPublisher = eventPublisher;
+        this.compactBatchSize = compactBatchSize;
+        this.retention = retention;
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lease = new SingleInstanceLease(jdbcTemplate, "stock-movements", leaseTtl);
+        lease.claim();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.movements.lease-renew-interval-ms:5000}")
+    public boolean renewLease() {
+        return lease.renew();
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        lease.release();
+    }
+
+    public boolean deduct(String skuCode, int quantity) {
+        if (quantity <= 0) {
+            return false;
+        }
+        Balance after = transactionTemplate.execute(status -> {
+            lockUntilCompletion(stripeIndex(skuCode));
+            Balance balance = balance(skuCode);
+            if (balance == null) {
+                System.err.println("❌ SKU not found: " + skuCode);
+                return null;
+            }
+            if (balance.available() < quantity) {
+                System.err.println("❌ Not enough stock for SKU: " + skuCode + " | Requested: " + quantity + " | Available: " + balance.available());
+                return null;
+            }
+            return append(balance, MovementType.DEDUCTION, -quantity, 0);
+        });
+        if (after == null) {
+            return false;
+        }
+        lowStockNotifier.notifyIfLow(skuCode, after.available(), after.reorderLevel());
+        return true;
+    }
+
+    /**
+     * All-or-nothing deduction of several lines, appended as one batch. The
+     * stripes covering the batch are locked in ascending index order so
+     * overlapping batches cannot deadlock.
+     */
+    public InventoryBatchDeductResponse deductBatch(List<InventoryDeductRequest> lines) {
+        InventoryBatchDeductResponse invalid = BatchDeductLines.validate(lines);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        TreeMap<String, Integer> totals = BatchDeductLines.totalsBySku(lines);
+        List<Balance> changed = new ArrayList<>();
+        InventoryBatchDeductResponse result = transactionTemplate.execute(status -> {
+            new TreeSet<>(totals.keySet().stream().map(this::stripeIndex).toList()).forEach(this::lockUntilCompletion);
+
+            Map<String, Balance> balances = balances(totals.keySet());
+            Map<String, Integer> remaining = new HashMap<>();
+            balances.forEach((skuCode, balance) -> remaining.put(skuCode, balance.available()));
+            InventoryBatchDeductResponse failure = BatchDeductLines.apply(lines, remaining);
+            if (failure != null) {
+                return failure;
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            Timestamp now = Timestamp.from(Instant.now());
+            balances.forEach((skuCode, balance) -> {
+                int deducted = balance.available() - remaining.get(skuCode);
+                rows.add(new Object[]{balance.id(), skuCode, MovementType.DEDUCTION.name(), -deducted, 0, now});
+                changed.add(balance.plus(-deducted, 0));
+            });
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            changed.forEach(this::publish);
+            return InventoryBatchDeductResponse.ok();
+        });
+
+        if (result == null || !result.isSuccess()) {
+            System.err.println("❌ Batch deduction rejected: " + result);
+            return result;
+        }
+        for (Balance balance : changed) {
+            lowStockNotifier.notifyIfLow(balance.skuCode(), balance.available(), balance.reorderLevel());
+        }
+        return result;
+    }
+
+    /** Adds stock from a delivery. */
+    public void receive(String skuCode, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lockUntilCompletion(stripeIndex(skuCode));
+            append(require(skuCode), MovementType.RECEIPT, quantity, 0);
+        });
+    }
+
+    /** Moves stock from available to reserved if enough is available. */
+    public boolean reserve(String skuCode, int quantity) {
+        return move(skuCode, MovementType.RESERVATION, -quantity, quantity);
+    }
+
+    /** Returns reserved stock to available (release or expiry). */
+    public boolean release(String skuCode, int quantity) {
+        return move(skuCode, MovementType.RESERVATION_RELEASE, quantity, -quantity);
+    }
+
+    /** Consumes reserved stock once the reservation is committed. */
+    public boolean consumeReserved(String skuCode, int quantity) {
+        return move(skuCode, MovementType.RESERVATION_COMMIT, 0, -quantity);
+    }
+
+    /**
+     * Brings an item to the given quantities with an adjustment movement, for
+     * edits that set stock outright. Must run inside the caller's transaction;
+     * the SKU stays locked until it completes.
+     */
+    public void adjustTo(String skuCode, int available, int reserved) {
+        lockUntilCompletion(stripeIndex(skuCode));
+        Balance balance = require(skuCode);
+        if (balance.available() != available || balance.reserved() != reserved) {
+            append(balance, MovementType.ADJUSTMENT, available - balance.available(), reserved - balance.reserved());
+        }
+    }
+
+    /** Adds movements not yet compacted to items read from the table, so callers see the balance. */
+    public void applyPending(Collection<InventoryItemDto> items) {
+        List<Long> ids = items.stream().map(InventoryItemDto::getId).filter(id -> id != null).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, int[]> pending = new HashMap<>();
+        namedJdbcTemplate.query(PENDING_SQL, Map.of("itemIds", ids), rs -> {
+            pending.put(rs.getLong(1), new int[]{rs.getInt(2), rs.getInt(3)});
+        });
+        for (InventoryItemDto item : items) {
+            int[] delta = pending.get(item.getId());
+            if (delta != null) {
+                item.setQuantityAvailable(item.getQuantityAvailable() + delta[0]);
+                item.setQuantityReserved((item.getQuantityReserved() == null ? 0 : item.getQuantityReserved()) + delta[1]);
+            }
+        }
+    }
+
+    public InventoryItemDto applyPending(InventoryItemDto item) {
+        applyPending(List.of(item));
+        return item;
+    }
+
+    /** Items whose balance is at or below their reorder level, largest shortfall first. */
+    public List<LowStockItemDto> lowStock(int limit) {
+        return jdbcTemplate.query(LOW_STOCK_SQL, (rs, rowNum) -> {
+            int available = rs.getInt("available");
+            int reorderLevel = rs.getInt("reorder_level");
+            return new LowStockItemDto(rs.getLong("id"), rs.getString("sku_code"), rs.getString("name"),
+                    available, reorderLevel, reorderLevel - available);
+        }, limit);
+    }
+
+    public List<StockMovementDto> history(String skuCode, int limit) {
+        Long itemId = inventoryRepository.findBySkuCode(skuCode)
+                .orElseThrow(() -> new ItemNotFoundException("Item not found with SKU code: " + skuCode))
+                .getId();
+        return movementRepository.findByItemIdOrderByIdDesc(itemId, Limit.of(Math.max(1, Math.min(limit, MAX_HISTORY)))).stream()
+                .map(m -> new StockMovementDto(m.getId(), m.getSkuCode(), m.getType(), m.getAvailableDelta(),
+                        m.getReservedDelta(), m.isCompacted(), m.getCreatedAt()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Folds pending movements into the item rows, oldest first, one batch per
+     * transaction, then drops compacted movements older than the retention.
+     */
+    @Scheduled(fixedDelayString = "${inventory.movements.compact-interval-ms:1000}")
+    public void compact() {
+        if (!lease.isHeld()) {
+            return;
+        }
+        int folded;
+        do {
+            List<Pending> batch = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    batch.addAll(jdbcTemplate.query(NEXT_BATCH_SQL, this::pending, compactBatchSize));
+                    fold(batch);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Stock movement compaction of {} movements failed, will retry: {}", batch.size(), e.getMessage());
+                return;
+            }
+            folded = batch.size();
+            publishFolded(batch);
+        } while (folded >= compactBatchSize);
+
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now().minus(retention)));
+        if (purged > 0) {
+            log.info("Purged {} compacted stock movements older than {}", purged, retention);
+        }
+    }
+
+    /**
+     * Folds the pending movements of these SKUs into their rows inside the caller's
+     * transaction, for writers that are about to overwrite the stored quantities.
+     */
+    public void foldPending(Collection<String> skuCodes) {
+        if (!skuCodes.isEmpty()) {
+            fold(namedJdbcTemplate.query(ITEM_MOVEMENTS_SQL, Map.of("skuCodes", skuCodes), this::pending));
+        }
+    }
+
+    private boolean move(String skuCode, MovementType type, int availableDelta, int reservedDelta) {
+        if (availableDelta == 0 && reservedDelta == 0) {
+            return true;
+        }
+        Boolean moved = transactionTemplate.execute(status -> {
+            lockUntilCompletion(stripeIndex(skuCode));
+            Balance balance = balance(skuCode);
+            if (balance == null || balance.available() + availableDelta < 0 || balance.reserved() + reservedDelta < 0) {
+                return false;
+            }
+            append(balance, type, availableDelta, reservedDelta);
+            return true;
+        });
+        return Boolean.TRUE.equals(moved);
+    }
+
+    private Balance append(Balance balance, MovementType type, int availableDelta, int reservedDelta) {
+        jdbcTemplate.update(INSERT_SQL, balance.id(), balance.skuCode(), type.name(), availableDelta, reservedDelta,
+                Timestamp.from(Instant.now()));
+        Balance after = balance.plus(availableDelta, reservedDelta);
+        publish(after);
+        return after;
+    }
+
+    private void fold(List<Pending> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Map<Long, int[]> perItem = new LinkedHashMap<>();
+        List<Object[]> ids = new ArrayList<>(movements.size());
+        for (Pending movement : movements) {
+            int[] delta = perItem.computeIfAbsent(movement.itemId(), id -> new int[2]);
+            delta[0] += movement.availableDelta();
+            delta[1] += movement.reservedDelta();
+            ids.add(new Object[]{movement.id()});
+        }
+        int marked = 0;
+        for (int count : jdbcTemplate.batchUpdate(MARK_SQL, ids)) {
+            marked += count;
+        }
+        if (marked != movements.size()) {
+            // Another compaction got to some of them first; roll back rather than fold them twice
+            throw new IllegalStateException("Compacted " + marked + " of " + movements.size() + " movements");
+        }
+        List<Object[]> rows = new ArrayList<>(perItem.size());
+        perItem.forEach((itemId, delta) -> rows.add(new Object[]{delta[0], delta[1], changeSequence.next(), itemId}));
+        jdbcTemplate.batchUpdate(FOLD_SQL, rows);
+    }
+
+    // Folding leaves balances as they were but bumps each row's version, so cached copies must go.
+    // Published under the stripe locks like every other movement, so a racing deduction is never overtaken.
+    private void publishFolded(List<Pending> movements) {
+        List<Long> itemIds = movements.stream().map(Pending::itemId).distinct().toList();
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            new TreeSet<>(movements.stream().map(m -> stripeIndex(m.skuCode())).toList()).forEach(this::lockUntilCompletion);
+            namedJdbcTemplate.query(BALANCE_BY_ID_SQL, Map.of("itemIds", itemIds), rs -> {
+                publish(balance(rs));
+            });
+        });
+    }
+
+    private void publish(Balance balance) {
+        eventPublisher.publishEvent(InventoryChangedEvent.stockChanged(balance.id(), balance.skuCode(),
+                balance.available(), balance.reserved(), balance.reorderLevel(), false));
+    }
+
+    private Balance require(String skuCode) {
+        Balance balance = balance(skuCode);
+        if (balance == null) {
+            throw new ItemNotFoundException("Item not found with SKU code: " + skuCode);
+        }
+        return balance;
+    }
+
+    private Balance balance(String skuCode) {
+        return balances(List.of(skuCode)).get(skuCode);
+    }
+
+    private Map<String, Balance> balances(Collection<String> skuCodes) {
+        Map<String, Balance> balances = new HashMap<>();
+        namedJdbcTemplate.query(BALANCE_BY_SKU_SQL, Map.of("skuCodes", skuCodes), rs -> {
+            Balance balance = balance(rs);
+            balances.put(balance.skuCode(), balance);
+        });
+        return balances;
+    }
+
+    private Balance balance(ResultSet rs) throws SQLException {
+        return new Balance(rs.getLong("id"), rs.getString("sku_code"), rs.getInt("available"),
+                rs.getInt("reserved"), rs.getInt("reorder_level"));
+    }
+
+    private Pending pending(ResultSet rs, int rowNum) throws SQLException {
+        return new Pending(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getString(5));
+    }
+
+    /**
+     * Takes the stripe lock and releases it when the current transaction completes,
+     * so the next check on the SKU sees this transaction's movements.
+     */
+    private void lockUntilCompletion(int stripe) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock movements must be written inside a transaction");
+        }
+        lease.check();
+        ReentrantLock lock = stripes[stripe];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripeIndex(String skuCode) {
+        int h = skuCode.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private record Balance(long id, String skuCode, int available, int reserved, int reorderLevel) {
+
+        Balance plus(int availableDelta, int reservedDelta) {
+            return new Balance(id, skuCode, available + availableDelta, reserved + reservedDelta, reorderLevel);
+        }
+    }
+
+    private record Pending(long id, long itemId, int availableDelta, int reservedDelta, String skuCode) {
+    }
+}
@@ -0,0 +1,283 @@
+package com.SynexiAI.inventor.service;
+
+import com.SynexiAI.inventor.dto.ReservationRequest;
+import com.SynexiAI.inventor.dto.ReservationResponse;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.exception.InsufficientStockException;
+import com.SynexiAI.inventor.exception.InventoryConflictException;
+import com.SynexiAI.inventor.exception.ItemNotFoundException;
+import com.SynexiAI.inventor.model.ReservationStatus;
+import com.SynexiAI.inventor.model.StockReservation;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.StockReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Two-phase stock holds: {@code reserve} moves stock from available to reserved,
+ * {@code commit} consumes it and {@code release} gives it back. Holds that are
+ * neither committed nor released before their TTL are returned by the sweeper.
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryMappingService mapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    // Only present when inventory.ledger.enabled=true
+    @Autowired(required = false)
+    private InMemoryStockLedger stockLedger;
+
+    // Only present when inventory.movements.enabled=true
+    @Autowired(required = false)
+    private StockMovementLedger movements;
+
+    @Value("${inventory.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${inventory.reservations.max-ttl-seconds:3600}")
+    private long maxTtlSeconds;
+
+    @Value("${inventory.reservations.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest request) {
+        if (request.getReservationId() != null) {
+            StockReservation existing = reservationRepository.findById(request.getReservationId()).orElse(null);
+            if (existing != null) {
+                return toResponse(existing);   // retried request, hold already taken
+            }
+        }
+        if (request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        boolean held;
+        if (useLedger()) {
+            held = stockLedger.reserve(request.getSkuCode(), request.getQuantity());
+            if (held) {
+                String skuCode = request.getSkuCode();
+                int quantity = request.getQuantity();
+                onCompletion(null, () -> stockLedger.release(skuCode, quantity));
+            }
+        } else if (movements != null) {
+            held = movements.reserve(request.getSkuCode(), request.getQuantity());
+        } else {
+            held = inventoryRepository.reserveIfAvailable(request.getSkuCode(), request.getQuantity(), changeSequence.next()) == 1;
+        }
+        if (!held) {
+            if (inventoryRepository.findBySkuCode(request.getSkuCode()).isEmpty()) {
+                throw new ItemNotFoundException("Item not found with SKU code: " + request.getSkuCode());
+            }
+            throw new InsufficientStockException("Not enough stock to reserve SKU: " + request.getSkuCode()
+                    + " | Requested: " + request.getQuantity());
+        }
+
+        long ttl = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        Instant now = Instant.now();
+
+        StockReservation reservation = new StockReservation();
+        reservation.setReservationId(request.getReservationId() != null
+                ? request.getReservationId() : UUID.randomUUID().toString());
+        reservation.setSkuCode(request.getSkuCode());
+        reservation.setQuantity(request.getQuantity());
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plusSeconds(Math.max(1, Math.min(ttl, maxTtlSeconds))));
+        reservationRepository.save(reservation);
+
+        publishStockChange(request.getSkuCode());
+        return toResponse(reservation);
+    }
+
+    @Transactional
+    public ReservationResponse commit(String reservationId) {
+        StockReservation reservation = find(reservationId);
+        if (reservationRepository.transition(reservationId, ReservationStatus.HELD, ReservationStatus.COMMITTED, Instant.now()) == 0) {
+            return alreadySettled(reservationId, ReservationStatus.COMMITTED);
+        }
+        boolean consumed;
+        if (useLedger()) {
+            consumed = stockLedger.consumeReserved(reservation.getSkuCode(), reservation.getQuantity());
+            if (consumed) {
+                onCompletion(null, () -> stockLedger.restoreReserved(reservation.getSkuCode(), reservation.getQuantity()));
+            }
+        } else if (movements != null) {
+            consumed = movements.consumeReserved(reservation.getSkuCode(), reservation.getQuantity());
+        } else {
+            consumed = inventoryRepository.consumeReserved(reservation.getSkuCode(), reservation.getQuantity(),
+                    changeSequence.next()) == 1;
+        }
+        if (!consumed) {
+            // Rolls the transition back too, so the hold stays HELD
+            throw reservedStockMissing(reservation);
+        }
+        reservation.setStatus(ReservationStatus.COMMITTED);
+        publishStockChange(reservation.getSkuCode());
+        return toResponse(reservation);
+    }
+
+    @Transactional
+    public ReservationResponse release(String reservationId) {
+        StockReservation reservation = find(reservationId);
+        // Releasing is allowed even after the TTL, the sweeper simply has not got to it yet
+        if (reservationRepository.transition(reservationId, ReservationStatus.HELD, ReservationStatus.RELEASED, Instant.EPOCH) == 0) {
+            return alreadySettled(reservationId, ReservationStatus.RELEASED);
+        }
+        if (!returnStock(reservation.getSkuCode(), reservation.getQuantity())) {
+            throw reservedStockMissing(reservation);
+        }
+        reservation.setStatus(ReservationStatus.RELEASED);
+        publishStockChange(reservation.getSkuCode());
+        return toResponse(reservation);
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationResponse getReservation(String reservationId) {
+        return toResponse(find(reservationId));
+    }
+
+    /**
+     * Releases expired holds in chunks, oldest first. Each chunk is one transaction that
+     * marks the reservations expired and returns their stock with one update per SKU.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:5000}")
+    public void sweepExpired() {
+        int swept;
+        do {
+            Instant cutoff = Instant.now();
+            Map<String, Integer> perSku = new TreeMap<>();
+            Integer count = transactionTemplate.execute(status -> {
+                List<StockReservation> expired = reservationRepository.findExpiredForUpdate(
+                        ReservationStatus.HELD, cutoff, Limit.of(sweepBatchSize));
+                for (StockReservation reservation : expired) {
+                    reservation.setStatus(ReservationStatus.EXPIRED);
+                    perSku.merge(reservation.getSkuCode(), reservation.getQuantity(), Integer::sum);
+                }
+                perSku.forEach((skuCode, quantity) -> {
+                    // Logged, not thrown: one bad row would otherwise stop every later hold from expiring
+                    if (!returnStock(skuCode, quantity)) {
+                        log.error("Could not return {} expired reserved units of SKU {}: less is reserved",
+                                quantity, skuCode);
+                    }
+                });
+                return expired.size();
+            });
+            swept = count == null ? 0 : count;
+            if (swept > 0) {
+                log.info("Expired {} reservations across {} SKUs", swept, perSku.size());
+                perSku.keySet().forEach(this::publishStockChange);
+            }
+        } while (swept >= sweepBatchSize);
+    }
+
+    private boolean returnStock(String skuCode, int quantity) {
+        if (useLedger()) {
+            // Taken out of reserved now, so a second release cannot take it too; only offered for sale
+            // once the transaction commits, and put back into reserved if it rolls back
+            if (!stockLedger.consumeReserved(skuCode, quantity)) {
+                return false;
+            }
+            onCompletion(() -> stockLedger.returnToAvailable(skuCode, quantity),
+                    () -> stockLedger.restoreReserved(skuCode, quantity));
+            return true;
+        } else if (movements != null) {
+            return movements.release(skuCode, quantity);
+        }
+        return inventoryRepository.releaseReserved(skuCode, quantity, changeSequence.next()) == 1;
+    }
+
+    /**
+     * The in-memory ledger is not transactional: it changes as soon as it is
+     * called, while the reservation row only changes if the surrounding
+     * transaction commits - the update can still fail here, at flush or at
+     * commit. Runs {@code onCommit} or {@code onRollback} once the outcome is
+     * known so both stay in step; either may be null.
+     */
+    private void onCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit != null) {
+                onCommit.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                Runnable action = status == STATUS_COMMITTED ? onCommit : onRollback;
+                if (action != null) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private InventoryConflictException reservedStockMissing(StockReservation reservation) {
+        return new InventoryConflictException("Less than " + reservation.getQuantity() + " units of SKU "
+                + reservation.getSkuCode() + " are reserved, reservation " + reservation.getReservationId()
+                + " left unchanged");
+    }
+
+    private ReservationResponse alreadySettled(String reservationId, ReservationStatus wanted) {
+        StockReservation current = find(reservationId);
+        if (current.getStatus() == wanted) {
+            return toResponse(current);   // idempotent retry
+        }
+        throw new IllegalStateException("Reservation " + reservationId + " cannot move to " + wanted
+                + " from " + (current.getStatus() == ReservationStatus.HELD ? "an expired hold" : current.getStatus()));
+    }
+
+    private void publishStockChange(String skuCode) {
+        if (useLedger() || movements != null) {
+            return;   // the ledger publishes its own changes
+        }
+        inventoryRepository.findBySkuCode(skuCode).ifPresent(item ->
+                eventPublisher.publishEvent(InventoryChangedEvent.stockChanged(mapper.toDto(item))));
+    }
+
+    private StockReservation find(String reservationId) {
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ItemNotFoundException("Reservation not found: " + reservationId));
+    }
+
+    private boolean useLedger() {
+        return stockLedger != null && stockLedger.isReady();
+    }
+
+    private ReservationResponse toResponse(StockReservation reservation) {
+        return new ReservationResponse(reservation.getReservationId(), reservation.getSkuCode(),
+                reservation.getQuantity(), reservation.getStatus(), reservation.getExpiresAt());
+    }
+}
@@ -0,0 +1,182 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.cache.SkuAvailabilityMap;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.exception.ItemNotFoundException;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.model.InventoryTombstone;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.InventoryTombstoneRepository;
+import com.SynexiAI.inventor.service.AvailabilityIndex;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@InventoryServiceSlice
+class AvailabilityIndexTest {
+
+    @Autowired
+    private AvailabilityIndex index;
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    @Autowired
+    private InventoryTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private SkuExistenceFilter skuFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        tombstoneRepository.deleteAll();
+        repository.deleteAll();
+        fixtures.seed("SKU-A", 10);
+        fixtures.seed("SKU-B", 3);
+        skuFilter.rebuild();
+        index.load();
+    }
+
+    @Test
+    void writesOnThisInstanceAreVisibleAtOnce() {
+        assertEquals(10, service.getAvailable("SKU-A"));
+        assertTrue(service.deductStock("SKU-A", 4));
+        assertEquals(6, service.getAvailable("SKU-A"));
+
+        InventoryItemDto created = service.createItem(InventoryItemDto.builder()
+                .skuCode("SKU-NEW").name("New").quantityAvailable(7).reorderLevel(0).build());
+        assertEquals(7, service.getAvailable("SKU-NEW"));
+
+        created.setSkuCode("SKU-RENAMED");
+        created.setQuantityAvailable(9);
+        created.setVersion(null);
+        service.updateItem(created.getId(), created);
+        assertEquals(9, service.getAvailable("SKU-RENAMED"));
+        assertThrows(ItemNotFoundException.class, () -> service.getAvailable("SKU-NEW"));
+
+        service.deleteItem(created.getId());
+        assertThrows(ItemNotFoundException.class, () -> service.getAvailable("SKU-RENAMED"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void writesAndDeletesFromOtherInstancesArriveOnRefresh() {
+        insertElsewhere("SKU-OTHER-NODE", 1_000_000);
+        InventoryItem gone = repository.findBySkuCode("SKU-B").orElseThrow();
+        InventoryTombstone tombstone = new InventoryTombstone();
+        tombstone.setItemId(gone.getId());
+        tombstone.setSkuCode("SKU-B");
+        tombstone.setChangeSeq(1000001L);
+        tombstone.setDeletedAt(Instant.now());
+        tombstoneRepository.save(tombstone);
+        jdbcTemplate.update("delete from inventory_items where sku_code = 'SKU-B'");
+        assertEquals(SkuAvailabilityMap.MISSING, index.available("SKU-OTHER-NODE"));
+        assertEquals(3, index.available("SKU-B"));
+
+        index.refresh();
+        assertEquals(12, index.available("SKU-OTHER-NODE"));
+        assertEquals(SkuAvailabilityMap.MISSING, index.available("SKU-B"));
+    }
+
+    @Test
+    void aSlowerCommitWithASmallerChangeSeqIsNotSkipped() {
+        insertElsewhere("SKU-FAST", 2_000_000);
+        index.refresh();
+        assertEquals(12, index.available("SKU-FAST"));
+
+        // Stamped before SKU-FAST by another node, committed after this node read past it
+        insertElsewhere("SKU-SLOW", 1_500_000);
+        index.refresh();
+        assertEquals(12, index.available("SKU-SLOW"));
+    }
+
+    @Test
+    void mapAgreesWithAHashMapThroughGrowthAndDeletes() {
+        SkuAvailabilityMap map = new SkuAvailabilityMap(0);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            String sku = "SKU-" + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(sku);
+                expected.remove(sku);
+            } else {
+                int quantity = random.nextInt(1_000);
+                map.put(sku, quantity);
+                expected.put(sku, quantity);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < 5_000; i++) {
+            String sku = "SKU-" + i;
+            assertEquals(expected.getOrDefault(sku, SkuAvailabilityMap.MISSING), map.get(new String(sku)));
+        }
+    }
+
+    @Test
+    void lookupsDoNotAllocate() {
+        SkuAvailabilityMap map = new SkuAvailabilityMap(10_000);
+        String[] lookups = new String[10_000];
+        for (int i = 0; i < lookups.length; i++) {
+            map.put("SKU-" + i, i);
+            // Fresh copies, like a path variable, with the hash already cached
+            lookups[i] = new String((i % 2 == 0 ? "SKU-" : "MISSING-") + i);
+            lookups[i].hashCode();
+        }
+        // Allocation counters are a HotSpot extension and may be unsupported or switched off;
+        // AvailabilityLookupBenchmark measures the same with JMH's GC profiler
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        long sum = 0;
+        // Enough rounds for the JIT to compile the probe loop before measuring
+        for (int round = 0; round < 200; round++) {
+            sum += lookUpAll(map, lookups);
+        }
+        threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int round = 0; round < 100; round++) {
+            sum += lookUpAll(map, lookups);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertNotEquals(0, sum);
+        // A million lookups; a single boxed value or entry object each would be megabytes
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+    }
+
+    private static long lookUpAll(SkuAvailabilityMap map, String[] lookups) {
+        long sum = 0;
+        for (String sku : lookups) {
+            sum += map.get(sku);
+        }
+        return sum;
+    }
+
+    private void insertElsewhere(String sku, long changeSeq) {
+        jdbcTemplate.update("insert into inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                "reorder_level, change_seq, version) values (?, 'Other', 12, 0, 0, ?, 0)", sku, changeSeq);
+    }
+}
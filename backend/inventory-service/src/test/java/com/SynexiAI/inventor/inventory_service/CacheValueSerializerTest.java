@@ -0,0 +1,117 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.cache.CacheCodecs;
+import com.SynexiAI.inventor.cache.CacheValueSerializer;
+import com.SynexiAI.inventor.cache.JacksonCacheCodec;
+import com.SynexiAI.inventor.config.RedisConfig;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueSerializerTest {
+
+    private final ObjectMapper mapper = new RedisConfig().objectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private CacheValueSerializer serializer(String codec, int compressionThreshold, int compareEvery) {
+        return new CacheCodecs(List.of(JacksonCacheCodec.json(mapper), JacksonCacheCodec.smile(mapper)),
+                codec, compressionThreshold, compareEvery, registry).serializer("inventoryPage");
+    }
+
+    private static InventoryPage page(int size) {
+        List<InventoryItemDto> items = IntStream.range(0, size)
+                .mapToObj(i -> InventoryItemDto.builder()
+                        .id((long) i).skuCode("SKU-%05d".formatted(i)).name("Item " + i)
+                        .quantityAvailable(i * 3).quantityReserved(0).reorderLevel(10)
+                        .location("A-" + (i % 20)).expiryDate(LocalDate.of(2027, 1, 1).plusDays(i))
+                        .changeSeq(1000L + i).version(2L)
+                        .build())
+                .toList();
+        return new InventoryPage(items, "c2t1OlNLVS0wMDAwOTk", true);
+    }
+
+    @Test
+    void roundTripsPagesAndItemsWithEitherCodec() {
+        InventoryPage page = page(50);
+        for (String codec : List.of("json", "smile")) {
+            for (int threshold : new int[]{0, 256}) {
+                CacheValueSerializer serializer = serializer(codec, threshold, 0);
+
+                assertEquals(page, serializer.deserialize(serializer.serialize(page)), codec + "/" + threshold);
+                InventoryItemDto item = page.getItems().get(7);
+                assertEquals(item, serializer.deserialize(serializer.serialize(item)), codec + "/" + threshold);
+            }
+        }
+    }
+
+    @Test
+    void smileAndCompressionShrinkPages() {
+        InventoryPage page = page(500);
+
+        int json = serializer("json", 0, 0).serialize(page).length;
+        int smile = serializer("smile", 0, 0).serialize(page).length;
+        int smileDeflated = serializer("smile", 1024, 0).serialize(page).length;
+
+        assertTrue(smile < json * 0.6, "smile " + smile + " vs json " + json);
+        assertTrue(smileDeflated < smile / 2, "deflated " + smileDeflated + " vs smile " + smile);
+    }
+
+    @Test
+    void uncompressedJsonIsTheFormatOlderNodesWrite() {
+        GenericJackson2JsonRedisSerializer legacy = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(mapper.copy())
+                .defaultTyping(true)
+                .build();
+        InventoryPage page = page(3);
+
+        assertArrayEquals(legacy.serialize(page), serializer("json", 0, 0).serialize(page));
+        assertEquals(page, serializer("smile", 1024, 0).deserialize(legacy.serialize(page)));
+        assertEquals(page, legacy.deserialize(serializer("json", 0, 0).serialize(page)));
+    }
+
+    @Test
+    void valuesWrittenWithOneCodecStayReadableAfterSwitching() {
+        InventoryPage page = page(200);
+        byte[] smile = serializer("smile", 1024, 0).serialize(page);
+        byte[] json = serializer("json", 1024, 0).serialize(page);
+
+        assertEquals(page, serializer("json", 0, 0).deserialize(smile));
+        assertEquals(page, serializer("smile", 0, 0).deserialize(json));
+    }
+
+    @Test
+    void recordsSizesAndTimingsPerCodecIncludingComparisons() {
+        CacheValueSerializer serializer = serializer("smile", 1024, 1);
+        InventoryPage page = page(100);
+
+        serializer.deserialize(serializer.serialize(page));
+
+        var smileStored = registry.get("inventory.cache.codec.bytes")
+                .tags("cache", "inventoryPage", "codec", "smile", "mode", "active", "stage", "stored").summary();
+        var smileEncoded = registry.get("inventory.cache.codec.bytes")
+                .tags("codec", "smile", "mode", "active", "stage", "encoded").summary();
+        var jsonCompared = registry.get("inventory.cache.codec.bytes")
+                .tags("codec", "json", "mode", "compare", "stage", "encoded").summary();
+        assertEquals(1, smileStored.count());
+        assertTrue(smileStored.totalAmount() < smileEncoded.totalAmount());
+        assertTrue(jsonCompared.totalAmount() > smileEncoded.totalAmount());
+        assertEquals(1, registry.get("inventory.cache.codec.encode").tags("codec", "smile", "mode", "active").timer().count());
+        assertEquals(1, registry.get("inventory.cache.codec.decode").tags("codec", "smile", "mode", "active").timer().count());
+        assertEquals(1, registry.get("inventory.cache.codec.decode").tags("codec", "json", "mode", "compare").timer().count());
+    }
+
+    @Test
+    void rejectsUnknownCodec() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> serializer("cbor", 0, 0));
+        assertTrue(e.getMessage().contains("[json, smile]"), e.getMessage());
+    }
+}
@@ -0,0 +1,103 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.cache.HotKeyPinning;
+import com.SynexiAI.inventor.cache.HotKeySketch;
+import com.SynexiAI.inventor.service.HotSkuTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotSkuTrackerTest {
+
+    // 20 of 1000 SKUs (2%) get 80% of the traffic
+    private static void skewedTraffic(HotSkuTracker tracker, int hits) {
+        Random random = new Random(7);
+        for (int i = 0; i < hits; i++) {
+            int sku = random.nextDouble() < 0.8 ? random.nextInt(20) : 20 + random.nextInt(980);
+            tracker.record("SKU-" + sku);
+        }
+    }
+
+    @Test
+    void findsTheSkusThatGetMostOfTheTraffic() {
+        HotSkuTracker tracker = new HotSkuTracker(20, 1024, 4, 0.01);
+
+        skewedTraffic(tracker, 100_000);
+
+        List<HotSkuTracker.HotSku> top = tracker.heavyHitters();
+        assertEquals(20, top.size());
+        assertTrue(top.stream().allMatch(sku -> Integer.parseInt(sku.skuCode().substring(4)) < 20), top.toString());
+        assertTrue(top.stream().allMatch(HotSkuTracker.HotSku::hot));
+        assertTrue(tracker.isHot("SKU-3"));
+        assertFalse(tracker.isHot("SKU-500"));
+        // ~4000 hits each; count-min only overestimates, by a bounded amount
+        top.forEach(sku -> assertTrue(sku.estimatedHits() >= 3500 && sku.estimatedHits() < 4700, sku.toString()));
+    }
+
+    @Test
+    void estimatesNeverUndercount() {
+        HotKeySketch sketch = new HotKeySketch(256, 4, 10);
+        for (int sku = 0; sku < 2000; sku++) {
+            for (int hit = 0; hit <= sku % 7; hit++) {
+                sketch.add("SKU-" + sku);
+            }
+        }
+
+        for (int sku = 0; sku < 2000; sku++) {
+            assertTrue(sketch.estimate("SKU-" + sku) >= sku % 7 + 1);
+        }
+    }
+
+    @Test
+    void decayLetsANewHotSkuTakeOver() {
+        HotSkuTracker tracker = new HotSkuTracker(1, 1024, 4, 0.1);
+        for (int i = 0; i < 1000; i++) {
+            tracker.record("OLD");
+        }
+        for (int round = 0; round < 10; round++) {
+            tracker.decay();
+        }
+        for (int i = 0; i < 100; i++) {
+            tracker.record("NEW");
+        }
+
+        assertEquals("NEW", tracker.heavyHitters().get(0).skuCode());
+        assertTrue(tracker.isHot("NEW"));
+        assertFalse(tracker.isHot("OLD"));
+    }
+
+    @Test
+    void hotKeysArePinnedInTheNearCache() {
+        AtomicLong now = new AtomicLong();
+        Set<String> hot = Set.of("HOT");
+        Cache<Object, Object> near = new HotKeyPinning(hot::contains, Duration.ofSeconds(30), Duration.ofMinutes(5))
+                .spec(2)
+                .executor(Runnable::run)
+                .ticker(now::get)
+                .build();
+
+        near.put("HOT", "h");
+        for (int i = 0; i < 50; i++) {
+            near.put("COLD-" + i, "c");
+        }
+        near.cleanUp();
+        assertNotNull(near.getIfPresent("HOT"), "size eviction skips pinned entries");
+        assertTrue(near.estimatedSize() <= 3);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        near.put("COLD-x", "c");
+        assertNotNull(near.getIfPresent("HOT"));
+        assertNull(near.getIfPresent("COLD-49"));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertNull(near.getIfPresent("HOT"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.ReservationRequest;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.event.StockFlushedEvent;
+import com.SynexiAI.inventor.model.ReservationStatus;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.StockReservationRepository;
+import com.SynexiAI.inventor.service.AvailabilityIndex;
+import com.SynexiAI.inventor.service.ChangeSequence;
+import com.SynexiAI.inventor.service.InMemoryStockLedger;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+import com.SynexiAI.inventor.service.LowStockNotifier;
+import com.SynexiAI.inventor.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({InMemoryStockLedger.class, ChangeSequence.class, StockReservationService.class, InventoryMappingService.class,
+        AvailabilityIndex.class, InventoryFixtures.class})
+@TestPropertySource(properties = "inventory.ledger.enabled=true")
+@RecordApplicationEvents
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryStockLedgerTest {
+
+    @Autowired
+    private InMemoryStockLedger ledger;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    @Autowired
+    private StockReservationService reservations;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private LowStockNotifier lowStockNotifier;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        fixtures.seed("SKU-A", 500);
+        fixtures.seed("SKU-B", 50);
+        ledger.recover();
+    }
+
+    @Test
+    void concurrentDeductionsNeverOversellAndFlushToDatabase() throws Exception {
+        AtomicInteger successes = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2_000; i++) {
+            String sku = i % 2 == 0 ? "SKU-A" : "SKU-B";
+            pool.execute(() -> {
+                if (ledger.deduct(sku, 1)) {
+                    successes.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(550, successes.get());
+        assertEquals(0, ledger.available("SKU-A"));
+        assertEquals(0, ledger.available("SKU-B"));
+
+        // Nothing reaches the database until the flush runs
+        assertEquals(500, repository.findBySkuCode("SKU-A").orElseThrow().getQuantityAvailable());
+
+        ledger.flush();
+        assertEquals(0, repository.findBySkuCode("SKU-A").orElseThrow().getQuantityAvailable());
+        assertEquals(0, repository.findBySkuCode("SKU-B").orElseThrow().getQuantityAvailable());
+    }
+
+    @Test
+    void recoversFromDatabaseAndKeepsUnflushedDeltasOnReload() {
+        assertTrue(ledger.deduct("SKU-B", 10));
+        assertFalse(ledger.deduct("SKU-B", 41));
+        assertFalse(ledger.deduct("SKU-UNKNOWN", 1));
+
+        ledger.flush();
+        ledger.recover();
+        assertEquals(40, ledger.available("SKU-B"));
+    }
+
+    @Test
+    void cachedRowsAreInvalidatedOncePerFlushRatherThanPerDeduction() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(ledger.deduct("SKU-A", 1));
+        }
+        assertTrue(ledger.deduct("SKU-B", 1));
+        assertEquals(0, events.stream(StockFlushedEvent.class).count());
+
+        ledger.flush();
+        List<StockFlushedEvent> flushed = events.stream(StockFlushedEvent.class).toList();
+        assertEquals(1, flushed.size());
+        assertEquals(Set.of("SKU-A", "SKU-B"), Set.copyOf(flushed.get(0).getSkuCodes()));
+        assertEquals(Set.of(repository.findBySkuCode("SKU-A").orElseThrow().getId(),
+                        repository.findBySkuCode("SKU-B").orElseThrow().getId()),
+                Set.copyOf(flushed.get(0).getIds()));
+
+        ledger.flush();
+        assertEquals(1, events.stream(StockFlushedEvent.class).count());
+    }
+
+    @Test
+    void aHoldWhoseReservationNeverCommitsIsGivenBack() {
+        // Longer than the reservation_id column, so the insert only fails when the transaction flushes
+        String tooLong = "R".repeat(65);
+        assertThrows(RuntimeException.class,
+                () -> reservations.reserve(new ReservationRequest(tooLong, "SKU-B", 20, 60)));
+
+        assertEquals(50, ledger.available("SKU-B"));
+        assertTrue(reservationRepository.findById(tooLong).isEmpty());
+    }
+
+    @Test
+    void settlingAHoldInATransactionThatRollsBackLeavesTheLedgerUnchanged() {
+        String id = reservations.reserve(new ReservationRequest(null, "SKU-B", 20, 60)).getReservationId();
+        assertEquals(30, ledger.available("SKU-B"));
+        TransactionTemplate rollingBack = new TransactionTemplate(transactionManager);
+
+        rollingBack.executeWithoutResult(status -> {
+            reservations.release(id);
+            // Not offered for sale before the release commits
+            assertEquals(30, ledger.available("SKU-B"));
+            status.setRollbackOnly();
+        });
+        assertEquals(30, ledger.available("SKU-B"));
+
+        rollingBack.executeWithoutResult(status -> {
+            reservations.commit(id);
+            status.setRollbackOnly();
+        });
+        assertEquals(ReservationStatus.HELD, reservationRepository.findById(id).orElseThrow().getStatus());
+
+        // Still reserved in full, so the hold can be released for real
+        reservations.release(id);
+        assertEquals(50, ledger.available("SKU-B"));
+    }
+
+    @Test
+    void availabilityIndexKeepsTheNewestBalanceWhenEventsArriveOutOfOrder() {
+        availabilityIndex.load();
+        assertTrue(ledger.deduct("SKU-B", 5));
+        assertTrue(ledger.deduct("SKU-B", 5));
+        assertEquals(40, availabilityIndex.available("SKU-B"));
+
+        // The first deduction's event, delivered after the second's
+        availabilityIndex.onInventoryChanged(InventoryChangedEvent.stockChanged(null, "SKU-B", 45, 0, 0, true));
+        assertEquals(40, availabilityIndex.available("SKU-B"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryBatchDeductResponse;
+import com.SynexiAI.inventor.dto.InventoryDeductRequest;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.LowStockNotifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@InventoryServiceSlice
+class InventoryBatchDeductTest {
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    @Autowired
+    private LowStockNotifier lowStockNotifier;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        fixtures.seed("SKU-A", 10, 5);
+        fixtures.seed("SKU-B", 10, 0);
+        fixtures.seed("SKU-C", 10, 0);
+    }
+
+    @Test
+    void appliesEveryLineAndChecksLowStockOncePerSku() {
+        InventoryBatchDeductResponse result = service.deductStockBatch(List.of(
+                new InventoryDeductRequest("SKU-A", 3),
+                new InventoryDeductRequest("SKU-B", 2),
+                new InventoryDeductRequest("SKU-A", 4)));
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, available("SKU-A"));
+        assertEquals(8, available("SKU-B"));
+        verify(lowStockNotifier, times(1)).notifyIfLow("SKU-A", 3, 5);
+        verify(lowStockNotifier, times(1)).notifyIfLow("SKU-B", 8, 0);
+    }
+
+    @Test
+    void rejectsWholeBatchAndReportsFailingLine() {
+        InventoryBatchDeductResponse result = service.deductStockBatch(List.of(
+                new InventoryDeductRequest("SKU-A", 6),
+                new InventoryDeductRequest("SKU-B", 1),
+                new InventoryDeductRequest("SKU-A", 5),
+                new InventoryDeductRequest("SKU-MISSING", 1)));
+
+        assertFalse(result.isSuccess());
+        assertEquals(2, result.getFailedIndex());
+        assertEquals("SKU-A", result.getSkuCode());
+        assertEquals(10, available("SKU-A"));
+        assertEquals(10, available("SKU-B"));
+        verifyNoInteractions(lowStockNotifier);
+    }
+
+    @Test
+    void overlappingBatchesInOppositeOrderDoNotDeadlock() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<InventoryBatchDeductResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            List<InventoryDeductRequest> lines = i % 2 == 0
+                    ? List.of(new InventoryDeductRequest("SKU-A", 1), new InventoryDeductRequest("SKU-C", 1))
+                    : List.of(new InventoryDeductRequest("SKU-C", 1), new InventoryDeductRequest("SKU-A", 1));
+            futures.add(pool.submit(() -> service.deductStockBatch(lines)));
+        }
+        int successes = 0;
+        for (Future<InventoryBatchDeductResponse> future : futures) {
+            if (future.get(30, TimeUnit.SECONDS).isSuccess()) {
+                successes++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(10, successes);
+        assertEquals(0, available("SKU-A"));
+        assertEquals(0, available("SKU-C"));
+    }
+
+    private int available(String sku) {
+        return repository.findBySkuCode(sku).orElseThrow().getQuantityAvailable();
+    }
+}
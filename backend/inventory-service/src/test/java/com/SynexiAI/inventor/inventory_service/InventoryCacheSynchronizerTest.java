@@ -0,0 +1,101 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.event.StockFlushedEvent;
+import com.SynexiAI.inventor.service.InventoryCacheSynchronizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+
+import static com.SynexiAI.inventor.service.InventoryCacheSynchronizer.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryCacheSynchronizerTest {
+
+    private CacheManager cacheManager;
+    private InventoryCacheSynchronizer synchronizer;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new ConcurrentMapCacheManager(ITEM_CACHE, SKU_CACHE, PAGE_CACHE);
+        synchronizer = new InventoryCacheSynchronizer(cacheManager);
+    }
+
+    @Test
+    void createWritesThroughAndDropsPages() {
+        cacheManager.getCache(PAGE_CACHE).put("id|100|null", "stale page");
+
+        synchronizer.onInventoryChanged(InventoryChangedEvent.created(item(1L, "SKU-1", 10)));
+
+        assertEquals(10, cached(ITEM_CACHE, 1L).getQuantityAvailable());
+        assertEquals(10, cached(SKU_CACHE, "SKU-1").getQuantityAvailable());
+        assertNull(cacheManager.getCache(PAGE_CACHE).get("id|100|null"));
+    }
+
+    @Test
+    void stockChangeRefreshesEntriesButKeepsPages() {
+        synchronizer.onInventoryChanged(InventoryChangedEvent.created(item(1L, "SKU-1", 10)));
+        cacheManager.getCache(PAGE_CACHE).put("id|100|null", "page");
+
+        synchronizer.onInventoryChanged(InventoryChangedEvent.stockChanged(item(1L, "SKU-1", 7)));
+
+        assertEquals(7, cached(ITEM_CACHE, 1L).getQuantityAvailable());
+        assertEquals(7, cached(SKU_CACHE, "SKU-1").getQuantityAvailable());
+        assertNotNull(cacheManager.getCache(PAGE_CACHE).get("id|100|null"));
+    }
+
+    @Test
+    void renameEvictsOldSku() {
+        synchronizer.onInventoryChanged(InventoryChangedEvent.created(item(1L, "SKU-OLD", 10)));
+
+        synchronizer.onInventoryChanged(InventoryChangedEvent.updated(item(1L, "SKU-NEW", 10), "SKU-OLD"));
+
+        assertNull(cacheManager.getCache(SKU_CACHE).get("SKU-OLD"));
+        assertEquals("SKU-NEW", cached(ITEM_CACHE, 1L).getSkuCode());
+        assertEquals(1L, cached(SKU_CACHE, "SKU-NEW").getId());
+    }
+
+    @Test
+    void deleteAndPartialChangesEvict() {
+        synchronizer.onInventoryChanged(InventoryChangedEvent.created(item(1L, "SKU-1", 10)));
+        synchronizer.onInventoryChanged(InventoryChangedEvent.stockChanged(1L, "SKU-1", 9, 0, 0, false));
+
+        assertNull(cacheManager.getCache(ITEM_CACHE).get(1L));
+        assertNull(cacheManager.getCache(SKU_CACHE).get("SKU-1"));
+
+        synchronizer.onInventoryChanged(InventoryChangedEvent.created(item(2L, "SKU-2", 5)));
+        synchronizer.onInventoryChanged(InventoryChangedEvent.deleted(2L, "SKU-2"));
+
+        assertNull(cacheManager.getCache(ITEM_CACHE).get(2L));
+        assertNull(cacheManager.getCache(SKU_CACHE).get("SKU-2"));
+    }
+
+    @Test
+    void ledgerDeductionsLeaveTheCachesAloneUntilTheFlush() {
+        synchronizer.onInventoryChanged(InventoryChangedEvent.created(item(1L, "SKU-1", 10)));
+        for (int available = 9; available > 5; available--) {
+            synchronizer.onInventoryChanged(InventoryChangedEvent.stockChanged(1L, "SKU-1", available, 0, 0, true));
+        }
+
+        assertEquals(10, cached(ITEM_CACHE, 1L).getQuantityAvailable());
+        assertEquals(10, cached(SKU_CACHE, "SKU-1").getQuantityAvailable());
+
+        synchronizer.onStockFlushed(new StockFlushedEvent(List.of(1L), List.of("SKU-1")));
+
+        assertNull(cacheManager.getCache(ITEM_CACHE).get(1L));
+        assertNull(cacheManager.getCache(SKU_CACHE).get("SKU-1"));
+    }
+
+    private InventoryItemDto cached(String cacheName, Object key) {
+        return cacheManager.getCache(cacheName).get(key, InventoryItemDto.class);
+    }
+
+    private static InventoryItemDto item(Long id, String sku, int available) {
+        return InventoryItemDto.builder().id(id).skuCode(sku).name("Item " + sku)
+                .quantityAvailable(available).quantityReserved(0).reorderLevel(0).build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryDelta;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.service.InventoryChangeStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryChangeStreamTest {
+
+    private final InventoryChangeStream stream =
+            new InventoryChangeStream(2, Duration.ofMinutes(1), 3, Duration.ofMillis(300), Duration.ofHours(1), 4);
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void burstsForOneSkuCollapseToTheLatestState() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        stream.register(sink);
+        assertEquals("ready", sink.next().event());
+
+        stream.onInventoryChanged(InventoryChangedEvent.created(item(1L, "SKU-A", 10)));
+        for (int available = 9; available >= 5; available--) {
+            stream.onInventoryChanged(InventoryChangedEvent.stockChanged(1L, "SKU-A", available, 0, 2, false));
+        }
+        stream.onInventoryChanged(InventoryChangedEvent.stockChanged(item(2L, "SKU-B", 7)));
+        stream.flush();
+
+        Sent sent = sink.next();
+        assertEquals("deltas", sent.event());
+        @SuppressWarnings("unchecked")
+        List<InventoryDelta> deltas = (List<InventoryDelta>) sent.data();
+        assertEquals(2, deltas.size());
+        InventoryDelta first = deltas.get(0);
+        assertEquals("SKU-A", first.getSkuCode());
+        assertEquals(5, first.getQuantityAvailable());
+        assertNotNull(first.getItem(), "the pending create keeps its full item");
+        assertNull(deltas.get(1).getItem(), "plain stock changes stay compact");
+    }
+
+    @Test
+    void slowClientGetsResyncInsteadOfUnboundedBacklog() throws Exception {
+        RecordingSink slow = new RecordingSink();
+        stream.register(slow);
+        slow.next();
+        slow.block();
+
+        stream.onInventoryChanged(InventoryChangedEvent.stockChanged(1L, "SKU-1", 1, 0, 0, false));
+        stream.flush();
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+        // The client is stuck in a send; further changes pile up only as one entry per SKU
+        for (int i = 0; i < 100; i++) {
+            stream.onInventoryChanged(InventoryChangedEvent.stockChanged(2L, "SKU-2", i, 0, 0, false));
+        }
+        for (int sku = 3; sku <= 6; sku++) {
+            stream.onInventoryChanged(InventoryChangedEvent.stockChanged((long) sku, "SKU-" + sku, 1, 0, 0, false));
+        }
+        slow.release();
+        assertEquals("deltas", slow.next().event());
+
+        stream.flush();
+        assertEquals("resync", slow.next().event());
+    }
+
+    @Test
+    void stalledClientIsDisconnected() throws Exception {
+        RecordingSink stuck = new RecordingSink();
+        stream.register(stuck);
+        stuck.next();
+        stuck.block();
+
+        stream.onInventoryChanged(InventoryChangedEvent.deleted(1L, "SKU-1"));
+        stream.flush();
+        assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(400);
+        stream.flush();
+
+        assertTrue(stuck.closed);
+        assertEquals(0, stream.subscriberCount());
+        stuck.release();
+    }
+
+    @Test
+    void clientsStuckInEverySenderDoNotHoldUpTheOthers() throws Exception {
+        List<RecordingSink> stuck = List.of(new RecordingSink(), new RecordingSink());
+        for (RecordingSink sink : stuck) {
+            stream.register(sink);
+            sink.next();
+            sink.block();
+            // A socket write does not return when interrupted
+            sink.ignoreInterrupts = true;
+        }
+        stream.onInventoryChanged(InventoryChangedEvent.deleted(1L, "SKU-1"));
+        stream.flush();
+        for (RecordingSink sink : stuck) {
+            assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+        }
+        Thread.sleep(400);
+        stream.flush();
+        assertEquals(4, stream.senderPoolSize());
+
+        RecordingSink healthy = new RecordingSink();
+        stream.register(healthy);
+        healthy.next();
+        stream.onInventoryChanged(InventoryChangedEvent.deleted(2L, "SKU-2"));
+        stream.flush();
+        assertEquals("deltas", healthy.next().event());
+
+        stuck.forEach(RecordingSink::release);
+        for (int i = 0; i < 50 && stream.senderPoolSize() > 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, stream.senderPoolSize());
+    }
+
+    @Test
+    void failedSendRemovesSubscriber() throws Exception {
+        RecordingSink gone = new RecordingSink();
+        stream.register(gone);
+        gone.next();
+        gone.fail = true;
+
+        stream.onInventoryChanged(InventoryChangedEvent.deleted(1L, "SKU-1"));
+        stream.flush();
+        for (int i = 0; i < 50 && stream.subscriberCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, stream.subscriberCount());
+        assertTrue(gone.closed);
+    }
+
+    private static InventoryItemDto item(Long id, String sku, int available) {
+        return InventoryItemDto.builder().id(id).skuCode(sku).name("Item " + sku)
+                .quantityAvailable(available).quantityReserved(0).reorderLevel(2).build();
+    }
+
+    private record Sent(String event, Object data) {
+    }
+
+    private static class RecordingSink implements InventoryChangeStream.Sink {
+        final BlockingQueue<Sent> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+        volatile boolean fail;
+        volatile boolean ignoreInterrupts;
+        volatile boolean closed;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        Sent next() throws InterruptedException {
+            Sent next = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(next, "expected an event");
+            return next;
+        }
+
+        @Override
+        public void send(String event, Object data) throws IOException {
+            if (fail) {
+                throw new IOException("broken pipe");
+            }
+            CountDownLatch waitFor = gate;
+            if (waitFor != null) {
+                entered.countDown();
+                boolean interrupted = false;
+                while (true) {
+                    try {
+                        waitFor.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        if (!ignoreInterrupts) {
+                            break;
+                        }
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                gate = null;
+            }
+            sent.add(new Sent(event, data));
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.ExpiryDigest;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.ChangeSequence;
+import com.SynexiAI.inventor.service.InventoryCursor;
+import com.SynexiAI.inventor.service.InventoryExpiryService;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({InventoryExpiryService.class, InventoryMappingService.class, ChangeSequence.class, InventoryFixtures.class})
+@TestPropertySource(properties = {"inventory.expiry.chunk-size=3", "inventory.expiry.digest-days=7"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryExpiryTest {
+
+    @Autowired
+    private InventoryExpiryService expiryService;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        fixtures.seedExpiring("SKU-PAST", today.minusDays(1), 5);
+        for (int i = 0; i < 7; i++) {
+            fixtures.seedExpiring("SKU-TODAY-" + i, today, i + 1);       // more than two chunks on one day
+        }
+        fixtures.seedExpiring("SKU-D3", today.plusDays(3), 40);
+        fixtures.seedExpiring("SKU-D10", today.plusDays(10), 8);
+        fixtures.seedExpiring("SKU-NONE", null, 100);
+    }
+
+    @Test
+    void pagesThroughExpiringItemsSoonestFirst() {
+        List<InventoryItemDto> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            InventoryPage page = expiryService.getExpiring(7, cursor, 3);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(8, seen.size());
+        assertTrue(seen.stream().limit(7).allMatch(i -> i.getExpiryDate().equals(today)));
+        assertEquals("SKU-D3", seen.get(7).getSkuCode());
+        assertEquals(9, expiryService.getExpiring(10, null, 100).getItems().size());
+    }
+
+    @Test
+    void rejectsOutOfRangeWindowAndForeignCursor() {
+        assertThrows(IllegalArgumentException.class, () -> expiryService.getExpiring(-1, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> expiryService.getExpiring(10_000, null, 10));
+        String idCursor = InventoryCursor.encode("id", "5");
+        assertThrows(IllegalArgumentException.class, () -> expiryService.getExpiring(7, idCursor, 10));
+    }
+
+    @Test
+    void digestSummarisesEachDayBucket() {
+        ExpiryDigest digest = expiryService.buildDigest();
+
+        assertEquals(2, digest.getDays().size());
+        ExpiryDigest.DayBucket first = digest.getDays().get(0);
+        assertEquals(today, first.getDate());
+        assertEquals(7, first.getItems());
+        assertEquals(28, first.getUnits());
+        assertEquals(List.of("SKU-TODAY-6", "SKU-TODAY-5", "SKU-TODAY-4", "SKU-TODAY-3", "SKU-TODAY-2"),
+                first.getTopSkus());
+        assertEquals(today.plusDays(3), digest.getDays().get(1).getDate());
+        assertEquals(8, digest.getTotalItems());
+        assertEquals(68, digest.getTotalUnits());
+        assertSame(digest, expiryService.getDigest());
+    }
+}
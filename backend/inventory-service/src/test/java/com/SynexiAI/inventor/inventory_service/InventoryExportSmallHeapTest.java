@@ -0,0 +1,127 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.service.InventoryExportService;
+import com.SynexiAI.inventor.service.InventoryExportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs in its own surefire execution with -Xmx64m (see pom.xml). A million
+ * rows as DTOs would need several times that, so finishing at all shows the
+ * export streams.
+ */
+class InventoryExportSmallHeapTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int INSERT_CHUNK = 100_000;
+
+    @TempDir
+    Path dbDir;
+
+    @Test
+    void exportsOneMillionRowsWithASmallHeap() throws Exception {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= 128L * 1024 * 1024, "needs the small-heap surefire execution");
+
+        // File-backed so the table itself does not live on the heap
+        JdbcTemplate jdbc = jdbc("jdbc:h2:file:" + dbDir.resolve("export") + ";CACHE_SIZE=8192");
+        for (int from = 1; from <= ROWS; from += INSERT_CHUNK) {
+            jdbc.update("INSERT INTO inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                    "reorder_level, location, expiry_date) " +
+                    "SELECT 'SKU-' || X, 'Item ' || X, MOD(X, 500), 0, 10, 'WH-' || MOD(X, 7), DATE '2030-01-01' " +
+                    "FROM SYSTEM_RANGE(?, ?)", from, from + INSERT_CHUNK - 1);
+        }
+        InventoryExportService exporter = exporter(jdbc);
+
+        LineCountingStream ndjson = new LineCountingStream();
+        long start = System.nanoTime();
+        assertEquals(ROWS, exporter.export(Format.NDJSON, ndjson));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(ROWS, ndjson.lines);
+
+        LineCountingStream csv = new LineCountingStream();
+        assertEquals(ROWS, exporter.export(Format.CSV, csv));
+        assertEquals(ROWS + 1, csv.lines);      // plus the header
+
+        System.out.printf("ndjson export: %d rows, %.1f MB in %.2fs (max heap %d MB)%n",
+                ROWS, ndjson.bytes / 1e6, seconds, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+    }
+
+    @Test
+    void writesEscapedCsvAndParseableNdjson() throws Exception {
+        JdbcTemplate jdbc = jdbc("jdbc:h2:mem:export-format;DB_CLOSE_DELAY=-1");
+        jdbc.update("INSERT INTO inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                "reorder_level, location, expiry_date) VALUES ('SKU-1', 'Bolt, \"large\"', 5, 1, 2, NULL, DATE '2030-05-01')");
+        jdbc.update("INSERT INTO inventory_items (sku_code, name, quantity_available) VALUES ('SKU-2', 'Nut', 9)");
+        InventoryExportService exporter = exporter(jdbc);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exporter.export(Format.CSV, csv);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("1,SKU-1,\"Bolt, \"\"large\"\"\",5,1,2,,2030-05-01", lines[1]);
+        assertEquals("2,SKU-2,Nut,9,,,,", lines[2]);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        exporter.export(Format.NDJSON, ndjson);
+        String[] records = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, records.length);
+        JsonNode first = new ObjectMapper().readTree(records[0]);
+        assertEquals("Bolt, \"large\"", first.get("name").asText());
+        assertEquals("2030-05-01", first.get("expiryDate").asText());
+        assertTrue(first.get("location").isNull());
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> Format.from("xml"));
+        assertEquals(Format.CSV, Format.from("csv"));
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbc.execute("CREATE TABLE inventory_items (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "sku_code VARCHAR(255) NOT NULL UNIQUE, name VARCHAR(255) NOT NULL, quantity_available INT NOT NULL, " +
+                "quantity_reserved INT, reorder_level INT, location VARCHAR(255), expiry_date DATE)");
+        return jdbc;
+    }
+
+    private static InventoryExportService exporter(JdbcTemplate jdbc) {
+        return new InventoryExportService(jdbc, new DataSourceTransactionManager(jdbc.getDataSource()), 1000, false);
+    }
+
+    private static final class LineCountingStream extends OutputStream {
+        long lines;
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.LocalDate;
+
+/**
+ * Seeds rows straight through the repository, past the services, so no
+ * change events fire and the indexes only see them on their next rebuild.
+ * Part of {@link InventoryServiceSlice}; other slices import it directly.
+ */
+@TestComponent
+class InventoryFixtures {
+
+    private final InventoryRepository repository;
+
+    InventoryFixtures(InventoryRepository repository) {
+        this.repository = repository;
+    }
+
+    InventoryItem seed(String sku, int quantity) {
+        return seed(sku, quantity, 0);
+    }
+
+    InventoryItem seed(String sku, int quantity, int reorderLevel) {
+        InventoryItem item = item(sku, quantity);
+        item.setReorderLevel(reorderLevel);
+        return repository.save(item);
+    }
+
+    InventoryItem seedExpiring(String sku, LocalDate expiry, int quantity) {
+        InventoryItem item = item(sku, quantity);
+        item.setExpiryDate(expiry);
+        return repository.save(item);
+    }
+
+    private static InventoryItem item(String sku, int quantity) {
+        InventoryItem item = new InventoryItem();
+        item.setSkuCode(sku);
+        item.setName("Item " + sku);
+        item.setQuantityAvailable(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,185 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryImportResponse;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.ChangeSequence;
+import com.SynexiAI.inventor.service.InventoryImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({InventoryImportService.class, ChangeSequence.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryImportTest {
+
+    @Autowired
+    private InventoryImportService importService;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void upsertsBySkuAndReportsBadRows() throws Exception {
+        InventoryItem existing = new InventoryItem();
+        existing.setSkuCode("SKU-OLD");
+        existing.setName("Old name");
+        existing.setQuantityAvailable(1);
+        existing.setReorderLevel(4);
+        existing.setLocation("WH-1");
+        repository.save(existing);
+
+        String csv = "skuCode,name,quantityAvailable,reorderLevel,location,expiryDate\n" +
+                "SKU-NEW,\"Bolt, \"\"large\"\"\",10,2,WH-2,2030-01-31\n" +
+                "SKU-OLD,New name,7,,,\n" +
+                "SKU-BAD,Broken,-3,,,\n" +
+                ",No sku,1,,,\n" +
+                "SKU-DATE,Bad date,1,,,31/01/2030\n" +
+                "SKU-NEW,Bolt again,11,,,\n" +
+                "SKU-ML,\"two\nlines\",5,,,\n";
+
+        InventoryImportResponse result = importService.importCsv(stream(csv));
+
+        assertEquals(7, result.getRowsRead());
+        assertEquals(2, result.getInserted());
+        assertEquals(2, result.getUpdated());
+        assertEquals(3, result.getFailed());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertEquals("SKU-BAD", result.getErrors().get(0).getSkuCode());
+        assertEquals("quantityAvailable cannot be negative", result.getErrors().get(0).getMessage());
+        assertEquals("SKU code is required", result.getErrors().get(1).getMessage());
+        assertEquals(6, result.getErrors().get(2).getLine());
+
+        InventoryItem updated = repository.findBySkuCode("SKU-OLD").orElseThrow();
+        assertEquals("New name", updated.getName());
+        assertEquals(7, updated.getQuantityAvailable());
+        assertEquals(4, updated.getReorderLevel());        // empty cell keeps the current value
+        assertEquals("WH-1", updated.getLocation());
+
+        InventoryItem repeated = repository.findBySkuCode("SKU-NEW").orElseThrow();
+        assertEquals("Bolt again", repeated.getName());    // later row in the file wins
+        assertEquals(11, repeated.getQuantityAvailable());
+        assertEquals(LocalDate.of(2030, 1, 31), repeated.getExpiryDate());
+        assertEquals("two\nlines", repository.findBySkuCode("SKU-ML").orElseThrow().getName());
+    }
+
+    @Test
+    void rowRejectedByTheDatabaseDoesNotSinkItsBatch() throws Exception {
+        String tooLong = "x".repeat(300);
+        String csv = "skuCode,name,quantityAvailable\nSKU-1,One,1\nSKU-2," + tooLong + ",2\nSKU-3,Three,3\n";
+
+        InventoryImportResponse result = importService.importCsv(stream(csv));
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals("SKU-2", result.getErrors().get(0).getSkuCode());
+        assertTrue(repository.findBySkuCode("SKU-3").isPresent());
+    }
+
+    @Test
+    void unterminatedQuoteIsReportedAsTheLastFailedRow() throws Exception {
+        String csv = "skuCode,name,quantityAvailable\nSKU-1,One,1\nSKU-2,\"Two,2\nSKU-3,Three,3\n";
+
+        InventoryImportResponse result = importService.importCsv(stream(csv));
+
+        assertEquals(2, result.getRowsRead());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Unterminated quoted field"));
+        assertTrue(repository.findBySkuCode("SKU-1").isPresent());
+        assertTrue(repository.findBySkuCode("SKU-3").isEmpty());
+    }
+
+    @Test
+    void rejectsFileWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(stream("skuCode,name\nA,B\n")));
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(stream("")));
+    }
+
+    /**
+     * Rough rows/sec on embedded H2, compared with one repository.save per item
+     * (what onboarding through POST /api/inventory amounts to). Only counts are asserted.
+     */
+    @Test
+    void measuresThroughput() throws Exception {
+        int rows = 100_000;
+
+        InventoryImportResponse inserted = importService.importCsv(generated(rows));
+        InventoryImportResponse updated = importService.importCsv(generated(rows));
+
+        assertEquals(rows, inserted.getInserted());
+        assertEquals(rows, updated.getUpdated());
+        assertEquals(0, inserted.getFailed() + updated.getFailed());
+
+        int perItem = 5_000;
+        long began = System.nanoTime();
+        for (int i = 0; i < perItem; i++) {
+            InventoryItem item = new InventoryItem();
+            item.setSkuCode("SAVE-" + i);
+            item.setName("Item " + i);
+            item.setQuantityAvailable(i % 500);
+            repository.save(item);
+        }
+        double perItemRate = perItem / ((System.nanoTime() - began) / 1e9);
+
+        System.out.printf("csv import (insert): %d rows/s%n", inserted.getRowsPerSecond());
+        System.out.printf("csv import (update): %d rows/s%n", updated.getRowsPerSecond());
+        System.out.printf("repository.save:     %.0f rows/s%n", perItemRate);
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Builds the file chunk by chunk so the test does not hold it all in memory either
+    private static InputStream generated(int rows) {
+        int chunk = 10_000;
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (!hasMoreElements()) {
+                    throw new NoSuchElementException();
+                }
+                StringBuilder sb = new StringBuilder();
+                if (next < 0) {
+                    sb.append("skuCode,name,quantityAvailable,reorderLevel,location,expiryDate\n");
+                    next = 0;
+                }
+                for (int end = Math.min(rows, next + chunk); next < end; next++) {
+                    sb.append("BULK-").append(next).append(",Item ").append(next).append(',')
+                            .append(next % 500).append(",10,WH-").append(next % 7).append(",2030-01-01\n");
+                }
+                return stream(sb.toString());
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+}
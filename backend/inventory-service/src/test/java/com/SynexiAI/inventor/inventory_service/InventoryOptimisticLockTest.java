@@ -0,0 +1,108 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.exception.InventoryConflictException;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventoryWriteRetry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@InventoryServiceSlice(properties = {"inventory.write.max-attempts=3", "inventory.write.backoff=1ms"})
+class InventoryOptimisticLockTest {
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private InventoryWriteRetry writeRetry;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        meterRegistry.clear();
+    }
+
+    @Test
+    void editBasedOnAStaleReadDoesNotOverwriteADeduction() {
+        InventoryItemDto read = create("SKU-V", 10);
+        assertTrue(service.deductStock("SKU-V", 4));
+
+        InventoryItemDto edit = copy(read);
+        edit.setName("Renamed");
+        assertThrows(InventoryConflictException.class, () -> service.updateItem(read.getId(), edit));
+
+        assertEquals(6, repository.findBySkuCode("SKU-V").orElseThrow().getQuantityAvailable());
+        assertEquals(1.0, meterRegistry.get("inventory.write.conflicts")
+                .tags("sku", "SKU-V", "source", "client").counter().count());
+    }
+
+    @Test
+    void editBasedOnTheCurrentVersionAppliesAndBumpsIt() {
+        create("SKU-V", 10);
+        assertTrue(service.deductStock("SKU-V", 4));
+        InventoryItemDto current = service.getItemBySkuCode("SKU-V");
+
+        InventoryItemDto edit = copy(current);
+        edit.setName("Renamed");
+        InventoryItemDto updated = service.updateItem(current.getId(), edit);
+
+        assertEquals("Renamed", updated.getName());
+        assertEquals(current.getVersion() + 1, updated.getVersion());
+        assertEquals(6, updated.getQuantityAvailable());
+    }
+
+    @Test
+    void internalWriteRetriesUntilItStopsConflicting() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = writeRetry.execute("SKU-HOT", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("lost the race");
+            }
+            return "written";
+        });
+
+        assertEquals("written", result);
+        assertEquals(2.0, meterRegistry.get("inventory.write.retries").tag("sku", "SKU-HOT").counter().count());
+        assertEquals(2.0, meterRegistry.get("inventory.write.conflicts")
+                .tags("sku", "SKU-HOT", "source", "internal").counter().count());
+    }
+
+    @Test
+    void internalWriteGivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(InventoryConflictException.class, () -> writeRetry.execute("SKU-HOT", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("lost the race");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("inventory.write.retries.exhausted").tag("sku", "SKU-HOT").counter().count());
+    }
+
+    private InventoryItemDto create(String sku, int available) {
+        return service.createItem(InventoryItemDto.builder().skuCode(sku).name("Item " + sku)
+                .quantityAvailable(available).quantityReserved(0).reorderLevel(0).build());
+    }
+
+    private static InventoryItemDto copy(InventoryItemDto dto) {
+        return InventoryItemDto.builder().id(dto.getId()).skuCode(dto.getSkuCode()).name(dto.getName())
+                .quantityAvailable(dto.getQuantityAvailable()).quantityReserved(dto.getQuantityReserved())
+                .reorderLevel(dto.getReorderLevel()).version(dto.getVersion()).build();
+    }
+}
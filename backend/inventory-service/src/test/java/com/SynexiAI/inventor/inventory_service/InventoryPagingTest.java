@@ -0,0 +1,87 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.InventoryPage;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@InventoryServiceSlice
+class InventoryPagingTest {
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        for (int i = 25; i >= 1; i--) {
+            InventoryItem item = new InventoryItem();
+            item.setSkuCode(String.format("SKU-%03d", i));
+            item.setName("Item " + i);
+            item.setQuantityAvailable(i);
+            item.setReorderLevel(0);
+            repository.save(item);
+        }
+    }
+
+    @Test
+    void walksEveryRowOnceById() {
+        List<InventoryItemDto> seen = walk("id", 10);
+
+        assertEquals(25, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).getId() < seen.get(i).getId());
+        }
+    }
+
+    @Test
+    void walksEveryRowOnceBySku() {
+        List<InventoryItemDto> seen = walk("skuCode", 7);
+
+        assertEquals(25, seen.size());
+        assertEquals("SKU-001", seen.get(0).getSkuCode());
+        assertEquals("SKU-025", seen.get(24).getSkuCode());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        InventoryPage page = service.getPage(null, 25, "id");
+
+        assertEquals(25, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSort() {
+        String cursor = service.getPage(null, 5, "id").getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(cursor, 5, "skuCode"));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage("not-a-cursor", 5, "id"));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, 5, "name"));
+    }
+
+    private List<InventoryItemDto> walk(String sort, int size) {
+        List<InventoryItemDto> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            InventoryPage page = service.getPage(cursor, size, sort);
+            assertTrue(page.getItems().size() <= size);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+}
@@ -0,0 +1,124 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.event.InventoryChangedEvent;
+import com.SynexiAI.inventor.service.InventorySearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventorySearchIndexTest {
+
+    private InventorySearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new InventorySearchIndex(null);
+        index.put(1, "BOLT-100", "Hex bolt 10mm", "WH-A aisle 3");
+        index.put(2, "BOLT-200", "Carriage bolt", "WH-B");
+        index.put(3, "NUT-100", "Hex nut for bolt-100", "WH-A");
+        index.put(4, "WASHER-1", "Spring washer", "Overflow");
+    }
+
+    @Test
+    void ranksExactSkuThenPrefixThenSubstring() {
+        InventorySearchIndex.Hits hits = index.search("bolt-100", 0, 10);
+
+        assertEquals(List.of(1L, 3L), hits.ids());      // exact SKU first, name substring after
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("bolt", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("ASHE", 0, 10).ids());   // case-insensitive substring
+    }
+
+    @Test
+    void shortTermsMatchWordPrefixes() {
+        assertEquals(List.of(1L, 3L), index.search("he", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("o", 0, 10).ids());
+        assertTrue(index.search("ol", 0, 10).ids().isEmpty());     // substring, but not a word start
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        assertEquals(List.of(1L, 3L), index.search("hex wh-a", 0, 10).ids());
+        assertEquals(List.of(3L), index.search("hex nut", 0, 10).ids());
+        assertTrue(index.search("hex zzz", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void paginatesRankedResults() {
+        InventorySearchIndex.Hits first = index.search("wh", 0, 2);
+        InventorySearchIndex.Hits second = index.search("wh", 2, 2);
+
+        assertEquals(3, first.total());
+        assertEquals(2, first.ids().size());
+        assertEquals(1, second.ids().size());
+        assertFalse(first.ids().contains(second.ids().get(0)));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        InventoryItemDto renamed = InventoryItemDto.builder().id(2L).skuCode("ANCHOR-9").name("Wall anchor")
+                .location("WH-C").quantityAvailable(1).build();
+        index.onInventoryChanged(InventoryChangedEvent.updated(renamed, "BOLT-200"));
+        index.onInventoryChanged(InventoryChangedEvent.deleted(4L, "WASHER-1"));
+
+        assertEquals(List.of(1L, 3L), index.search("bolt", 0, 10).ids());
+        assertEquals(List.of(2L), index.search("anchor", 0, 10).ids());
+        assertTrue(index.search("washer", 0, 10).ids().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void compactionKeepsResults() {
+        for (int round = 0; round < 5; round++) {
+            for (long id = 100; id < 1_100; id++) {
+                index.put(id, "TMP-" + id, "Temporary " + round, "WH-T");
+            }
+        }
+        for (long id = 100; id < 1_100; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(1L, 2L, 3L), index.search("bolt", 0, 10).ids());
+        assertTrue(index.search("temporary", 0, 10).ids().isEmpty());
+    }
+
+    /** Query latency over 500k synthetic items; printed for reference, correctness asserted. */
+    @Test
+    void measuresLatencyAtFiveHundredThousandItems() {
+        String[] nouns = {"bolt", "nut", "washer", "screw", "anchor", "bracket", "hinge", "gasket", "spring", "rivet"};
+        String[] adjectives = {"hex", "steel", "brass", "zinc", "nylon", "large", "small", "metric", "imperial", "coated"};
+        InventorySearchIndex big = new InventorySearchIndex(null);
+        for (int i = 0; i < 500_000; i++) {
+            big.put(i, String.format("SKU-%06d", i),
+                    adjectives[i % 10] + " " + nouns[(i / 10) % 10] + " " + (i % 97) + "mm",
+                    "WH-" + (i % 20) + " aisle " + (i % 50));
+        }
+
+        String[] queries = {"SKU-012345", "sku-0123", "brass hinge", "gasket", "aisle 7", "rivet 42mm", "st", "zzz"};
+        for (String query : queries) {
+            big.search(query, 0, 20);       // warm up
+        }
+        long[] micros = new long[queries.length * 20];
+        int n = 0;
+        for (int round = 0; round < 20; round++) {
+            for (String query : queries) {
+                long began = System.nanoTime();
+                big.search(query, 0, 20);
+                micros[n++] = (System.nanoTime() - began) / 1_000;
+            }
+        }
+        Arrays.sort(micros);
+
+        assertEquals(List.of(12345L), big.search("SKU-012345", 0, 20).ids());
+        assertEquals(5_000, big.search("brass hinge", 0, 20).total());
+        System.out.printf("search over 500k items: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                micros[micros.length / 2] / 1000.0, micros[micros.length * 99 / 100] / 1000.0,
+                micros[micros.length - 1] / 1000.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.service.AvailabilityIndex;
+import com.SynexiAI.inventor.service.ChangeSequence;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+import com.SynexiAI.inventor.service.InventorySearchIndex;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventoryWriteRetry;
+import com.SynexiAI.inventor.service.LowStockIndex;
+import com.SynexiAI.inventor.service.LowStockNotifier;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code @DataJpaTest} with {@link InventoryService} and the indexes it keeps
+ * current, {@link InventoryFixtures} for seeding, and a mock
+ * {@link LowStockNotifier} (autowire it to verify alerts). Tests run outside a
+ * transaction so every write commits as it would in production. Classes that
+ * need more beans add their own {@code @Import}; both lists apply.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@Import({InventoryService.class, InventoryMappingService.class, LowStockIndex.class, InventorySearchIndex.class,
+        ChangeSequence.class, InventoryWriteRetry.class, SkuExistenceFilter.class, AvailabilityIndex.class,
+        SimpleMeterRegistry.class, InventoryFixtures.class})
+@MockitoBean(types = LowStockNotifier.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@interface InventoryServiceSlice {
+
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
@@ -1,10 +1,16 @@
 package com.SynexiAI.inventor.inventory_service;
 
 import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.InventorySearchResult;
 import com.SynexiAI.inventor.model.InventoryItem;
 import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.ChangeSequence;
 import com.SynexiAI.inventor.service.InventoryMappingService;
+import com.SynexiAI.inventor.service.InventorySearchIndex;
 import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventoryWriteRetry;
+import com.SynexiAI.inventor.service.LowStockNotifier;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -12,9 +18,15 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +39,27 @@ class InventoryServiceTest {
     @Mock
     private InventoryMappingService mapper;
 
+    @Mock
+    private LowStockNotifier lowStockNotifier;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeSequence changeSequence;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private InventoryWriteRetry writeRetry;
+
+    @Mock
+    private SkuExistenceFilter skuFilter;
+
+    @Mock
+    private InventorySearchIndex searchIndex;
+
     @InjectMocks
     private InventoryService service;
 
@@ -48,6 +81,12 @@ class InventoryServiceTest {
 
         when(mapper.toEntity(dto)).thenReturn(item);
         when(mapper.toDto(item)).thenReturn(dto);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(call -> call.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(writeRetry.execute(any(), any())).thenAnswer(call -> call.<Supplier<?>>getArgument(1).get());
+        when(skuFilter.mightExist(any())).thenReturn(true);
+        ReflectionTestUtils.setField(service, "maxPageSize", 500);
+        ReflectionTestUtils.setField(service, "maxSearchOffset", 10_000);
     }
 
     @Test
@@ -136,6 +175,49 @@ class InventoryServiceTest {
         assertEquals("Item not found with SKU code: " + sku, exception.getMessage());
     }
 
+    @Test
+    void testDeductStock() {
+        item.setQuantityAvailable(8);
+        item.setReorderLevel(2);
+
+        when(repository.deductIfAvailable(eq("SKU-001"), eq(2), anyLong())).thenReturn(1);
+        when(repository.findBySkuCode("SKU-001")).thenReturn(Optional.of(item));
+
+        assertTrue(service.deductStock("SKU-001", 2));
+        verify(repository).deductIfAvailable(eq("SKU-001"), eq(2), anyLong());
+        verify(lowStockNotifier).notifyIfLow("SKU-001", 8, 2);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testDeductStockInsufficient() {
+        item.setQuantityAvailable(1);
+
+        when(repository.deductIfAvailable(eq("SKU-001"), eq(5), anyLong())).thenReturn(0);
+        when(repository.findBySkuCode("SKU-001")).thenReturn(Optional.of(item));
+
+        assertFalse(service.deductStock("SKU-001", 5));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testSearchFallbackMatchesWildcardsLiterallyAndCountsEveryMatch() {
+        when(searchIndex.isReady()).thenReturn(false);
+        when(repository.searchByText(eq("%sku!_1!%%"), any())).thenReturn(List.of(item));
+        when(repository.countByText("%sku!_1!%%")).thenReturn(42L);
+
+        InventorySearchResult result = service.search("SKU_1%", 0, 10);
+
+        assertEquals(42, result.getTotal());
+        assertEquals(1, result.getItems().size());
+    }
+
+    @Test
+    void testSearchRejectsOffsetsPastTheCap() {
+        assertThrows(IllegalArgumentException.class, () -> service.search("item", Integer.MAX_VALUE - 5, 10));
+        verifyNoInteractions(searchIndex);
+    }
+
     @Test
     void testObjectMapperWithLocalDate() throws JsonProcessingException {
         ObjectMapper mapper = new ObjectMapper();
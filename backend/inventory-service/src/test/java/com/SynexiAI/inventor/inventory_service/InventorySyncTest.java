@@ -0,0 +1,187 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryChanges;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.InventoryTombstoneRepository;
+import com.SynexiAI.inventor.service.ChangeSequence;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventorySyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@InventoryServiceSlice
+@Import(InventorySyncService.class)
+@TestPropertySource(properties = "inventory.sync.commit-lag=0s")
+class InventorySyncTest {
+
+    @Autowired
+    private InventorySyncService syncService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void returnsOnlyWhatChangedIncludingDeletes() {
+        long start = syncService.getChanges(0, 500).getNextSince();
+        create("SKU-A", 10);
+        InventoryItemDto b = create("SKU-B", 10);
+        InventoryItemDto c = create("SKU-C", 10);
+        assertTrue(inventoryService.deductStock("SKU-A", 3));
+        inventoryService.deleteItem(c.getId());
+
+        InventoryChanges changes = syncService.getChanges(start, 500);
+        assertEquals(List.of("SKU-B", "SKU-A"), changes.getUpserts().stream().map(InventoryItemDto::getSkuCode).toList());
+        assertEquals(7, changes.getUpserts().get(1).getQuantityAvailable());
+        assertEquals(1, changes.getDeletes().size());
+        assertEquals(c.getId(), changes.getDeletes().get(0).getId());
+        assertFalse(changes.isHasMore());
+
+        // Caught up: nothing new until the next write, then only that row
+        long since = changes.getNextSince();
+        assertTrue(syncService.getChanges(since, 500).getUpserts().isEmpty());
+        assertTrue(inventoryService.deductStock("SKU-B", 1));
+        InventoryChanges next = syncService.getChanges(since, 500);
+        assertEquals(List.of(b.getId()), next.getUpserts().stream().map(InventoryItemDto::getId).toList());
+        assertTrue(next.getDeletes().isEmpty());
+    }
+
+    @Test
+    void pagesWithoutGapsOrRepeats() {
+        long start = syncService.getChanges(0, 500).getNextSince();
+        for (int i = 0; i < 7; i++) {
+            create("SKU-P" + i, 5);
+        }
+        InventoryItemDto gone = create("SKU-GONE", 5);
+        inventoryService.deleteItem(gone.getId());
+
+        Set<String> seen = new HashSet<>();
+        int deletes = 0;
+        long since = start;
+        InventoryChanges page;
+        do {
+            page = syncService.getChanges(since, 3);
+            assertTrue(page.getUpserts().size() + page.getDeletes().size() <= 3);
+            page.getUpserts().forEach(item -> assertTrue(seen.add(item.getSkuCode())));
+            deletes += page.getDeletes().size();
+            since = page.getNextSince();
+        } while (page.isHasMore());
+
+        assertEquals(7, seen.size());
+        assertEquals(1, deletes);
+    }
+
+    @Test
+    void withholdsChangesNewerThanAnOpenTransaction() throws Exception {
+        create("SKU-SLOW", 10);
+        create("SKU-FAST", 10);
+        long since = syncService.getChanges(0, 500).getNextSince();
+
+        CountDownLatch stamped = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    repository.deductIfAvailable("SKU-SLOW", 1, changeSequence.next());
+                    stamped.countDown();
+                    await(release);
+                }));
+        assertTrue(stamped.await(5, TimeUnit.SECONDS));
+
+        // A later change commits first, but its number is above the open transaction's
+        assertTrue(inventoryService.deductStock("SKU-FAST", 1));
+        assertTrue(syncService.getChanges(since, 500).getUpserts().isEmpty());
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        List<String> skus = syncService.getChanges(since, 500).getUpserts().stream()
+                .map(InventoryItemDto::getSkuCode).toList();
+        assertEquals(List.of("SKU-SLOW", "SKU-FAST"), skus);
+    }
+
+    @Test
+    void waitsOutTheCommitLagForSlowerCommitsOnOtherInstances() throws Exception {
+        long base = new TransactionTemplate(transactionManager).execute(status -> changeSequence.next());
+        ReflectionTestUtils.invokeMethod(syncService, "setCommitLag", Duration.ofMillis(500));
+        try {
+            insertElsewhere("SKU-FAST", base + 2_000_000);
+            assertTrue(syncService.getChanges(0, 500).getUpserts().isEmpty());
+
+            // Stamped before SKU-FAST by another instance, committed after it was visible
+            insertElsewhere("SKU-SLOW", base + 1_000_000);
+            Thread.sleep(600);
+            List<String> skus = syncService.getChanges(0, 500).getUpserts().stream()
+                    .map(InventoryItemDto::getSkuCode).toList();
+            assertEquals(List.of("SKU-SLOW", "SKU-FAST"), skus);
+        } finally {
+            ReflectionTestUtils.invokeMethod(syncService, "setCommitLag", Duration.ZERO);
+        }
+    }
+
+    @Test
+    void backfillStampsRowsWrittenBeforeTheSequence() {
+        jdbcTemplate.update("insert into inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                "reorder_level) values ('SKU-OLD', 'Legacy row', 4, 0, 0)");
+
+        syncService.stampUnversionedRows();
+
+        assertNotNull(repository.findBySkuCode("SKU-OLD").orElseThrow().getChangeSeq());
+        assertTrue(syncService.getChanges(0, 500).getUpserts().stream()
+                .anyMatch(item -> item.getSkuCode().equals("SKU-OLD")));
+    }
+
+    private void insertElsewhere(String sku, long changeSeq) {
+        jdbcTemplate.update("insert into inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                "reorder_level, change_seq, version) values (?, 'Other', 3, 0, 0, ?, 0)", sku, changeSeq);
+    }
+
+    private InventoryItemDto create(String sku, int available) {
+        return inventoryService.createItem(InventoryItemDto.builder().skuCode(sku).name("Item " + sku)
+                .quantityAvailable(available).quantityReserved(0).reorderLevel(0).build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+
+/**
+ * Boot configuration picked up by slice tests ({@code @DataJpaTest} etc.) so
+ * entities and repositories under {@code com.SynexiAI.inventor} are found.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@AutoConfigurationPackage(basePackages = "com.SynexiAI.inventor")
+public class InventoryTestApplication {
+}
@@ -0,0 +1,143 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.NotificationRequest;
+import com.SynexiAI.inventor.model.AlertStatus;
+import com.SynexiAI.inventor.model.LowStockAlert;
+import com.SynexiAI.inventor.repository.LowStockAlertRepository;
+import com.SynexiAI.inventor.service.LowStockAlertPublisher;
+import com.SynexiAI.inventor.service.LowStockNotifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({LowStockNotifier.class, LowStockAlertPublisher.class})
+@TestPropertySource(properties = {"inventory.alerts.max-attempts=2", "inventory.alerts.retry-backoff=0s"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LowStockAlertOutboxTest {
+
+    @Autowired
+    private LowStockNotifier notifier;
+
+    @Autowired
+    private LowStockAlertPublisher publisher;
+
+    @Autowired
+    private LowStockAlertRepository alertRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setup() {
+        alertRepository.deleteAll();
+    }
+
+    @Test
+    void hotSkuQueuesOneAlertPerWindow() {
+        for (int available = 99; available >= 0; available--) {
+            notifier.notifyIfLow("SKU-HOT", available, 100);
+        }
+        notifier.notifyIfLow("SKU-FINE", 50, 10);
+
+        List<LowStockAlert> alerts = alertRepository.findAll();
+        assertEquals(1, alerts.size());
+        assertEquals("SKU-HOT", alerts.get(0).getSkuCode());
+        assertEquals(99, alerts.get(0).getQuantityAvailable());
+        verifyNoInteractions(restTemplate);     // nothing is sent on the caller's thread
+    }
+
+    @Test
+    void alertsAreQueuedOnlyAfterTheDeductionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            notifier.notifyIfLow("SKU-ROLLBACK", 1, 5);
+            assertEquals(0, alertRepository.count());
+            status.setRollbackOnly();
+        });
+        assertEquals(0, alertRepository.count());
+
+        // The rolled-back deduction did not use up the SKU's dedupe window
+        transactionTemplate.executeWithoutResult(status -> notifier.notifyIfLow("SKU-ROLLBACK", 1, 5));
+        assertEquals(1, alertRepository.count());
+    }
+
+    @Test
+    void aFailingOutboxDoesNotFailTheDeduction() {
+        jdbcTemplate.execute("alter table low_stock_alerts rename to low_stock_alerts_away");
+        try {
+            assertDoesNotThrow(() -> transactionTemplate.executeWithoutResult(status ->
+                    notifier.notifyIfLow("SKU-OUTBOX-DOWN", 1, 5)));
+        } finally {
+            jdbcTemplate.execute("alter table low_stock_alerts_away rename to low_stock_alerts");
+        }
+        notifier.notifyIfLow("SKU-OUTBOX-DOWN", 1, 5);
+        assertEquals(1, alertRepository.count());
+    }
+
+    @Test
+    void publisherDeliversPendingAlerts() {
+        when(restTemplate.postForEntity(anyString(), any(), eq(Void.class))).thenAnswer(invocation -> {
+            // Claimed and recorded in short transactions, sent outside both
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        });
+        notifier.notifyIfLow("SKU-SEND", 1, 5);
+
+        publisher.publishPending();
+
+        ArgumentCaptor<NotificationRequest> sent = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(restTemplate).postForEntity(anyString(), sent.capture(), eq(Void.class));
+        assertEquals("LOW_STOCK", sent.getValue().getType());
+        assertTrue(sent.getValue().getMessage().contains("SKU-SEND"));
+
+        LowStockAlert alert = alertRepository.findAll().get(0);
+        assertEquals(AlertStatus.SENT, alert.getStatus());
+        assertNotNull(alert.getSentAt());
+
+        publisher.publishPending();
+        verifyNoMoreInteractions(restTemplate);
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedThenParked() {
+        when(restTemplate.postForEntity(anyString(), any(), eq(Void.class)))
+                .thenThrow(new ResourceAccessException("connection refused"));
+        notifier.notifyIfLow("SKU-DOWN", 0, 5);
+
+        publisher.publishPending();
+        LowStockAlert afterFirst = alertRepository.findAll().get(0);
+        assertEquals(AlertStatus.PENDING, afterFirst.getStatus());
+        assertEquals(1, afterFirst.getAttempts());
+        assertFalse(afterFirst.getNextAttemptAt().isAfter(Instant.now()));
+
+        publisher.publishPending();
+        LowStockAlert parked = alertRepository.findAll().get(0);
+        assertEquals(AlertStatus.FAILED, parked.getStatus());
+        assertEquals("connection refused", parked.getLastError());
+    }
+}
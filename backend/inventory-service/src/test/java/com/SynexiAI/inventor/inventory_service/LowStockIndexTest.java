@@ -0,0 +1,81 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.LowStockItemDto;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.LowStockIndex;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@InventoryServiceSlice
+class LowStockIndexTest {
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private LowStockIndex index;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    @Autowired
+    private SkuExistenceFilter skuFilter;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        fixtures.seed("SKU-A", 10, 5);
+        fixtures.seed("SKU-B", 2, 5);
+        fixtures.seed("SKU-C", 0, 10);
+        index.load();
+        skuFilter.rebuild();
+    }
+
+    @Test
+    void loadsOnlyLowItemsOrderedByShortfall() {
+        assertEquals(List.of("SKU-C", "SKU-B"), skus(index.top(10)));
+        assertEquals(10, index.top(1).get(0).getShortfall());
+    }
+
+    @Test
+    void followsDeductionsUpdatesAndDeletes() {
+        service.deductStock("SKU-A", 8);             // 2 left against 5 -> joins behind SKU-C, tied with SKU-B
+        assertEquals(List.of("SKU-C", "SKU-A", "SKU-B"), skus(index.top(10)));
+
+        InventoryItem c = repository.findBySkuCode("SKU-C").orElseThrow();
+        InventoryItemDto restocked = InventoryItemDto.builder().skuCode("SKU-C").name("Item SKU-C")
+                .quantityAvailable(50).quantityReserved(0).reorderLevel(10).build();
+        service.updateItem(c.getId(), restocked);
+        assertEquals(List.of("SKU-A", "SKU-B"), skus(index.top(10)));
+
+        service.deleteItem(repository.findBySkuCode("SKU-B").orElseThrow().getId());
+        assertEquals(List.of("SKU-A"), skus(index.top(10)));
+        assertEquals("Item SKU-A", index.top(1).get(0).getName());
+    }
+
+    @Test
+    void serviceFallsBackToTheDatabaseWithTheSameOrder() {
+        assertEquals(skus(index.top(10)), skus(repository.findLowStock(Limit.of(10))
+                .stream().map(i -> new LowStockItemDto(i.getId(), i.getSkuCode(), i.getName(),
+                        i.getQuantityAvailable(), i.getReorderLevel(), i.getReorderLevel() - i.getQuantityAvailable()))
+                .toList()));
+        assertEquals(1, service.getLowStock(1).size());
+    }
+
+    private static List<String> skus(List<LowStockItemDto> items) {
+        return items.stream().map(LowStockItemDto::getSkuCode).toList();
+    }
+}
@@ -0,0 +1,195 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.config.ReadReplicaConfig;
+import com.SynexiAI.inventor.config.ReplicaLagMonitor;
+import com.SynexiAI.inventor.dto.InventoryChanges;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.exception.ItemNotFoundException;
+import com.SynexiAI.inventor.service.InventoryCacheSynchronizer;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventorySyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica. Nothing
+ * replicates between them: the test copies the schema over once and then plays
+ * replication by hand, so each database's contents show where a query went.
+ */
+@InventoryServiceSlice(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "inventory.datasource.replica.url=jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1",
+        "inventory.datasource.replica.max-staleness=5s",
+        "inventory.sync.commit-lag=0s"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaConfig.class, InventoryCacheSynchronizer.class, InventorySyncService.class,
+        ReadReplicaRoutingTest.Caching.class})
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private InventorySyncService syncService;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setup() {
+        primary = new JdbcTemplate(primaryDataSource);
+        primary.update("delete from inventory_items");
+        // The replica pool is read-only; the test plays replication through a connection of its own
+        replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1", "sa", ""));
+        if (replica.queryForObject("select count(*) from information_schema.tables where lower(table_name) = 'inventory_items'",
+                Integer.class) == 0) {
+            for (String ddl : primary.queryForList("script nodata", String.class)) {
+                if (ddl.startsWith("CREATE MEMORY TABLE") || ddl.startsWith("CREATE CACHED TABLE")
+                        || ddl.startsWith("CREATE SEQUENCE") || ddl.startsWith("ALTER TABLE")) {
+                    replica.execute(ddl);
+                }
+            }
+        }
+        replica.update("delete from inventory_items");
+    }
+
+    @Test
+    void readOnlyWorkGoesToAFreshReplica() {
+        InventoryItemDto created = createAndReplicate("SKU-R", 10);
+        replica.update("update inventory_items set name = 'as seen by the replica' where sku_code = 'SKU-R'");
+        replicateHeartbeat(0);
+
+        assertEquals("as seen by the replica", service.getAllItems().get(0).getName());
+    }
+
+    @Test
+    void cachedLookupsReadThePrimary() {
+        InventoryItemDto created = createAndReplicate("SKU-C", 10);
+        replica.update("update inventory_items set name = 'as seen by the replica' where sku_code = 'SKU-C'");
+        replicateHeartbeat(0);
+
+        assertEquals("Item SKU-C", service.getItemBySkuCode("SKU-C").getName());
+        assertEquals("Item SKU-C", service.getItem(created.getId()).getName());
+        assertEquals("Item SKU-C", service.getPage(null, 10, "id").getItems().get(0).getName());
+    }
+
+    @Test
+    void theChangesFeedReadsThePrimary() {
+        createAndReplicate("SKU-F", 10);
+        replicateHeartbeat(0);
+        // A later write the fresh replica has not applied yet
+        assertTrue(service.deductStock("SKU-F", 3));
+
+        InventoryChanges changes = syncService.getChanges(0, 10);
+        assertEquals(1, changes.getUpserts().size());
+        assertEquals(7, changes.getUpserts().get(0).getQuantityAvailable());
+    }
+
+    @Test
+    void aDeleteTheReplicaHasNotSeenIsNotCached() {
+        InventoryItemDto created = createAndReplicate("SKU-D", 10);
+        replicateHeartbeat(0);
+        assertEquals(10, service.getItemBySkuCode("SKU-D").getQuantityAvailable());
+
+        // The replica is within max-staleness but still has the row
+        service.deleteItem(created.getId());
+        assertTrue(monitor.isFresh());
+        assertEquals(1, replica.queryForObject("select count(*) from inventory_items where sku_code = 'SKU-D'", Integer.class));
+
+        assertThrows(ItemNotFoundException.class, () -> service.getItemBySkuCode("SKU-D"));
+        assertThrows(RuntimeException.class, () -> service.getItem(created.getId()));
+        assertNull(cacheManager.getCache(InventoryCacheSynchronizer.SKU_CACHE).get("SKU-D"));
+        assertNull(cacheManager.getCache(InventoryCacheSynchronizer.ITEM_CACHE).get(created.getId()));
+    }
+
+    @Test
+    void writesAlwaysGoToThePrimary() {
+        createAndReplicate("SKU-W", 10);
+        replicateHeartbeat(0);
+
+        assertTrue(service.deductStock("SKU-W", 4));
+
+        assertEquals(6, primary.queryForObject("select quantity_available from inventory_items where sku_code = 'SKU-W'", Integer.class));
+        assertEquals(10, replica.queryForObject("select quantity_available from inventory_items where sku_code = 'SKU-W'", Integer.class));
+        // and the replica keeps serving read-only work until replication catches up
+        assertEquals(10, service.getAllItems().get(0).getQuantityAvailable());
+    }
+
+    @Test
+    void staleReplicaFallsBackToThePrimary() {
+        createAndReplicate("SKU-S", 10);
+        replica.update("update inventory_items set name = 'as seen by the replica' where sku_code = 'SKU-S'");
+        replicateHeartbeat(60_000);
+
+        assertFalse(monitor.isFresh());
+        assertTrue(monitor.getLagMillis() >= 60_000);
+        assertEquals("Item SKU-S", service.getAllItems().get(0).getName());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        createAndReplicate("SKU-U", 10);
+        replica.update("update inventory_items set name = 'as seen by the replica' where sku_code = 'SKU-U'");
+        replica.execute("drop table if exists replica_heartbeat");
+        monitor.check();
+
+        assertFalse(monitor.isFresh());
+        assertEquals(-1, monitor.getLagMillis());
+        assertEquals("Item SKU-U", service.getAllItems().get(0).getName());
+    }
+
+    @TestConfiguration
+    @EnableCaching
+    static class Caching {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(InventoryCacheSynchronizer.ITEM_CACHE,
+                    InventoryCacheSynchronizer.SKU_CACHE, InventoryCacheSynchronizer.PAGE_CACHE);
+        }
+    }
+
+    private InventoryItemDto createAndReplicate(String sku, int quantity) {
+        InventoryItemDto created = service.createItem(InventoryItemDto.builder()
+                .skuCode(sku).name("Item " + sku).quantityAvailable(quantity).reorderLevel(0).build());
+        new SimpleJdbcInsert(replica).withTableName("inventory_items")
+                .execute(primary.queryForMap("select * from inventory_items where sku_code = ?", sku));
+        return created;
+    }
+
+    // The replica's copy of the heartbeat row, as if replication were lagMillis behind
+    private void replicateHeartbeat(long lagMillis) {
+        replica.execute("create table if not exists replica_heartbeat (id int primary key, beat_millis bigint not null)");
+        replica.update("delete from replica_heartbeat");
+        replica.update("insert into replica_heartbeat (id, beat_millis) values (1, ?)", System.currentTimeMillis() - lagMillis);
+        monitor.check();
+    }
+}
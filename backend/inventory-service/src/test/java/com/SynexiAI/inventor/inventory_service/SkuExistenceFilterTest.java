@@ -0,0 +1,149 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.cache.SkuBloomFilter;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.exception.ItemNotFoundException;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@InventoryServiceSlice
+class SkuExistenceFilterTest {
+
+    @Autowired
+    private SkuExistenceFilter filter;
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private StringRedisTemplate redis;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        fixtures.seed("SKU-A", 10);
+        filter.rebuild();
+    }
+
+    @Test
+    void unknownSkusAreRejectedWithoutAQuery() {
+        double before = rejected();
+        jdbcTemplate.execute("alter table inventory_items rename to inventory_items_away");
+        try {
+            // With the table gone a query would fail, so these answers come from the filter alone
+            assertThrows(ItemNotFoundException.class, () -> service.getItemBySkuCode("NO-SUCH-SKU"));
+            assertFalse(service.deductStock("NO-SUCH-SKU", 1));
+        } finally {
+            jdbcTemplate.execute("alter table inventory_items_away rename to inventory_items");
+        }
+        assertEquals(before + 2, rejected());
+        assertEquals(10, service.getItemBySkuCode("SKU-A").getQuantityAvailable());
+    }
+
+    @Test
+    void createdAndRenamedSkusAreAcceptedAtOnceAndDeletesDropOutOnRebuild() {
+        InventoryItemDto created = service.createItem(InventoryItemDto.builder()
+                .skuCode("SKU-NEW").name("New").quantityAvailable(5).reorderLevel(0).build());
+        assertTrue(filter.mightExist("SKU-NEW"));
+        assertTrue(service.deductStock("SKU-NEW", 1));
+
+        created.setSkuCode("SKU-RENAMED");
+        created.setVersion(null);
+        service.updateItem(created.getId(), created);
+        assertTrue(filter.mightExist("SKU-RENAMED"));
+
+        service.deleteItem(created.getId());
+        filter.rebuild();
+        assertFalse(filter.mightExist("SKU-RENAMED"));
+        assertTrue(filter.mightExist("SKU-A"));
+    }
+
+    @Test
+    void newSkusAreBroadcastAndSkusFromOtherNodesAcceptedWithoutARefresh() {
+        service.createItem(InventoryItemDto.builder()
+                .skuCode("SKU-LOCAL").name("Local").quantityAvailable(5).reorderLevel(0).build());
+        verify(redis).convertAndSend(eq("inventory:cache-invalidation"), endsWith("|S|SKU-LOCAL"));
+
+        assertFalse(filter.mightExist("SKU-REMOTE"));
+        filter.onMessage(new DefaultMessage("inventory:cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                "other-node|S|SKU-REMOTE".getBytes(StandardCharsets.UTF_8)), null);
+        assertTrue(filter.mightExist("SKU-REMOTE"));
+    }
+
+    @Test
+    void rowsWrittenElsewhereArePickedUpOnRefresh() {
+        jdbcTemplate.update("insert into inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                "reorder_level, change_seq, version) values ('SKU-OTHER-NODE', 'Other', 3, 0, 0, 1000000, 0)");
+        assertFalse(filter.mightExist("SKU-OTHER-NODE"));
+
+        filter.refresh();
+        assertTrue(filter.mightExist("SKU-OTHER-NODE"));
+    }
+
+    @Test
+    void aSlowerCommitWithASmallerChangeSeqIsNotSkipped() {
+        insertElsewhere("SKU-FAST", 2_000_000);
+        filter.refresh();
+        assertTrue(filter.mightExist("SKU-FAST"));
+
+        // Stamped before SKU-FAST by another node, committed after this node read past it
+        insertElsewhere("SKU-SLOW", 1_500_000);
+        filter.refresh();
+        assertTrue(filter.mightExist("SKU-SLOW"));
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndStaysNearItsFalsePositiveRate() {
+        SkuBloomFilter bloom = new SkuBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("SKU-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain("SKU-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloom.mightContain("MISSING-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    private double rejected() {
+        return meterRegistry.get("inventory.sku.filter.rejected").counter().count();
+    }
+
+    private void insertElsewhere(String sku, long changeSeq) {
+        jdbcTemplate.update("insert into inventory_items (sku_code, name, quantity_available, quantity_reserved, " +
+                "reorder_level, change_seq, version) values (?, 'Other', 3, 0, 0, ?, 0)", sku, changeSeq);
+    }
+}
@@ -0,0 +1,208 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.InventoryChanges;
+import com.SynexiAI.inventor.dto.InventoryDeductRequest;
+import com.SynexiAI.inventor.dto.InventoryItemDto;
+import com.SynexiAI.inventor.dto.LowStockItemDto;
+import com.SynexiAI.inventor.dto.StockMovementDto;
+import com.SynexiAI.inventor.model.MovementType;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.StockMovementRepository;
+import com.SynexiAI.inventor.service.InventoryExportService;
+import com.SynexiAI.inventor.service.InventoryService;
+import com.SynexiAI.inventor.service.InventorySyncService;
+import com.SynexiAI.inventor.service.LowStockIndex;
+import com.SynexiAI.inventor.service.SingleInstanceLease;
+import com.SynexiAI.inventor.service.SkuExistenceFilter;
+import com.SynexiAI.inventor.service.StockMovementLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@InventoryServiceSlice
+@Import({StockMovementLedger.class, InventoryExportService.class, InventorySyncService.class})
+@TestPropertySource(properties = {"inventory.movements.enabled=true", "inventory.movements.compact-batch-size=100",
+        "inventory.sync.commit-lag=0s"})
+class StockMovementLedgerTest {
+
+    @Autowired
+    private StockMovementLedger movements;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository repository;
+
+    @Autowired
+    private InventoryFixtures fixtures;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private SkuExistenceFilter skuFilter;
+
+    @Autowired
+    private InventoryExportService exportService;
+
+    @Autowired
+    private InventorySyncService syncService;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        movementRepository.deleteAll();
+        repository.deleteAll();
+        fixtures.seed("SKU-A", 500);
+        fixtures.seed("SKU-B", 50, 10);
+        skuFilter.rebuild();
+    }
+
+    @Test
+    void concurrentDeductionsNeverOversellAndLeaveTheRowAloneUntilCompaction() throws Exception {
+        AtomicInteger successes = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_200; i++) {
+            String sku = i % 2 == 0 ? "SKU-A" : "SKU-B";
+            pool.execute(() -> {
+                if (movements.deduct(sku, 1)) {
+                    successes.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(550, successes.get());
+        assertEquals(550, movementRepository.count());
+        // The rows still hold the snapshot, reads add the pending movements
+        assertEquals(500, stored("SKU-A"));
+        assertEquals(0, inventoryService.getItemBySkuCode("SKU-A").getQuantityAvailable());
+        assertEquals(0, inventoryService.getItemBySkuCode("SKU-B").getQuantityAvailable());
+
+        movements.compact();
+        assertEquals(0, stored("SKU-A"));
+        assertEquals(0, stored("SKU-B"));
+        assertEquals(0, inventoryService.getItemBySkuCode("SKU-A").getQuantityAvailable());
+        assertTrue(movementRepository.findAll().stream().allMatch(m -> m.isCompacted()));
+
+        // Folding again must not count anything twice
+        movements.compact();
+        assertEquals(0, stored("SKU-A"));
+    }
+
+    @Test
+    void everyKindOfMovementAddsUpAndIsKeptAsHistory() {
+        movements.receive("SKU-B", 10);                    // 60 available
+        assertTrue(movements.reserve("SKU-B", 15));        // 45 / 15 reserved
+        assertFalse(movements.reserve("SKU-B", 46));
+        assertTrue(movements.consumeReserved("SKU-B", 5)); // 45 / 10
+        assertTrue(movements.release("SKU-B", 10));        // 55 / 0
+        assertFalse(movements.release("SKU-B", 1));
+        assertFalse(movements.deduct("SKU-UNKNOWN", 1));
+
+        InventoryItemDto item = inventoryService.getItemBySkuCode("SKU-B");
+        assertEquals(55, item.getQuantityAvailable());
+        assertEquals(0, item.getQuantityReserved());
+
+        // An edit that sets stock outright becomes an adjustment against the balance
+        item.setQuantityAvailable(40);
+        item.setVersion(null);
+        InventoryItemDto updated = inventoryService.updateItem(item.getId(), item);
+        assertEquals(40, updated.getQuantityAvailable());
+        assertEquals(50, stored("SKU-B"));
+
+        movements.compact();
+        assertEquals(40, stored("SKU-B"));
+        List<MovementType> types = movements.history("SKU-B", 10).stream().map(StockMovementDto::getType).toList();
+        assertEquals(List.of(MovementType.ADJUSTMENT, MovementType.RESERVATION_RELEASE, MovementType.RESERVATION_COMMIT,
+                MovementType.RESERVATION, MovementType.RECEIPT), types);
+    }
+
+    @Test
+    void batchDeductionIsAllOrNothing() {
+        assertFalse(movements.deductBatch(List.of(
+                new InventoryDeductRequest("SKU-A", 100),
+                new InventoryDeductRequest("SKU-B", 51))).isSuccess());
+        assertEquals(0, movementRepository.count());
+
+        assertTrue(movements.deductBatch(List.of(
+                new InventoryDeductRequest("SKU-A", 100),
+                new InventoryDeductRequest("SKU-B", 50))).isSuccess());
+        assertEquals(400, inventoryService.getItemBySkuCode("SKU-A").getQuantityAvailable());
+        assertEquals(0, inventoryService.getItemBySkuCode("SKU-B").getQuantityAvailable());
+    }
+
+    @Test
+    void wholeRowReadersSeeBalancesBeforeCompaction() throws Exception {
+        long since = syncService.getChanges(0, 100).getNextSince();
+        assertTrue(movements.deduct("SKU-B", 45));
+
+        // Appending leaves the item row alone, change_seq included
+        assertTrue(syncService.getChanges(since, 100).getUpserts().isEmpty());
+
+        // Low stock as the fallback query sees it, and as a freshly loaded index does
+        List<LowStockItemDto> low = movements.lowStock(10);
+        assertEquals(List.of("SKU-B"), low.stream().map(LowStockItemDto::getSkuCode).toList());
+        assertEquals(5, low.get(0).getQuantityAvailable());
+        lowStockIndex.load();
+        assertEquals(List.of("SKU-B"), lowStockIndex.top(10).stream().map(LowStockItemDto::getSkuCode).toList());
+        assertEquals(5, lowStockIndex.top(10).get(0).getQuantityAvailable());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.export(InventoryExportService.Format.CSV, csv);
+        String exported = csv.toString(StandardCharsets.UTF_8);
+        assertTrue(exported.contains(",SKU-B,Item SKU-B,5,0,10,"), exported);
+        assertTrue(exported.contains(",SKU-A,Item SKU-A,500,0,0,"), exported);
+        assertEquals(50, stored("SKU-B"));
+
+        // Compaction stamps the row, and the changes feed reports the balance
+        movements.compact();
+        InventoryChanges changes = syncService.getChanges(since, 100);
+        assertEquals(List.of("SKU-B"), changes.getUpserts().stream().map(InventoryItemDto::getSkuCode).toList());
+        assertEquals(5, changes.getUpserts().get(0).getQuantityAvailable());
+    }
+
+    @Test
+    void aSecondInstanceCannotTakeTheLease() {
+        SingleInstanceLease other = new SingleInstanceLease(jdbcTemplate, "stock-movements", Duration.ofSeconds(30));
+        assertThrows(IllegalStateException.class, other::claim);
+
+        // Until it expires: a crashed holder's lease is taken over
+        jdbcTemplate.update("update instance_leases set expires_at = ? where name = 'stock-movements'",
+                Timestamp.from(Instant.now().minusSeconds(1)));
+        other.claim();
+        assertFalse(movements.renewLease());
+        assertThrows(IllegalStateException.class, () -> movements.deduct("SKU-A", 1));
+
+        other.release();
+        assertTrue(movements.renewLease());
+        assertTrue(movements.deduct("SKU-A", 1));
+    }
+
+    private int stored(String sku) {
+        return repository.findBySkuCode(sku).orElseThrow().getQuantityAvailable();
+    }
+}
@@ -0,0 +1,118 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.dto.ReservationRequest;
+import com.SynexiAI.inventor.dto.ReservationResponse;
+import com.SynexiAI.inventor.exception.InsufficientStockException;
+import com.SynexiAI.inventor.exception.InventoryConflictException;
+import com.SynexiAI.inventor.model.InventoryItem;
+import com.SynexiAI.inventor.model.ReservationStatus;
+import com.SynexiAI.inventor.model.StockReservation;
+import com.SynexiAI.inventor.repository.InventoryRepository;
+import com.SynexiAI.inventor.repository.StockReservationRepository;
+import com.SynexiAI.inventor.service.ChangeSequence;
+import com.SynexiAI.inventor.service.InventoryMappingService;
+import com.SynexiAI.inventor.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockReservationService.class, InventoryMappingService.class, ChangeSequence.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService service;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        reservationRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        InventoryItem item = new InventoryItem();
+        item.setSkuCode("SKU-R");
+        item.setName("Reserved item");
+        item.setQuantityAvailable(10);
+        inventoryRepository.save(item);
+    }
+
+    @Test
+    void reserveThenCommitConsumesReservedStock() {
+        ReservationResponse held = service.reserve(new ReservationRequest("order-1", "SKU-R", 4, 60));
+        assertEquals(ReservationStatus.HELD, held.getStatus());
+        assertStock(6, 4);
+
+        // retrying with the same id does not take a second hold
+        service.reserve(new ReservationRequest("order-1", "SKU-R", 4, 60));
+        assertStock(6, 4);
+
+        assertEquals(ReservationStatus.COMMITTED, service.commit("order-1").getStatus());
+        assertEquals(ReservationStatus.COMMITTED, service.commit("order-1").getStatus());
+        assertStock(6, 0);
+        assertThrows(IllegalStateException.class, () -> service.release("order-1"));
+    }
+
+    @Test
+    void releaseReturnsStockAndOverReservationIsRejected() {
+        service.reserve(new ReservationRequest("order-2", "SKU-R", 7, 60));
+        assertThrows(InsufficientStockException.class,
+                () -> service.reserve(new ReservationRequest("order-3", "SKU-R", 4, 60)));
+
+        assertEquals(ReservationStatus.RELEASED, service.release("order-2").getStatus());
+        assertStock(10, 0);
+    }
+
+    @Test
+    void sweeperReleasesExpiredHolds() {
+        service.reserve(new ReservationRequest("order-4", "SKU-R", 3, 60));
+        service.reserve(new ReservationRequest("order-5", "SKU-R", 2, 60));
+        StockReservation expired = reservationRepository.findById("order-4").orElseThrow();
+        expired.setExpiresAt(Instant.now().minusSeconds(5));
+        reservationRepository.save(expired);
+
+        service.sweepExpired();
+
+        assertEquals(ReservationStatus.EXPIRED, reservationRepository.findById("order-4").orElseThrow().getStatus());
+        assertEquals(ReservationStatus.HELD, reservationRepository.findById("order-5").orElseThrow().getStatus());
+        assertStock(8, 2);
+        assertThrows(IllegalStateException.class, () -> service.commit("order-4"));
+    }
+
+    @Test
+    void settlingAHoldWhoseStockIsNoLongerReservedFailsAndLeavesItHeld() {
+        service.reserve(new ReservationRequest("order-6", "SKU-R", 4, 60));
+        service.reserve(new ReservationRequest("order-7", "SKU-R", 2, 60));
+        jdbcTemplate.update("update inventory_items set quantity_reserved = 3 where sku_code = 'SKU-R'");
+
+        assertThrows(InventoryConflictException.class, () -> service.commit("order-6"));
+        assertThrows(InventoryConflictException.class, () -> service.release("order-6"));
+        assertEquals(ReservationStatus.HELD, reservationRepository.findById("order-6").orElseThrow().getStatus());
+        assertStock(4, 3);
+
+        assertEquals(ReservationStatus.COMMITTED, service.commit("order-7").getStatus());
+        assertStock(4, 1);
+    }
+
+    private void assertStock(int available, int reserved) {
+        InventoryItem item = inventoryRepository.findBySkuCode("SKU-R").orElseThrow();
+        assertEquals(available, item.getQuantityAvailable());
+        assertEquals(reserved, item.getQuantityReserved());
+    }
+}
@@ -0,0 +1,100 @@
+package com.SynexiAI.inventor.inventory_service;
+
+import com.SynexiAI.inventor.cache.TwoLevelCache;
+import com.SynexiAI.inventor.cache.TwoLevelCacheManager;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+
+    private static final String CHANNEL = "inventory:cache-invalidation";
+
+    // Stands in for Redis: both "nodes" share it
+    private ConcurrentMapCacheManager shared;
+    private StringRedisTemplate redis;
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setup() {
+        shared = new ConcurrentMapCacheManager("inventoryItem");
+        redis = mock(StringRedisTemplate.class);
+        nodeA = new TwoLevelCacheManager(shared, Caffeine.newBuilder().maximumSize(100).recordStats(), redis, CHANNEL);
+        nodeB = new TwoLevelCacheManager(shared, Caffeine.newBuilder().maximumSize(100).recordStats(), redis, CHANNEL);
+    }
+
+    @Test
+    void readsAreServedFromL1AfterTheFirstHit() {
+        shared.getCache("inventoryItem").put(1L, "from redis");
+        TwoLevelCache cache = (TwoLevelCache) nodeA.getCache("inventoryItem");
+
+        assertEquals("from redis", cache.get(1L).get());
+        shared.getCache("inventoryItem").put(1L, "changed behind our back");
+
+        assertEquals("from redis", cache.get(1L).get());
+        assertEquals(1, cache.getLocalCache().stats().hitCount());
+    }
+
+    @Test
+    void writesUpdateBothLevelsAndBroadcast() {
+        Cache cache = nodeA.getCache("inventoryItem");
+
+        cache.put(1L, "v1");
+
+        assertEquals("v1", shared.getCache("inventoryItem").get(1L).get());
+        verify(redis).convertAndSend(CHANNEL, nodeA.getNodeId() + "|E|inventoryItem|1");
+
+        cache.clear();
+        verify(redis).convertAndSend(CHANNEL, nodeA.getNodeId() + "|C|inventoryItem");
+    }
+
+    @Test
+    void remoteInvalidationDropsOnlyTheLocalCopy() {
+        Cache onA = nodeA.getCache("inventoryItem");
+        Cache onB = nodeB.getCache("inventoryItem");
+        onB.put(1L, "old");
+        onB.put(2L, "other");
+
+        onA.put(1L, "new");
+        assertEquals("old", onB.get(1L).get());     // B still serves its stale L1 copy...
+
+        nodeB.onMessage(message(nodeA.getNodeId() + "|E|inventoryItem|1"), null);
+
+        assertEquals("new", onB.get(1L).get());     // ...until the broadcast arrives
+        assertEquals("other", onB.get(2L).get());
+    }
+
+    @Test
+    void ignoresItsOwnBroadcasts() {
+        TwoLevelCache onA = (TwoLevelCache) nodeA.getCache("inventoryItem");
+        onA.put("page|1", "p");
+
+        nodeA.onMessage(message(nodeA.getNodeId() + "|C|inventoryItem"), null);
+
+        assertNotNull(onA.getLocalCache().getIfPresent("page|1"));
+    }
+
+    @Test
+    void keysMayContainTheSeparator() {
+        Cache onB = nodeB.getCache("inventoryItem");
+        onB.put("id|100|null", "page");
+
+        nodeB.onMessage(message("other-node|E|inventoryItem|id|100|null"), null);
+
+        assertNull(((TwoLevelCache) onB).getLocalCache().getIfPresent("id|100|null"));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,25 @@
+package com.synexiai.loadtest;
+
+import com.synexiai.order.dto.OrderNotificationEvent;
+import com.synexiai.order.service.RabbitMQPublisher;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Replaces the RabbitMQ publisher in order-service: counts confirmations instead of queueing them. */
+class CountingNotificationPublisher extends RabbitMQPublisher {
+
+    private final LongAdder sent = new LongAdder();
+
+    CountingNotificationPublisher() {
+        super(null);
+    }
+
+    @Override
+    public void sendNotification(OrderNotificationEvent event) {
+        sent.increment();
+    }
+
+    long sent() {
+        return sent.sum();
+    }
+}
@@ -0,0 +1,78 @@
+package com.synexiai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stands in for user-service (order confirmation looks up the customer's email)
+ * and notification-service (inventory's low-stock alerts). Answers every request
+ * without failures; email lookups are delayed by {@code emailLatency}, otherwise
+ * it answers immediately.
+ */
+final class DownstreamStub implements AutoCloseable {
+
+    private static final String EMAIL_PATH = "/api/auth/email/";
+
+    private final HttpServer server;
+    private final long emailLatencyMillis;
+    // Unbounded so a delayed lookup never queues behind another one
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private DownstreamStub(HttpServer server, Duration emailLatency) {
+        this.server = server;
+        this.emailLatencyMillis = emailLatency.toMillis();
+    }
+
+    static DownstreamStub start(Duration emailLatency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        DownstreamStub stub = new DownstreamStub(server, emailLatency);
+        server.createContext("/", stub::handle);
+        server.setExecutor(stub.executor);
+        server.start();
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            if (emailLatencyMillis > 0 && path.startsWith(EMAIL_PATH)) {
+                sleep();
+            }
+            byte[] response = path.startsWith(EMAIL_PATH)
+                    ? (path.substring(EMAIL_PATH.length()) + "@loadtest.local").getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+            if (response.length > 0) {
+                exchange.getResponseBody().write(response);
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(emailLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
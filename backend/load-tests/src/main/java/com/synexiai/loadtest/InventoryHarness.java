@@ -0,0 +1,31 @@
+package com.synexiai.loadtest;
+
+import com.SynexiAI.inventor.config.RedisConfig;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * inventory-service as it runs in production, minus Redis: the caches become
+ * no-ops (spring.cache.type=none) so every read reaches H2. Settings come from
+ * {@code loadtest-inventory.properties}, not the service's own application.properties.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {RedisAutoConfiguration.class, RedisReactiveAutoConfiguration.class,
+        RedisRepositoriesAutoConfiguration.class, RabbitAutoConfiguration.class, KafkaAutoConfiguration.class})
+@AutoConfigurationPackage(basePackages = "com.SynexiAI.inventor")
+@ComponentScan(basePackages = "com.SynexiAI.inventor", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = SpringBootApplication.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = RedisConfig.class)})
+@EnableCaching
+class InventoryHarness {
+}
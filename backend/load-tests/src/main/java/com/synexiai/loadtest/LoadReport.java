@@ -0,0 +1,89 @@
+package com.synexiai.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * What one run measured. Latencies are in milliseconds and cover only the
+ * measured window; the stock check covers every order, warm-up included.
+ *
+ * @param oversoldSkus  SKUs with more units confirmed than they ever had
+ * @param oversoldUnits units confirmed beyond stock, summed over those SKUs
+ * @param negativeStock inventory rows that ended below zero
+ * @param driftedSkus   SKUs whose final stock is not starting stock minus confirmed units
+ *                      (lost or double-applied deductions)
+ * @param peakInFlight  most orders outstanding at once; with platform threads it stops growing
+ *                      near Tomcat's thread limit once downstream calls are slow
+ * @param pinnedEvents  virtual threads that blocked while pinned to their carrier
+ * @param pinnedSites   where they were pinned, most frequent first
+ */
+record LoadReport(LoadTestConfig config, long sent, long confirmed, long rejected, long errors, double throughput,
+                  double p50, double p99, double p999, double max, int peakInFlight,
+                  int oversoldSkus, long oversoldUnits, int negativeStock, int driftedSkus,
+                  long pinnedEvents, Map<String, Long> pinnedSites) {
+
+    static LoadReport of(LoadTestConfig config, OpenLoopDriver.Result result, StockCheck stock,
+                         long pinnedEvents, Map<String, Long> pinnedSites) {
+        Histogram latency = result.latencyNanos();
+        return new LoadReport(config, result.sent(), result.confirmed(), result.rejected(), result.errors(),
+                result.throughputPerSecond(),
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()), result.peakInFlight(),
+                stock.oversoldSkus(), stock.oversoldUnits(), stock.negativeStock(), stock.driftedSkus(),
+                pinnedEvents, pinnedSites);
+    }
+
+    boolean oversold() {
+        return oversoldSkus > 0 || negativeStock > 0;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nPOST /api/orders: %d/s for %ds after %ds warm-up, %d SKUs (zipf %.2f), stock %d, %d per order%n",
+                config.rate(), config.duration().toSeconds(), config.warmup().toSeconds(), config.skus(),
+                config.zipf(), config.stock(), config.quantity());
+        out.printf("  threads     %s, user-service latency %dms%n", config.virtualThreads() ? "virtual" : "platform",
+                config.downstreamLatency().toMillis());
+        out.printf("  requests    %d sent, %d confirmed, %d rejected, %d errors%n", sent, confirmed, rejected, errors);
+        out.printf("  throughput  %.1f req/s%n", throughput);
+        out.printf("  latency ms  p50 %.2f   p99 %.2f   p99.9 %.2f   max %.2f%n", p50, p99, p999, max);
+        out.printf("  in flight   peak %d (cap %d)%n", peakInFlight, config.maxInFlight());
+        out.printf("  oversell    %d SKUs, %d units, %d rows below zero%n", oversoldSkus, oversoldUnits, negativeStock);
+        out.printf("  drift       %d SKUs where stock != start - confirmed%n", driftedSkus);
+        if (config.virtualThreads()) {
+            out.printf("  pinned      %d events%n", pinnedEvents);
+            pinnedSites.forEach((site, count) -> out.printf("              %6d  %s%n", count, site));
+        }
+        out.println();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /** Confirmed units per SKU from the order database against final stock in the inventory database. */
+    record StockCheck(int oversoldSkus, long oversoldUnits, int negativeStock, int driftedSkus) {
+
+        static StockCheck of(int startingStock, Map<String, Long> confirmedUnits, Map<String, Integer> finalStock) {
+            int oversoldSkus = 0;
+            long oversoldUnits = 0;
+            int negative = 0;
+            int drifted = 0;
+            for (Map.Entry<String, Integer> row : finalStock.entrySet()) {
+                long confirmed = confirmedUnits.getOrDefault(row.getKey(), 0L);
+                if (confirmed > startingStock) {
+                    oversoldSkus++;
+                    oversoldUnits += confirmed - startingStock;
+                }
+                if (row.getValue() < 0) {
+                    negative++;
+                }
+                if (row.getValue() != startingStock - confirmed) {
+                    drifted++;
+                }
+            }
+            return new StockCheck(oversoldSkus, oversoldUnits, negative, drifted);
+        }
+    }
+}
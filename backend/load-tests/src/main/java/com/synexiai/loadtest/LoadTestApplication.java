@@ -0,0 +1,182 @@
+package com.synexiai.loadtest;
+
+import com.SynexiAI.inventor.service.InMemoryStockLedger;
+import com.SynexiAI.inventor.service.InventoryImportService;
+import com.SynexiAI.inventor.service.StockMovementLedger;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts inventory-service and order-service in this JVM on in-memory H2, with
+ * user-service, notification-service and RabbitMQ stubbed out, then drives
+ * {@code POST /api/orders} at a fixed rate with Zipf-distributed SKUs and
+ * reports latency percentiles, throughput and whether any stock was oversold.
+ * With {@code --threads=virtual} both services run on virtual threads and the
+ * report also lists where they got pinned to a carrier.
+ *
+ * <p>Exits with status 1 when stock was oversold, so it can gate a build.
+ * Service settings can be changed with system properties, which both services
+ * see, e.g. {@code -Dinventory.ledger.enabled=true}.
+ */
+public final class LoadTestApplication {
+
+    // Throwaway key shared by both services and the token below; never used outside this JVM
+    private static final String JWT_SECRET = UUID.randomUUID() + "-" + UUID.randomUUID();
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (config.virtualThreads() && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("--threads=virtual needs Java 21 or later, running on "
+                    + Runtime.version());
+        }
+        String virtualThreads = "spring.threads.virtual.enabled=" + config.virtualThreads();
+        LoadReport report;
+        try (PinningMonitor pinning = PinningMonitor.start();
+             DownstreamStub downstream = DownstreamStub.start(config.downstreamLatency());
+             ConfigurableApplicationContext inventory = new SpringApplicationBuilder(InventoryHarness.class)
+                     .properties("spring.config.name=loadtest-inventory", virtualThreads,
+                             "jwt.secret=" + JWT_SECRET,
+                             "inventory.alerts.notify-url=" + downstream.baseUrl() + "/api/notify/email")
+                     .run();
+             ConfigurableApplicationContext orders = new SpringApplicationBuilder(OrderHarness.class)
+                     .properties("spring.config.name=loadtest-order", virtualThreads,
+                             "jwt.secret=" + JWT_SECRET,
+                             "services.inventory.url=http://localhost:" + port(inventory),
+                             "services.user.url=" + downstream.baseUrl())
+                     .run()) {
+
+            seed(inventory, config);
+            report = run(config, inventory, orders, pinning);
+        }
+
+        report.print(System.out);
+        if (config.json() != null) {
+            new ObjectMapper().registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(config.json().toFile(), report);
+        }
+        System.exit(report.oversold() ? 1 : 0);
+    }
+
+    private static void seed(ConfigurableApplicationContext inventory, LoadTestConfig config) throws Exception {
+        StringBuilder csv = new StringBuilder("skuCode,name,quantityAvailable,reorderLevel\n");
+        for (int i = 0; i < config.skus(); i++) {
+            csv.append(config.skuCode(i)).append(",Load item ").append(i).append(',')
+                    .append(config.stock()).append(",0\n");
+        }
+        inventory.getBean(InventoryImportService.class)
+                .importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static LoadReport run(LoadTestConfig config, ConfigurableApplicationContext inventory,
+                                  ConfigurableApplicationContext orders, PinningMonitor pinning)
+            throws InterruptedException {
+        ObjectMapper json = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI placeOrder = URI.create("http://localhost:" + port(orders) + "/api/orders");
+        String authorization = "Bearer " + token();
+        ZipfianSampler skus = new ZipfianSampler(config.skus(), config.zipf(), config.seed());
+
+        OpenLoopDriver driver = new OpenLoopDriver(config.rate(), config.warmup(), config.duration(),
+                config.maxInFlight());
+        OpenLoopDriver.Result result = driver.run(() -> {
+            String body = "{\"skuCode\":\"" + config.skuCode(skus.next()) + "\",\"quantity\":" + config.quantity()
+                    + ",\"placedBy\":\"loadtest\"}";
+            HttpRequest request = HttpRequest.newBuilder(placeOrder)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", authorization)
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> outcome(json, response));
+        });
+
+        // Deductions held by the in-memory ledger only reach the table on flush
+        inventory.getBeanProvider(InMemoryStockLedger.class).ifAvailable(InMemoryStockLedger::flush);
+        return LoadReport.of(config, result, stockCheck(config, inventory, orders), pinning.events(),
+                pinning.topSites());
+    }
+
+    private static OpenLoopDriver.Outcome outcome(ObjectMapper json, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return OpenLoopDriver.Outcome.ERROR;
+        }
+        try {
+            JsonNode order = json.readTree(response.body());
+            return "CONFIRMED".equals(order.path("status").asText())
+                    ? OpenLoopDriver.Outcome.CONFIRMED
+                    : OpenLoopDriver.Outcome.REJECTED;
+        } catch (Exception e) {
+            return OpenLoopDriver.Outcome.ERROR;
+        }
+    }
+
+    private static final String ROW_BALANCE_SQL =
+            "select sku_code, quantity_available from inventory_items where sku_code like 'LOAD-%'";
+    // With the movement ledger the row is only the last compacted snapshot; like StockMovementLedger, add the
+    // uncompacted movements in the same statement so a compaction running meanwhile is seen entirely or not at all
+    private static final String MOVEMENT_BALANCE_SQL =
+            "select i.sku_code, i.quantity_available + coalesce(sum(m.available_delta), 0) " +
+            "from inventory_items i left join stock_movements m on m.item_id = i.id and m.compacted = false " +
+            "where i.sku_code like 'LOAD-%' group by i.sku_code, i.quantity_available";
+
+    private static LoadReport.StockCheck stockCheck(LoadTestConfig config, ConfigurableApplicationContext inventory,
+                                                    ConfigurableApplicationContext orders) {
+        Map<String, Long> confirmed = new HashMap<>();
+        orders.getBean(JdbcTemplate.class).query(
+                "select sku_code, sum(quantity) from orders where status = 'CONFIRMED' group by sku_code",
+                rs -> {
+                    confirmed.put(rs.getString(1), rs.getLong(2));
+                });
+        Map<String, Integer> stock = new HashMap<>();
+        inventory.getBean(JdbcTemplate.class).query(
+                inventory.getBeanProvider(StockMovementLedger.class).getIfAvailable() != null
+                        ? MOVEMENT_BALANCE_SQL : ROW_BALANCE_SQL,
+                rs -> {
+                    stock.put(rs.getString(1), rs.getInt(2));
+                });
+        return LoadReport.StockCheck.of(config.stock(), confirmed, stock);
+    }
+
+    // Both services accept it: inventory reads "roles" as authorities, order-service maps them without a prefix
+    private static String token() {
+        return Jwts.builder()
+                .setSubject("loadtest")
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + Duration.ofDays(1).toMillis()))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
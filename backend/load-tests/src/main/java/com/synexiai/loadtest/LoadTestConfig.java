@@ -0,0 +1,90 @@
+package com.synexiai.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Run parameters, from {@code --name=value} arguments. Everything has a default
+ * so a bare run is a reasonable smoke test.
+ *
+ * @param rate        target orders per second (open loop: sent on schedule whatever the latency)
+ * @param duration    measured part of the run
+ * @param warmup      run before measuring starts; its orders still count towards oversell
+ * @param skus        catalogue size
+ * @param zipf        Zipf exponent of the SKU popularity; 0 is uniform, ~1 is a few very hot SKUs
+ * @param stock       starting quantity of every SKU
+ * @param quantity    units per order
+ * @param maxInFlight cap on outstanding requests; when reached the schedule falls behind and that shows up as latency
+ * @param seed        seed of the SKU sequence, so two runs send the same orders
+ * @param json        optional file to also write the report to as JSON
+ * @param virtualThreads    run both services with {@code spring.threads.virtual.enabled} (Java 21+)
+ * @param downstreamLatency added to every user-service email lookup, to make order-service wait on I/O
+ */
+record LoadTestConfig(int rate, Duration duration, Duration warmup, int skus, double zipf, int stock, int quantity,
+                      int maxInFlight, long seed, Path json, boolean virtualThreads, Duration downstreamLatency) {
+
+    private static final Set<String> KNOWN = Set.of("rate", "duration", "warmup", "skus", "zipf", "stock",
+            "quantity", "max-in-flight", "seed", "json", "threads", "downstream-latency");
+
+    static LoadTestConfig parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!KNOWN.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + ", expected one of " + KNOWN);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("skus", "1000")),
+                Double.parseDouble(values.getOrDefault("zipf", "0.99")),
+                Integer.parseInt(values.getOrDefault("stock", "100")),
+                Integer.parseInt(values.getOrDefault("quantity", "1")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "256")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("json") ? Path.of(values.get("json")) : null,
+                threads(values.getOrDefault("threads", "platform")),
+                duration(values.getOrDefault("downstream-latency", "0ms")));
+        if (config.rate <= 0 || config.skus <= 0 || config.quantity <= 0 || config.maxInFlight <= 0
+                || config.stock < 0 || config.zipf < 0) {
+            throw new IllegalArgumentException("rate, skus, quantity and max-in-flight must be positive; "
+                    + "stock and zipf must not be negative");
+        }
+        return config;
+    }
+
+    private static boolean threads(String value) {
+        return switch (value) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("--threads must be platform or virtual, got '" + value + "'");
+        };
+    }
+
+    // 30s, 2m, 500ms or plain seconds
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    String skuCode(int index) {
+        return String.format("LOAD-%06d", index);
+    }
+}
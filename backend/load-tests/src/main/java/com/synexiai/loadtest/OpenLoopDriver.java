@@ -0,0 +1,120 @@
+package com.synexiai.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests on a fixed schedule, independent of how fast responses come back.
+ *
+ * <p>Latency is measured from when a request was <em>due</em>, not from when it was
+ * actually sent. If the system stalls and the sender falls behind (for example
+ * because {@code maxInFlight} requests are outstanding), the time spent waiting
+ * counts against every delayed request, instead of quietly sending fewer
+ * requests and reporting only the fast ones (coordinated omission).
+ */
+final class OpenLoopDriver {
+
+    enum Outcome { CONFIRMED, REJECTED, ERROR }
+
+    /** {@code peakInFlight} is the most requests outstanding at once, warm-up included. */
+    record Result(long sent, long confirmed, long rejected, long errors, Histogram latencyNanos, Duration elapsed,
+                  int peakInFlight) {
+
+        long completed() {
+            return confirmed + rejected + errors;
+        }
+
+        double throughputPerSecond() {
+            return elapsed.isZero() ? 0 : completed() / (elapsed.toNanos() / 1e9);
+        }
+    }
+
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+
+    OpenLoopDriver(int rate, Duration warmup, Duration duration, int maxInFlight) {
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /** Calls {@code request} from this thread only; the returned futures may complete on any thread. */
+    Result run(Supplier<CompletableFuture<Outcome>> request) throws InterruptedException {
+        ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        LongAdder confirmed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLong lastCompletion = new AtomicLong();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long sent = 0;
+        int peakInFlight = 0;
+
+        for (long i = 0; ; i++) {
+            long due = start + i * period;
+            if (due >= end) {
+                break;
+            }
+            parkUntil(due);
+            inFlight.acquire();
+            peakInFlight = Math.max(peakInFlight, maxInFlight - inFlight.availablePermits());
+            boolean measured = due >= measureFrom;
+            if (measured) {
+                sent++;
+            }
+            CompletableFuture<Outcome> call;
+            try {
+                call = request.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.completedFuture(Outcome.ERROR);
+            }
+            call.whenComplete((outcome, failure) -> {
+                long now = System.nanoTime();
+                inFlight.release();
+                if (!measured) {
+                    return;
+                }
+                latency.recordValue(now - due);
+                lastCompletion.accumulateAndGet(now, Math::max);
+                if (failure != null || outcome == Outcome.ERROR) {
+                    errors.increment();
+                } else if (outcome == Outcome.CONFIRMED) {
+                    confirmed.increment();
+                } else {
+                    rejected.increment();
+                }
+            });
+        }
+
+        // Let the stragglers finish; whatever is still out after a minute is reported as missing
+        if (inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        long finished = Math.max(end, lastCompletion.get());
+        return new Result(sent, confirmed.sum(), rejected.sum(), errors.sum(), latency,
+                Duration.ofNanos(finished - measureFrom), peakInFlight);
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.synexiai.loadtest;
+
+import com.synexiai.order.config.RabbitMQConfig;
+import com.synexiai.order.service.RabbitMQPublisher;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * order-service with RabbitMQ replaced by {@link CountingNotificationPublisher}.
+ * The service's application class is left out (its auto-configuration would
+ * pull in RabbitMQ and Redis), so its RestTemplate bean is declared here, on a
+ * pooling HTTP client so the harness measures the services rather than
+ * connection setup. Settings come from {@code loadtest-order.properties}.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {RabbitAutoConfiguration.class, KafkaAutoConfiguration.class,
+        RedisAutoConfiguration.class, RedisReactiveAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage(basePackages = "com.synexiai.order")
+@ComponentScan(basePackages = "com.synexiai.order", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = SpringBootApplication.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {RabbitMQConfig.class, RabbitMQPublisher.class})})
+class OrderHarness {
+
+    @Bean
+    RestTemplate restTemplate() {
+        return new RestTemplate(new JdkClientHttpRequestFactory());
+    }
+
+    @Bean
+    CountingNotificationPublisher notificationPublisher() {
+        return new CountingNotificationPublisher();
+    }
+}
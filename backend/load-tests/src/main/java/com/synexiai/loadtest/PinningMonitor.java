@@ -0,0 +1,78 @@
+package com.synexiai.loadtest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts {@code jdk.VirtualThreadPinned} JFR events while the services run: a
+ * virtual thread that blocked while pinned to its carrier (inside
+ * {@code synchronized} or a native frame) for longer than the JDK's default
+ * threshold. Each event is attributed to its first non-JDK stack frame, which
+ * is the library or service code holding the monitor. Finds nothing on a
+ * runtime without virtual threads.
+ */
+final class PinningMonitor implements AutoCloseable {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int TOP_SITES = 5;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final LongAdder events = new LongAdder();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private PinningMonitor() {
+        stream.enable(PINNED).withStackTrace();
+        stream.onEvent(PINNED, this::record);
+    }
+
+    static PinningMonitor start() {
+        PinningMonitor monitor = new PinningMonitor();
+        monitor.stream.startAsync();
+        return monitor;
+    }
+
+    long events() {
+        return events.sum();
+    }
+
+    /** The most frequent pinning sites, most frequent first. */
+    Map<String, Long> topSites() {
+        Map<String, Long> top = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(TOP_SITES)
+                .forEach(e -> top.put(e.getKey(), e.getValue().sum()));
+        return top;
+    }
+
+    private void record(RecordedEvent event) {
+        events.increment();
+        sites.computeIfAbsent(site(event.getStackTrace()), site -> new LongAdder()).increment();
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
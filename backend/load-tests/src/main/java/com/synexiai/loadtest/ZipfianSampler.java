@@ -0,0 +1,40 @@
+package com.synexiai.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws item indexes with Zipf-distributed popularity: index {@code k} (0-based)
+ * is picked with probability proportional to {@code 1 / (k + 1)^exponent}, so
+ * index 0 is the hottest. The cumulative distribution is precomputed and each
+ * draw is a binary search.
+ */
+final class ZipfianSampler {
+
+    private final double[] cumulative;
+    private final SplittableRandom random;
+
+    ZipfianSampler(int items, double exponent, long seed) {
+        cumulative = new double[items];
+        double sum = 0;
+        for (int k = 0; k < items; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < items; k++) {
+            cumulative[k] /= sum;
+        }
+        cumulative[items - 1] = 1.0;
+        random = new SplittableRandom(seed);
+    }
+
+    /** Not thread-safe: one sampler per sending thread. */
+    int next() {
+        int found = Arrays.binarySearch(cumulative, random.nextDouble());
+        return found >= 0 ? found : -found - 1;
+    }
+
+    double probability(int index) {
+        return index == 0 ? cumulative[0] : cumulative[index] - cumulative[index - 1];
+    }
+}
@@ -0,0 +1,54 @@
+package com.synexiai.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfianSamplerTest {
+
+    @Test
+    void probabilitiesFollowPowerLawAndSumToOne() {
+        ZipfianSampler sampler = new ZipfianSampler(100, 1.0, 1);
+
+        double total = 0;
+        for (int i = 0; i < 100; i++) {
+            total += sampler.probability(i);
+        }
+        assertThat(total).isCloseTo(1.0, within(1e-9));
+        assertThat(sampler.probability(0) / sampler.probability(9)).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    void drawsMatchDistribution() {
+        ZipfianSampler sampler = new ZipfianSampler(50, 0.99, 7);
+        int[] counts = new int[50];
+        int draws = 200_000;
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.next()]++;
+        }
+
+        assertThat(counts[0] / (double) draws).isCloseTo(sampler.probability(0), within(0.01));
+        assertThat(counts[49] / (double) draws).isCloseTo(sampler.probability(49), within(0.005));
+        assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[10]);
+    }
+
+    @Test
+    void zeroExponentIsUniform() {
+        ZipfianSampler sampler = new ZipfianSampler(4, 0, 3);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(sampler.probability(i)).isCloseTo(0.25, within(1e-9));
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameSequence() {
+        ZipfianSampler first = new ZipfianSampler(1000, 1.2, 42);
+        ZipfianSampler second = new ZipfianSampler(1000, 1.2, 42);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(first.next()).isEqualTo(second.next());
+        }
+    }
+}
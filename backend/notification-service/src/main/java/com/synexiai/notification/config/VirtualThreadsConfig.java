@@ -0,0 +1,21 @@
+package com.synexiai.notification.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stops startup when virtual threads are switched on (the virtual-threads
+ * profile) on a JVM older than 21. Boot would otherwise ignore the setting
+ * and quietly keep running on platform threads.
+ */
+@Configuration
+@ConditionalOnProperty("spring.threads.virtual.enabled")
+public class VirtualThreadsConfig {
+
+    public VirtualThreadsConfig() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs a Java 21+ runtime, this is "
+                    + Runtime.version() + ": run on 21 or drop the virtual-threads profile");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.synexiai.order.model.Order;
 import com.synexiai.order.repository.OrderRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +28,12 @@ public class OrderService {
     private final RabbitMQPublisher publisher;
     private final ObjectMapper objectMapper;
 
+    // Defaults match the local dev ports; overridden when the services run elsewhere (e.g. the load-test harness)
+    @Value("${services.inventory.url:http://localhost:8082}")
+    private String inventoryServiceUrl = "http://localhost:8082";
+
+    @Value("${services.user.url:http://localhost:8081}")
+    private String userServiceUrl = "http://localhost:8081";
 
 
     // ✅ Place a new order
@@ -54,7 +61,7 @@ public class OrderService {
             HttpEntity<InventoryDeductRequest> requestEntity = new HttpEntity<>(deductRequest, headers);
 
             ResponseEntity<Void> response = restTemplate.exchange(
-                    "http://localhost:8082/api/inventory/deduct",
+                    inventoryServiceUrl + "/api/inventory/deduct",
                     HttpMethod.POST,
                     requestEntity,
                     Void.class
@@ -145,7 +152,7 @@ public class OrderService {
     // 📧 Helper to call user-service for email by username
     private String getEmailForUser(String username, String token) {
         try {
-            String url = "http://localhost:8081/api/auth/email/" + username;
+            String url = userServiceUrl + "/api/auth/email/" + username;
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", token);
@@ -167,7 +174,7 @@ public class OrderService {
 
     private InventoryItemDto fetchInventoryBySku(String skuCode, String token) {
         try {
-            String url = "http://localhost:8082/api/inventory/sku/" + skuCode;
+            String url = inventoryServiceUrl + "/api/inventory/sku/" + skuCode;
 
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", token);
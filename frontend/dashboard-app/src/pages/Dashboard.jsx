@@ -1,7 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { useAuth } from '../contexts/AuthContext';
-import api from '../services/api';
+import api, { fetchAllInventory } from '../services/api';
 import { Bar, Doughnut } from 'react-chartjs-2';
 import {
   Chart as ChartJS,
@@ -24,9 +24,9 @@ export default function Dashboard() {
   const [isLoading, setIsLoading] = useState(true);
 
   useEffect(() => {
-    api.get('/api/inventory')
-      .then(res => {
-        setItems(res.data);
+    fetchAllInventory()
+      .then(inventory => {
+        setItems(inventory);
         setIsLoading(false);
       })
       .catch(() => {
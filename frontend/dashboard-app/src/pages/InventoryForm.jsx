@@ -62,6 +62,10 @@ export default function InventoryForm() {
       window.location.reload();
     } catch (err) {
       console.error('Failed to save item', err);
+      if (err.response?.status === 409) {
+        toast.error('This item was changed by someone else. Reload it and try again.');
+        return;
+      }
       toast.error(err.response?.data?.message || 'Error saving item');
     }
   };
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../services/api';
+import { applyInventoryDeltas, fetchAllInventory, searchInventory, subscribeInventoryChanges } from '../services/api';
 import { useNavigate, useLocation } from 'react-router-dom';
 import { utils, writeFile } from 'xlsx';
 import { Bar, Line } from 'react-chartjs-2';
@@ -21,27 +21,51 @@ export default function InventoryList() {
   const navigate = useNavigate();
   const location = useLocation();
 
+  // Load a snapshot once the change stream is connected, then keep it current from pushed deltas
   useEffect(() => {
-    api.get('/api/inventory')
-      .then(res => {
-        setItems(res.data);
-        setFilteredItems(res.data);
-      })
-      .catch(err => {
-        console.error('⚠️ Failed to load inventory:', err);
-        toast.error('Failed to load inventory.');
-      })
-      .finally(() => setLoading(false));
+    const load = () =>
+      fetchAllInventory()
+        .then(inventory => setItems(inventory))
+        .catch(err => {
+          console.error('⚠️ Failed to load inventory:', err);
+          toast.error('Failed to load inventory.');
+        })
+        .finally(() => setLoading(false));
+
+    load();
+    return subscribeInventoryChanges({
+      onReady: load,
+      onResync: load,
+      onDeltas: deltas => setItems(current => applyInventoryDeltas(current, deltas)),
+    });
   }, [location.pathname]);
 
+  // Search runs on the server; wait for a pause in typing and ignore replies to stale terms
+  useEffect(() => {
+    const term = search.trim();
+    if (!term) {
+      setFilteredItems(items);
+      return;
+    }
+    let stale = false;
+    const timer = setTimeout(() => {
+      searchInventory(term)
+        .then(results => {
+          if (!stale) setFilteredItems(results);
+        })
+        .catch(err => {
+          console.error('⚠️ Search failed:', err);
+          toast.error('Search failed.');
+        });
+    }, 200);
+    return () => {
+      stale = true;
+      clearTimeout(timer);
+    };
+  }, [search, items]);
+
   const handleSearch = (e) => {
-    const term = e.target.value;
-    setSearch(term);
-    const filtered = items.filter(item =>
-      item.name.toLowerCase().includes(term.toLowerCase()) ||
-      item.skuCode.toLowerCase().includes(term.toLowerCase())
-    );
-    setFilteredItems(filtered);
+    setSearch(e.target.value);
     setCurrentPage(1);
   };
 
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import api from '../services/api';
+import { fetchAllInventory } from '../services/api';
 import { Bar, Doughnut, Line } from 'react-chartjs-2';
 import {
   Chart as ChartJS,
@@ -33,9 +33,9 @@ export default function InventoryReports() {
   const [isLoading, setIsLoading] = useState(true);
 
   useEffect(() => {
-    api.get('/api/inventory')
-      .then(res => {
-        setItems(res.data);
+    fetchAllInventory()
+      .then(inventory => {
+        setItems(inventory);
         setIsLoading(false);
       })
       .catch(err => {
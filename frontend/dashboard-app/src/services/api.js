@@ -35,4 +35,92 @@ api.interceptors.response.use(
   }
 );
 
+// GET /api/inventory is cursor-paginated; follow nextCursor until the last page
+export async function fetchAllInventory(pageSize = 500) {
+  const items = [];
+  let cursor;
+  do {
+    const res = await api.get('/api/inventory', { params: { size: pageSize, cursor } });
+    items.push(...res.data.items);
+    cursor = res.data.hasMore ? res.data.nextCursor : undefined;
+  } while (cursor);
+  return items;
+}
+
+// Ranked server-side search over SKU, name and location
+export async function searchInventory(query, offset = 0, limit = 200) {
+  const res = await api.get('/api/inventory/search', { params: { q: query, offset, limit } });
+  return res.data.items;
+}
+
+// Apply a batch of change-stream deltas to a list of items
+export function applyInventoryDeltas(items, deltas) {
+  const byId = new Map(items.map(item => [item.id, item]));
+  for (const delta of deltas) {
+    if (delta.op === 'DELETE') {
+      byId.delete(delta.id);
+      continue;
+    }
+    const current = delta.item ?? byId.get(delta.id);
+    if (!current) continue; // stock change for an item we never loaded
+    byId.set(delta.id, {
+      ...current,
+      skuCode: delta.skuCode,
+      quantityAvailable: delta.quantityAvailable ?? current.quantityAvailable,
+      quantityReserved: delta.quantityReserved ?? current.quantityReserved,
+      reorderLevel: delta.reorderLevel ?? current.reorderLevel,
+    });
+  }
+  return [...byId.values()];
+}
+
+// GET /api/inventory/stream is server-sent events. EventSource cannot send the
+// bearer token, so read the stream with fetch. Reconnects after a pause; call
+// the returned function to stop.
+export function subscribeInventoryChanges({ onReady, onDeltas, onResync }) {
+  const controller = new AbortController();
+  const handlers = { ready: onReady, deltas: onDeltas, resync: onResync };
+
+  const connect = async () => {
+    const res = await fetch('http://localhost:8082/api/inventory/stream', {
+      headers: { Accept: 'text/event-stream', Authorization: `Bearer ${localStorage.getItem('token')}` },
+      signal: controller.signal,
+    });
+    if (!res.ok) throw new Error(`stream failed: ${res.status}`);
+    const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += value;
+      let end;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, end);
+        buffer = buffer.slice(end + 2);
+        let event = 'message';
+        const data = [];
+        for (const line of block.split('\n')) {
+          if (line.startsWith('event:')) event = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5).trimStart());
+        }
+        if (data.length) handlers[event]?.(JSON.parse(data.join('\n')));
+      }
+    }
+  };
+
+  const loop = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        await connect();
+      } catch (err) {
+        if (controller.signal.aborted) return;
+        console.warn('⚠️ Inventory stream dropped:', err);
+      }
+      await new Promise(resolve => setTimeout(resolve, 3000));
+    }
+  };
+  loop();
+  return () => controller.abort();
+}
+
 export default api;